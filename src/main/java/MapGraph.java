@@ -1,9 +1,14 @@
 import autocomplete.Autocomplete;
 import autocomplete.TreeSetAutocomplete;
+import caches.SegmentedLruCache;
 import graphs.AStarGraph;
 import graphs.Edge;
+import graphs.IndexedGraph;
+import graphs.StronglyConnectedComponents;
 import graphs.shortestpaths.AStarSolver;
-import minpq.DoubleMapMinPQ;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import minpq.MinPQ;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Point;
 import org.xml.sax.Attributes;
@@ -19,19 +24,50 @@ import java.util.*;
 import java.util.zip.GZIPInputStream;
 
 /**
- * {@link AStarGraph} of places as {@link Point} vertices and streets edges weighted by physical distance.
+ * {@link AStarGraph} of places as {@link Point} vertices and streets edges weighted by physical distance. Also an
+ * {@link IndexedGraph} with the edges stored in compressed arrays, so that routing keeps its search state in primitive
+ * arrays.
  *
  * @see AStarGraph
+ * @see IndexedGraph
  * @see MapServer
  */
-public class MapGraph implements AStarGraph<Point> {
+public class MapGraph implements AStarGraph<Point>, IndexedGraph<Point> {
+    /**
+     * Memory budget in bytes for cached routes.
+     */
+    private static final long ROUTE_CACHE_BYTES = 16L << 20;
     private final String osmPath;
     private final String placesPath;
     private final SpatialContext context;
     private final Map<Point, List<Edge<Point>>> neighbors;
+    /**
+     * Every location on the road network, indexed by id.
+     */
+    private final Point[] points;
+    private final Map<Point, Integer> ids;
+    /**
+     * The edges out of the location with a given id are at positions {@code offsets[id]} (inclusive) to
+     * {@code offsets[id + 1]} (exclusive) of {@link #targets} and {@link #weights}.
+     */
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
     private final Map<String, List<Point>> locations;
     private final Autocomplete autocomplete;
     private final Map<CharSequence, Integer> importance;
+    private final StronglyConnectedComponents<Point> components;
+    private final List<Point> mainComponent;
+    private final SegmentedLruCache<List<Point>, List<Point>> routes;
+    /**
+     * {@link MetricsRegistry} of per-stage latencies and counters, shared with the server.
+     */
+    private final MetricsRegistry metrics;
+    private final LatencyHistogram closestLatency;
+    private final LatencyHistogram routeLatency;
+    private final LatencyHistogram locationsLatency;
+    private final LatencyHistogram autocompleteLatency;
+    private final LatencyHistogram rankingLatency;
 
     /**
      * Constructs a new map graph from the path to an OSM GZ file and a places TSV.
@@ -68,6 +104,50 @@ public class MapGraph implements AStarGraph<Point> {
         SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
         saxParser.parse(new GZIPInputStream(fileStream(osmPath)), handler);
 
+        // Number the locations and copy the edges into compressed arrays for the IndexedGraph view.
+        points = neighbors.keySet().toArray(new Point[0]);
+        ids = new HashMap<>(points.length * 2);
+        int edges = 0;
+        for (int id = 0; id < points.length; id += 1) {
+            ids.put(points[id], id);
+            edges += neighbors.get(points[id]).size();
+        }
+        offsets = new int[points.length + 1];
+        targets = new int[edges];
+        weights = new double[edges];
+        for (int id = 0; id < points.length; id += 1) {
+            int i = offsets[id];
+            for (Edge<Point> edge : neighbors.get(points[id])) {
+                targets[i] = ids.get(edge.to);
+                weights[i] = edge.weight;
+                i += 1;
+            }
+            offsets[id + 1] = i;
+        }
+
+        // Label the strongly connected components so that routes never start or end on small islands.
+        components = new StronglyConnectedComponents<>(this, new ArrayList<>(neighbors.keySet()));
+        mainComponent = new ArrayList<>(components.largest() == -1 ? 0 : components.size(components.largest()));
+        for (Point point : neighbors.keySet()) {
+            if (components.component(point) == components.largest()) {
+                mainComponent.add(point);
+            }
+        }
+
+        // Cache routes by snapped endpoints, estimating 8 bytes per point reference plus list overhead.
+        routes = new SegmentedLruCache<>(ROUTE_CACHE_BYTES, route -> 64 + 8L * route.size());
+
+        metrics = new MetricsRegistry("huskymaps");
+        closestLatency = metrics.histogram("closest");
+        routeLatency = metrics.histogram("astar");
+        locationsLatency = metrics.histogram("locations");
+        autocompleteLatency = metrics.histogram("autocomplete");
+        rankingLatency = metrics.histogram("ranking");
+        metrics.register("route_cache_hits", routes::hits);
+        metrics.register("route_cache_misses", routes::misses);
+        metrics.register("route_cache_coalesced", routes::coalesced);
+        metrics.register("route_cache_evictions", routes::evictions);
+
         // Add reachable locations to the Autocomplete engine.
         locations = handler.byName;
         autocomplete = new TreeSetAutocomplete();
@@ -94,17 +174,40 @@ public class MapGraph implements AStarGraph<Point> {
     }
 
     /**
-     * Returns the location closest to the given target location.
+     * Returns the location in the main (largest strongly connected) component closest to the given target location.
      *
      * @param target the target location.
      * @return the id of the location closest to the target.
      */
     public Point closest(Point target) {
-        if (neighbors.containsKey(target)) {
-            return target;
+        long start = System.nanoTime();
+        Point result = target;
+        if (components.component(target) != components.largest()) {
+            result = Collections.min(mainComponent, Comparator.comparingDouble(p -> estimatedDistance(target, p)));
         }
-        return Collections.min(neighbors.keySet(),
-                Comparator.comparingDouble(p -> estimatedDistance(target, p)));
+        closestLatency.recordSince(start);
+        return result;
+    }
+
+    /**
+     * Returns true if and only if there is a route from the start to the goal. Runs in constant time.
+     *
+     * @param start the start location.
+     * @param goal  the goal location.
+     * @return true if and only if there is a route from the start to the goal.
+     */
+    public boolean connected(Point start, Point goal) {
+        return components.connected(start, goal);
+    }
+
+    /**
+     * Returns a summary of the strongly connected components in the road network.
+     *
+     * @return a summary of the strongly connected components in the road network.
+     */
+    public String componentStatistics() {
+        return String.format("%d locations in %d strongly connected components (main component: %d locations)",
+                neighbors.size(), components.count(), mainComponent.size());
     }
 
     /**
@@ -114,12 +217,17 @@ public class MapGraph implements AStarGraph<Point> {
      * @return a list of full names of locations matching the prefix.
      */
     public List<CharSequence> getLocationsByPrefix(String prefix, int maxMatches) {
+        long start = System.nanoTime();
         List<CharSequence> matches = autocomplete.allMatches(prefix);
+        autocompleteLatency.recordSince(start);
+        start = System.nanoTime();
         Map<CharSequence, Double> elementsAndPriorities = new HashMap<>(matches.size());
         for (CharSequence match : matches) {
             elementsAndPriorities.put(match, (double) importance.get(match));
         }
-        return new DoubleMapMinPQ<>(elementsAndPriorities).removeMin(maxMatches);
+        List<CharSequence> result = MinPQ.smallestK(elementsAndPriorities, maxMatches);
+        rankingLatency.recordSince(start);
+        return result;
     }
 
     /**
@@ -129,18 +237,77 @@ public class MapGraph implements AStarGraph<Point> {
      * @return a list of locations whose name matches the location name.
      */
     public List<Point> getLocations(String locationName) {
-        return locations.getOrDefault(locationName, List.of());
+        long start = System.nanoTime();
+        List<Point> result = locations.getOrDefault(locationName, List.of());
+        locationsLatency.recordSince(start);
+        return result;
+    }
+
+    /**
+     * Returns an unmodifiable view of all named locations by name.
+     *
+     * @return an unmodifiable view of all named locations by name.
+     */
+    public Map<String, List<Point>> getAllLocations() {
+        return Collections.unmodifiableMap(locations);
     }
 
     /**
-     * Returns a list of points representing the shortest path from the points closest to the start and goal.
+     * Returns a list of points representing the shortest path from the points closest to the start and goal. Routes
+     * are cached by their snapped endpoints, and concurrent requests for the same route share a single search.
      *
      * @param start the {@link Point} to start the shortest path.
      * @param goal  the {@link Point} to end the shortest path.
-     * @return a list of points representing the shortest path from the points closest to the start and goal.
+     * @return an unmodifiable list of points representing the shortest path from the points closest to the start and
+     * goal, or an empty list if there is no route between them.
      */
     public List<Point> shortestPath(Point start, Point goal) {
-        return new AStarSolver<>(this, closest(start), closest(goal)).solution();
+        Point from = closest(start);
+        Point to = closest(goal);
+        if (!connected(from, to)) {
+            return List.of();
+        }
+        return routes.get(List.of(from, to), key -> {
+            long begin = System.nanoTime();
+            // Every caller shares the cached route, so cache an unmodifiable copy.
+            List<Point> route = List.copyOf(new AStarSolver<>(this, from, to).solution());
+            routeLatency.recordSince(begin);
+            return route;
+        });
+    }
+
+    /**
+     * Returns the route cache for reporting hit, miss, and eviction counts.
+     *
+     * @return the route cache.
+     */
+    public SegmentedLruCache<List<Point>, List<Point>> routeCache() {
+        return routes;
+    }
+
+    /**
+     * Returns the registry of per-stage latencies and counters, to which the server adds its own stages.
+     *
+     * @return the registry of per-stage latencies and counters.
+     */
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns an unmodifiable view of all locations on the road network.
+     *
+     * @return an unmodifiable view of all locations on the road network.
+     */
+    public Set<Point> vertices() {
+        return Collections.unmodifiableSet(neighbors.keySet());
+    }
+
+    @Override
+    public void forEachNeighbor(Point point, EdgeConsumer<? super Point> action) {
+        for (Edge<Point> edge : neighbors.getOrDefault(point, List.of())) {
+            action.accept(edge.from, edge.to, edge.weight);
+        }
     }
 
     @Override
@@ -148,6 +315,28 @@ public class MapGraph implements AStarGraph<Point> {
         return neighbors.computeIfAbsent(point, (p) -> List.of());
     }
 
+    @Override
+    public int vertexCount() {
+        return points.length;
+    }
+
+    @Override
+    public int id(Point point) {
+        return ids.getOrDefault(point, -1);
+    }
+
+    @Override
+    public Point vertex(int id) {
+        return points[id];
+    }
+
+    @Override
+    public void forEachNeighborId(int id, IdEdgeConsumer action) {
+        for (int i = offsets[id]; i < offsets[id + 1]; i += 1) {
+            action.accept(id, targets[i], weights[i]);
+        }
+    }
+
     @Override
     public double estimatedDistance(Point start, Point end) {
         return context.calcDistance(start, end);
@@ -0,0 +1,249 @@
+import caches.SegmentedLruCache;
+import org.locationtech.spatial4j.shape.Point;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Renders map images of the road network in a {@link MapGraph} without any external map service. The road network is
+ * drawn as a base layer of square Web Mercator tiles that are cached across requests, and each request only draws its
+ * route and location pins on top of the composed tiles.
+ *
+ * @see MapGraph
+ * @see RoadIndex
+ */
+public class MapRenderer {
+    /**
+     * Width and height of each cached base-layer tile in pixels.
+     */
+    private static final int TILE_SIZE = 256;
+    /**
+     * Width in pixels of the whole world at zoom 0, matching the high-density (@2x) static images the client expects.
+     */
+    private static final int WORLD_SIZE = 1024;
+    /**
+     * Range of zoom levels rendered, matching the range of the static map image API.
+     */
+    static final int MIN_ZOOM = 0;
+    static final int MAX_ZOOM = 22;
+    /**
+     * Maximum width and height in pixels, matching the 1280-pixel limit of the static map image API at @2x density.
+     */
+    static final int MAX_DIMENSION = 2560;
+    /**
+     * Memory budget in bytes for cached base-layer tiles.
+     */
+    private static final long TILE_CACHE_BYTES = 64L << 20;
+    private static final Color BACKGROUND = new Color(0xf2efe9);
+    private static final Color ROAD = new Color(0xffffff);
+    private static final Color ROAD_CASING = new Color(0xd6d2c8);
+    private static final Color ROUTE = new Color(0x6cb5e6);
+    private static final Color PIN = new Color(0xd9534f);
+    /**
+     * Spatial index of road segments for viewport culling.
+     */
+    private final RoadIndex roads;
+    /**
+     * {@link SegmentedLruCache} of rendered base-layer tiles keyed by "zoom/x/y".
+     */
+    private final SegmentedLruCache<String, BufferedImage> tiles;
+
+    /**
+     * Constructs a renderer for the given spatial index of roads.
+     *
+     * @param roads the spatial index of road segments.
+     */
+    public MapRenderer(RoadIndex roads) {
+        this.roads = roads;
+        this.tiles = new SegmentedLruCache<>(TILE_CACHE_BYTES, image -> 4L * image.getWidth() * image.getHeight());
+    }
+
+    /**
+     * Returns a PNG image of the map centered on the given location.
+     *
+     * @param center    the center of the map image.
+     * @param zoom      the zoom level.
+     * @param width     the width of the image in pixels.
+     * @param height    the height of the image in pixels.
+     * @param route     the list of route points (or null).
+     * @param locations the list of locations to pin (or null).
+     * @return the bytes of a PNG image of the map.
+     * @throws IllegalArgumentException if the zoom level or dimensions are out of range.
+     * @throws IOException              if the image cannot be encoded.
+     */
+    public byte[] render(Point center, int zoom, int width, int height, List<Point> route, List<Point> locations)
+            throws IOException {
+        checkBounds(zoom, width, height);
+        double world = worldSize(zoom);
+        double left = x(center.getLon(), world) - width / 2.0;
+        double top = y(center.getLat(), world) - height / 2.0;
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            int tilesPerSide = (int) (world / TILE_SIZE);
+            int firstX = (int) Math.floor(left / TILE_SIZE);
+            int lastX = (int) Math.floor((left + width - 1) / TILE_SIZE);
+            int firstY = Math.max(0, (int) Math.floor(top / TILE_SIZE));
+            int lastY = Math.min(tilesPerSide - 1, (int) Math.floor((top + height - 1) / TILE_SIZE));
+            for (int ty = firstY; ty <= lastY; ty += 1) {
+                for (int tx = firstX; tx <= lastX; tx += 1) {
+                    // Wrap around the antimeridian.
+                    int wrapped = Math.floorMod(tx, tilesPerSide);
+                    int tileY = ty;
+                    BufferedImage tile = tiles.get(zoom + "/" + wrapped + "/" + ty,
+                            key -> renderTile(zoom, wrapped, tileY));
+                    g.drawImage(tile, (int) Math.round((double) tx * TILE_SIZE - left),
+                            (int) Math.round((double) ty * TILE_SIZE - top), null);
+                }
+            }
+
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (route != null && route.size() > 1) {
+                Path2D.Double path = new Path2D.Double();
+                path.moveTo(x(route.get(0).getLon(), world) - left, y(route.get(0).getLat(), world) - top);
+                for (Point point : route.subList(1, route.size())) {
+                    path.lineTo(x(point.getLon(), world) - left, y(point.getLat(), world) - top);
+                }
+                g.setColor(ROUTE);
+                g.setStroke(new BasicStroke(8, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                g.draw(path);
+            }
+            if (locations != null) {
+                g.setStroke(new BasicStroke(3));
+                for (Point location : locations) {
+                    double px = x(location.getLon(), world) - left;
+                    double py = y(location.getLat(), world) - top;
+                    if (px < -10 || py < -10 || px > width + 10 || py > height + 10) {
+                        continue;
+                    }
+                    Ellipse2D.Double pin = new Ellipse2D.Double(px - 10, py - 10, 20, 20);
+                    g.setColor(PIN);
+                    g.fill(pin);
+                    g.setColor(Color.WHITE);
+                    g.draw(pin);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks that a map image with the given zoom level and dimensions can be rendered.
+     *
+     * @param zoom   the zoom level.
+     * @param width  the width of the image in pixels.
+     * @param height the height of the image in pixels.
+     * @throws IllegalArgumentException if the zoom level or dimensions are out of range.
+     */
+    static void checkBounds(int zoom, int width, int height) {
+        if (zoom < MIN_ZOOM || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between " + MIN_ZOOM + " and " + MAX_ZOOM);
+        }
+        if (width <= 0 || height <= 0 || width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Dimensions must be between 1 and " + MAX_DIMENSION);
+        }
+    }
+
+    /**
+     * Returns a new image of the roads in the given base-layer tile.
+     *
+     * @param zoom the zoom level.
+     * @param tx   the horizontal tile index.
+     * @param ty   the vertical tile index.
+     * @return a new image of the roads in the given base-layer tile.
+     */
+    private BufferedImage renderTile(int zoom, int tx, int ty) {
+        double world = worldSize(zoom);
+        float roadWidth = Math.max(1f, (zoom - 9) * 1.5f);
+        // Include roads just outside the tile so that their strokes continue across tile edges.
+        double margin = roadWidth + 2;
+        double left = (double) tx * TILE_SIZE;
+        double top = (double) ty * TILE_SIZE;
+        BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        try {
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            double minLon = lon(left - margin, world);
+            double maxLon = lon(left + TILE_SIZE + margin, world);
+            double maxLat = lat(top - margin, world);
+            double minLat = lat(top + TILE_SIZE + margin, world);
+            Line2D.Double line = new Line2D.Double();
+            Stroke casing = new BasicStroke(roadWidth + 2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+            Stroke road = new BasicStroke(roadWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+            for (int pass = 0; pass < 2; pass += 1) {
+                g.setColor(pass == 0 ? ROAD_CASING : ROAD);
+                g.setStroke(pass == 0 ? casing : road);
+                roads.query(minLon, minLat, maxLon, maxLat, (fromLon, fromLat, toLon, toLat) -> {
+                    line.setLine(x(fromLon, world) - left, y(fromLat, world) - top,
+                            x(toLon, world) - left, y(toLat, world) - top);
+                    g.draw(line);
+                });
+            }
+        } finally {
+            g.dispose();
+        }
+        return tile;
+    }
+
+    /**
+     * Returns the rendered base-layer tile cache for reporting hit, miss, and eviction counts.
+     *
+     * @return the rendered base-layer tile cache.
+     */
+    public SegmentedLruCache<String, BufferedImage> tileCache() {
+        return tiles;
+    }
+
+    /**
+     * Returns the width of the whole world in pixels at the given zoom level.
+     */
+    private static double worldSize(int zoom) {
+        return WORLD_SIZE * Math.pow(2, zoom);
+    }
+
+    /**
+     * Returns the Web Mercator x-coordinate in pixels for the given longitude.
+     */
+    static double x(double lon, double world) {
+        return (lon + 180) / 360 * world;
+    }
+
+    /**
+     * Returns the Web Mercator y-coordinate in pixels for the given latitude.
+     */
+    static double y(double lat, double world) {
+        double sin = Math.sin(Math.toRadians(lat));
+        return (0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * world;
+    }
+
+    /**
+     * Returns the longitude for the given Web Mercator x-coordinate in pixels.
+     */
+    static double lon(double x, double world) {
+        return x / world * 360 - 180;
+    }
+
+    /**
+     * Returns the latitude for the given Web Mercator y-coordinate in pixels.
+     */
+    static double lat(double y, double world) {
+        double n = Math.PI - 2 * Math.PI * y / world;
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+}
@@ -1,12 +1,18 @@
+import caches.HttpResourceCache;
 import io.javalin.Javalin;
+import io.javalin.http.BadRequestResponse;
 import io.javalin.validation.ValidationException;
-import org.apache.commons.codec.binary.Base64InputStream;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import org.apache.commons.codec.binary.Base64;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 
+import java.io.IOException;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -33,41 +39,149 @@ public class MapServer {
      * Maximum number of autocomplete search results.
      */
     private static final int MAX_MATCHES = 10;
+    /**
+     * Default base URL for the static map image API.
+     */
+    private static final String UPSTREAM_URL = "https://api.mapbox.com/";
+    /**
+     * Default memory budget in bytes for cached map images.
+     */
+    private static final long IMAGE_CACHE_BYTES = 64L << 20;
+    /**
+     * Default byte budget for the disk tier of cached map images.
+     */
+    private static final long IMAGE_CACHE_DISK_BYTES = 1L << 30;
+    /**
+     * Range of popular zoom levels whose vector tiles are generated at startup.
+     */
+    private static final int PREGENERATED_MIN_ZOOM = 10;
+    private static final int PREGENERATED_MAX_ZOOM = 13;
+    /**
+     * Default maximum number of Jetty request threads.
+     */
+    private static final int SERVER_THREADS = 250;
 
     public static void main(String[] args) throws Exception {
         SpatialContext context = SpatialContext.GEO;
         ShapeFactory factory = context.getShapeFactory();
         MapGraph map = new MapGraph(OSM_DB_PATH, PLACES_PATH, context);
+        System.out.println(map.componentStatistics());
+        String upstream = upstream();
+        HttpResourceCache images = imageCache();
+        RoadIndex roads = new RoadIndex(map, map.vertices());
+        MapRenderer localRenderer = localRenderer(roads);
+        VectorTiles vectorTiles = new VectorTiles(roads, map.getAllLocations());
+        vectorTiles.pregenerate(PREGENERATED_MIN_ZOOM, PREGENERATED_MAX_ZOOM);
+        RequestExecutor executor = new RequestExecutor(servingMode(), serverThreads());
+        MetricsRegistry metrics = map.metrics();
+        LatencyHistogram mapLatency = metrics.histogram("map_request");
+        LatencyHistogram searchLatency = metrics.histogram("search_request");
+        LatencyHistogram urlLatency = metrics.histogram("url");
+        LatencyHistogram renderLatency = metrics.histogram("render");
+        LatencyHistogram renderEncodeLatency = metrics.histogram("render_base64");
+        metrics.register("upstream_fetch", images.fetchLatency());
+        metrics.register("base64", images.encodeLatency());
+        metrics.register("image_cache_hits", images.memory()::hits);
+        metrics.register("image_cache_misses", images.memory()::misses);
+        metrics.register("image_cache_evictions", images.memory()::evictions);
+        metrics.register("image_cache_disk_hits", images::diskHits);
+        metrics.register("image_cache_disk_evictions", images::diskEvictions);
+        metrics.register("upstream_fetches", images::fetches);
         Javalin app = Javalin.create(config -> {
             config.spaRoot.addFile("/", "index.html");
+            executor.configure(config);
         }).start(port());
         app.get("/map/{lon},{lat},{zoom}/{width}x{height}", ctx -> {
+            long received = System.nanoTime();
             double lon = ctx.pathParamAsClass("lon", Double.class).get();
             double lat = ctx.pathParamAsClass("lat", Double.class).get();
             int zoom = ctx.pathParamAsClass("zoom", Integer.class).get();
             int width = ctx.pathParamAsClass("width", Integer.class).get();
             int height = ctx.pathParamAsClass("height", Integer.class).get();
+            try {
+                MapRenderer.checkBounds(zoom, width, height);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestResponse(e.getMessage());
+            }
             String term = ctx.queryParam("term");
 
             Point center = factory.pointLatLon(lat, lon);
-            List<Point> route;
+            Point start;
+            Point goal;
             try {
                 double startLon = ctx.queryParamAsClass("startLon", Double.class).get();
                 double startLat = ctx.queryParamAsClass("startLat", Double.class).get();
                 double goalLon = ctx.queryParamAsClass("goalLon", Double.class).get();
                 double goalLat = ctx.queryParamAsClass("goalLat", Double.class).get();
-                Point start = factory.pointLatLon(startLat, startLon);
-                Point goal = factory.pointLatLon(goalLat, goalLon);
-/*Start*/                route = map.shortestPath(start, goal);
+                start = factory.pointLatLon(startLat, startLon);
+                goal = factory.pointLatLon(goalLat, goalLon);
             } catch (ValidationException e) {
-                route = List.of();
+                start = null;
+                goal = null;
+            }
+            Point routeStart = start;
+            Point routeGoal = goal;
+            if (localRenderer != null) {
+                // Rendering is CPU-bound, so it runs in the compute stage with routing.
+                executor.respond(ctx, () -> {
+                    List<Point> route = routeStart == null ? List.of() : map.shortestPath(routeStart, routeGoal);
+                    List<Point> locations = map.getLocations(term);
+                    long begin = System.nanoTime();
+                    byte[] image = localRenderer.render(center, zoom, width, height, route, locations);
+                    renderLatency.recordSince(begin);
+                    return image;
+                }, image -> {
+                    long begin = System.nanoTime();
+                    byte[] encoded = Base64.encodeBase64Chunked(image);
+                    renderEncodeLatency.recordSince(begin);
+                    mapLatency.recordSince(received);
+                    return encoded;
+                });
+                return;
             }
-            List<Point> locations = map.getLocations(term);
-            URL staticImageURL = url(center, zoom, width, height, route, locations);
-            ctx.result(new Base64InputStream(staticImageURL.openStream(), true));
+            executor.respond(ctx, () -> {
+/*Start*/                List<Point> route = routeStart == null ? List.of() : map.shortestPath(routeStart, routeGoal);
+                List<Point> locations = map.getLocations(term);
+                long begin = System.nanoTime();
+                URL staticImageURL = url(upstream, center, zoom, width, height, route, locations);
+                urlLatency.recordSince(begin);
+                return staticImageURL;
+            }, staticImageURL -> {
+                byte[] image = images.get(staticImageURL);
+                mapLatency.recordSince(received);
+                return image;
+            });
         });
+        addTileRoute(app, vectorTiles);
         app.get("/search", ctx -> {
+            long received = System.nanoTime();
             ctx.json(map.getLocationsByPrefix(ctx.queryParam("term"), MAX_MATCHES));
+            searchLatency.recordSince(received);
+        });
+        app.get("/metrics", ctx -> {
+            ctx.contentType("text/plain; version=0.0.4");
+            ctx.result(metrics.scrape());
+        });
+    }
+
+    /**
+     * Serves the vector tiles at /tiles/{z}/{x}/{y}, responding with 400 Bad Request for out-of-range tile coordinates.
+     *
+     * @param app         the server.
+     * @param vectorTiles the vector tile generator.
+     */
+    static void addTileRoute(Javalin app, VectorTiles vectorTiles) {
+        app.get("/tiles/{z}/{x}/{y}", ctx -> {
+            int z = ctx.pathParamAsClass("z", Integer.class).get();
+            int x = ctx.pathParamAsClass("x", Integer.class).get();
+            int y = ctx.pathParamAsClass("y", Integer.class).get();
+            try {
+                byte[] tile = vectorTiles.tile(z, x, y);
+                ctx.contentType("application/vnd.mapbox-vector-tile");
+                ctx.result(tile);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestResponse(e.getMessage());
+            }
         });
     }
 
@@ -84,9 +198,85 @@ public class MapServer {
         return PORT;
     }
 
+    /**
+     * Returns the way of running request handlers from the SERVING_MODE variable, defaulting to platform threads.
+     *
+     * @return the way of running request handlers.
+     */
+    private static RequestExecutor.Mode servingMode() {
+        String mode = System.getenv("SERVING_MODE");
+        if (mode != null) {
+            return RequestExecutor.Mode.valueOf(mode.toUpperCase());
+        }
+        return RequestExecutor.Mode.PLATFORM;
+    }
+
+    /**
+     * Returns the maximum number of Jetty request threads.
+     *
+     * @return the maximum number of Jetty request threads.
+     */
+    private static int serverThreads() {
+        String threads = System.getenv("SERVER_THREADS");
+        if (threads != null) {
+            return Integer.parseInt(threads);
+        }
+        return SERVER_THREADS;
+    }
+
+    /**
+     * Returns the base URL (with trailing slash) for the static map image API.
+     *
+     * @return the base URL for the static map image API.
+     */
+    private static String upstream() {
+        String upstream = System.getenv("UPSTREAM_URL");
+        if (upstream != null) {
+            return upstream.endsWith("/") ? upstream : upstream + "/";
+        }
+        return UPSTREAM_URL;
+    }
+
+    /**
+     * Returns a renderer drawing map images from the road network if the RENDERER variable is "local", or null to fetch
+     * map images from the upstream API.
+     *
+     * @param roads the spatial index of the road network.
+     * @return a renderer drawing map images from the road network, or null.
+     */
+    private static MapRenderer localRenderer(RoadIndex roads) {
+        if ("local".equals(System.getenv("RENDERER"))) {
+            return new MapRenderer(roads);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cache of base64-encoded map images, with a disk tier if the IMAGE_CACHE_DIR variable is set. The
+     * IMAGE_CACHE_BYTES and IMAGE_CACHE_DISK_BYTES variables override the byte budgets of the two tiers.
+     *
+     * @return the cache of base64-encoded map images.
+     * @throws IOException if the disk tier directory cannot be created.
+     */
+    private static HttpResourceCache imageCache() throws IOException {
+        long maxBytes = IMAGE_CACHE_BYTES;
+        String bytes = System.getenv("IMAGE_CACHE_BYTES");
+        if (bytes != null) {
+            maxBytes = Long.parseLong(bytes);
+        }
+        long maxDiskBytes = IMAGE_CACHE_DISK_BYTES;
+        String diskBytes = System.getenv("IMAGE_CACHE_DISK_BYTES");
+        if (diskBytes != null) {
+            maxDiskBytes = Long.parseLong(diskBytes);
+        }
+        String directory = System.getenv("IMAGE_CACHE_DIR");
+        return new HttpResourceCache(maxBytes, true, directory == null ? null : Path.of(directory), maxDiskBytes);
+    }
+
     /**
      * Return the API URL for retrieving the map image.
      *
+     * @param upstream  the base URL for the API (with trailing slash).
      * @param center    the center of the map image.
      * @param width     the width of the window.
      * @param height    the height of the window.
@@ -95,7 +285,7 @@ public class MapServer {
      * @return the URL for retrieving the map image.
      * @throws MalformedURLException if the URL is invalid.
      */
-    private static URL url(Point center, int zoom, int width, int height, List<Point> route, List<Point> locations)
+    private static URL url(String upstream, Point center, int zoom, int width, int height, List<Point> route, List<Point> locations)
             throws MalformedURLException, URISyntaxException {
         StringBuilder overlay = new StringBuilder();
         if (route != null && !route.isEmpty()) {
@@ -117,13 +307,14 @@ public class MapServer {
             overlay.setCharAt(overlay.length() - 1, '/');
         }
         return new URI(String.format(
-                "https://api.mapbox.com/"
+                "%s"
                         // {username}/{style_id} and {overlay} (must include trailing slash)
                         + "styles/v1/%s/%s/static/%s"
                         // {lon},{lat},{zoom}/{width}x{height}{@2x}
                         + "%f,%f,%d/%dx%d%s"
                         // Access token and optional parameters
                         + "?access_token=%s&logo=false&attribution=false",
+                upstream,
                 "mapbox",
                 "cj7t3i5yj0unt2rmt3y4b5e32",
                 overlay,
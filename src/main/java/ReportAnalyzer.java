@@ -52,14 +52,10 @@ public class ReportAnalyzer {
         }
         //Assemble tags and how often they occur into array, then
 
-        //throw everything into here
-        MinPQ<String> testing = new OptimizedHeapMinPQ<>(map/* this should contain a map with correct priority values*/);
-
-        System.out.println(testing.removeMin());
-        System.out.println(testing.removeMin());
-        System.out.println(testing.removeMin());
-
-        //Use removeMin() three times to get the target data
+        // Only the three most common tags are needed, so select them without building a priority queue of all tags.
+        for (String tag : MinPQ.smallestK(map, 3)) {
+            System.out.println(tag);
+        }
     }
 
 
@@ -0,0 +1,181 @@
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import io.javalin.http.ServiceUnavailableResponse;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Serving strategy for request handlers that first do CPU-heavy work, such as routing, and then block on I/O, such as
+ * fetching an image from an upstream server. In {@link Mode#PLATFORM} mode both stages run on the Jetty request
+ * thread, so slow upstream responses can occupy every request thread while the CPUs sit idle. The other modes keep
+ * blocking I/O from limiting throughput.
+ *
+ * @see MapServer
+ */
+public class RequestExecutor implements AutoCloseable {
+    /**
+     * Ways of running request handlers.
+     */
+    public enum Mode {
+        /**
+         * Run both stages on the Jetty request thread pool.
+         */
+        PLATFORM,
+        /**
+         * Run both stages on a new virtual thread for each request, which releases its carrier thread while blocked.
+         */
+        VIRTUAL,
+        /**
+         * Run the compute stage on a bounded pool with one thread per processor, and the fetch stage on virtual
+         * threads, completing the response asynchronously so that neither occupies a Jetty request thread.
+         */
+        ASYNC
+    }
+
+    /**
+     * Maximum number of compute tasks waiting for each routing thread before new requests are rejected with 503 Service
+     * Unavailable, so that overload sheds requests instead of growing the queue without bound.
+     */
+    private static final int QUEUED_TASKS_PER_THREAD = 64;
+    private final Mode mode;
+    private final int serverThreads;
+    /**
+     * Bounded pool for the compute stage in {@link Mode#ASYNC} mode, or null otherwise.
+     */
+    private final ThreadPoolExecutor routing;
+    /**
+     * Virtual-thread executor for the fetch stage in {@link Mode#ASYNC} mode, or null otherwise.
+     */
+    private final ExecutorService io;
+
+    /**
+     * Constructs a request executor with the given mode.
+     *
+     * @param mode          the way of running request handlers.
+     * @param serverThreads the maximum number of Jetty request threads.
+     */
+    public RequestExecutor(Mode mode, int serverThreads) {
+        this(mode, serverThreads, Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * QUEUED_TASKS_PER_THREAD);
+    }
+
+    /**
+     * Constructs a request executor with the given mode and size of the compute stage in {@link Mode#ASYNC} mode.
+     *
+     * @param mode           the way of running request handlers.
+     * @param serverThreads  the maximum number of Jetty request threads.
+     * @param routingThreads the number of compute threads in {@link Mode#ASYNC} mode.
+     * @param queuedTasks    the maximum number of compute tasks waiting for a thread in {@link Mode#ASYNC} mode.
+     */
+    RequestExecutor(Mode mode, int serverThreads, int routingThreads, int queuedTasks) {
+        if (serverThreads < 4) {
+            throw new IllegalArgumentException("Jetty requires at least 4 server threads");
+        }
+        this.mode = mode;
+        this.serverThreads = serverThreads;
+        if (mode == Mode.ASYNC) {
+            routing = new ThreadPoolExecutor(routingThreads, routingThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queuedTasks), runnable -> {
+                Thread thread = new Thread(runnable, "routing");
+                thread.setDaemon(true);
+                return thread;
+            });
+            io = Executors.newVirtualThreadPerTaskExecutor();
+        } else {
+            routing = null;
+            io = null;
+        }
+    }
+
+    /**
+     * Configures the Jetty request thread pool for this mode.
+     *
+     * @param config the Javalin configuration to modify.
+     */
+    public void configure(JavalinConfig config) {
+        QueuedThreadPool pool = new QueuedThreadPool(serverThreads, Math.min(8, serverThreads));
+        pool.setName("server");
+        if (mode == Mode.VIRTUAL) {
+            // Jetty keeps its selectors on platform threads and dispatches handlers to virtual threads.
+            pool.setVirtualThreadsExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            config.useVirtualThreads = true;
+        }
+        config.jetty.threadPool = pool;
+    }
+
+    /**
+     * Responds to the request with the result of the compute stage followed by the fetch stage.
+     *
+     * @param ctx     the request context.
+     * @param compute the CPU-bound stage, such as finding a route.
+     * @param fetch   the I/O-bound stage, given the result of the compute stage and returning the response body.
+     * @param <T>     the type of the result of the compute stage.
+     * @throws Exception if either stage fails while running on the request thread.
+     */
+    public <T> void respond(Context ctx, Callable<T> compute, Stage<T> fetch) throws Exception {
+        if (mode != Mode.ASYNC) {
+            ctx.result(fetch.apply(compute.call()));
+            return;
+        }
+        ctx.future(() -> {
+            try {
+                return CompletableFuture.supplyAsync(unchecked(compute), routing)
+                        .thenApplyAsync(result -> unchecked(() -> fetch.apply(result)).get(), io)
+                        .thenAccept(ctx::result);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.failedFuture(new ServiceUnavailableResponse("Too many routing requests"));
+            }
+        });
+    }
+
+    /**
+     * Returns a supplier that wraps checked exceptions thrown by the callable in a {@link CompletionException}.
+     */
+    private static <T> Supplier<T> unchecked(Callable<T> callable) {
+        return () -> {
+            try {
+                return callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    /**
+     * Returns the way of running request handlers.
+     *
+     * @return the way of running request handlers.
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    @Override
+    public void close() {
+        if (routing != null) {
+            routing.shutdown();
+            io.shutdown();
+        }
+    }
+
+    /**
+     * The I/O-bound stage of a request handler.
+     *
+     * @param <T> the type of the result of the compute stage.
+     */
+    @FunctionalInterface
+    public interface Stage<T> {
+        /**
+         * Returns the response body for the result of the compute stage.
+         *
+         * @param input the result of the compute stage.
+         * @return the response body.
+         * @throws Exception if the response body cannot be produced.
+         */
+        byte[] apply(T input) throws Exception;
+    }
+}
@@ -0,0 +1,244 @@
+import graphs.Edge;
+import graphs.Graph;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Uniform-grid spatial index of the road segments in a {@link Graph} of {@link Point} vertices for viewport culling.
+ * Each undirected segment is stored once in primitive arrays and registered in every grid cell its bounding box
+ * overlaps.
+ *
+ * @see MapGraph
+ * @see MapRenderer
+ */
+public class RoadIndex {
+    /**
+     * Target average number of segments per grid cell.
+     */
+    private static final int SEGMENTS_PER_CELL = 16;
+    /**
+     * Segment endpoint coordinates stored as {fromLon, fromLat, toLon, toLat} for each segment.
+     */
+    private final double[] coordinates;
+    /**
+     * Number of segments in this index.
+     */
+    private final int size;
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+    /**
+     * Segment ids registered in each grid cell, indexed by {@code row * columns + column}.
+     */
+    private final int[][] cells;
+
+    /**
+     * Constructs an index of all segments between the given vertices.
+     *
+     * @param graph    the road network.
+     * @param vertices the vertices of the road network.
+     */
+    public RoadIndex(Graph<Point> graph, Collection<Point> vertices) {
+        List<Edge<Point>> segments = new ArrayList<>();
+        double minLon = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (Point from : vertices) {
+            minLon = Math.min(minLon, from.getLon());
+            minLat = Math.min(minLat, from.getLat());
+            maxLon = Math.max(maxLon, from.getLon());
+            maxLat = Math.max(maxLat, from.getLat());
+            for (Edge<Point> edge : graph.neighbors(from)) {
+                // Every road is stored in both directions, so only keep one of them.
+                if (compare(edge.from, edge.to) < 0) {
+                    segments.add(edge);
+                }
+            }
+        }
+        size = segments.size();
+        coordinates = new double[4 * size];
+        for (int i = 0; i < size; i += 1) {
+            Edge<Point> edge = segments.get(i);
+            coordinates[4 * i] = edge.from.getLon();
+            coordinates[4 * i + 1] = edge.from.getLat();
+            coordinates[4 * i + 2] = edge.to.getLon();
+            coordinates[4 * i + 3] = edge.to.getLat();
+        }
+        if (size == 0) {
+            minLon = minLat = 0;
+            maxLon = maxLat = 1;
+        }
+        int side = Math.max(1, (int) Math.sqrt(size / (double) SEGMENTS_PER_CELL));
+        this.minLon = minLon;
+        this.minLat = minLat;
+        this.maxLon = maxLon;
+        this.maxLat = maxLat;
+        this.columns = side;
+        this.rows = side;
+        this.cellWidth = Math.max(maxLon - minLon, 1e-9) / columns;
+        this.cellHeight = Math.max(maxLat - minLat, 1e-9) / rows;
+
+        // Count the segments in each cell, then fill exactly-sized arrays.
+        int[] counts = new int[columns * rows];
+        for (int i = 0; i < size; i += 1) {
+            for (int row = row(minLat(i)); row <= row(maxLat(i)); row += 1) {
+                for (int column = column(minLon(i)); column <= column(maxLon(i)); column += 1) {
+                    counts[row * columns + column] += 1;
+                }
+            }
+        }
+        cells = new int[columns * rows][];
+        for (int cell = 0; cell < cells.length; cell += 1) {
+            cells[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int i = 0; i < size; i += 1) {
+            for (int row = row(minLat(i)); row <= row(maxLat(i)); row += 1) {
+                for (int column = column(minLon(i)); column <= column(maxLon(i)); column += 1) {
+                    int cell = row * columns + column;
+                    cells[cell][counts[cell]] = i;
+                    counts[cell] += 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders points by longitude and then latitude.
+     */
+    private static int compare(Point a, Point b) {
+        int result = Double.compare(a.getLon(), b.getLon());
+        if (result == 0) {
+            result = Double.compare(a.getLat(), b.getLat());
+        }
+        return result;
+    }
+
+    /**
+     * Calls the visitor once for every segment whose bounding box intersects the given bounding box.
+     *
+     * @param minLon  the western edge of the query box.
+     * @param minLat  the southern edge of the query box.
+     * @param maxLon  the eastern edge of the query box.
+     * @param maxLat  the northern edge of the query box.
+     * @param visitor the function to call with each intersecting segment.
+     */
+    public void query(double minLon, double minLat, double maxLon, double maxLat, SegmentVisitor visitor) {
+        if (size == 0) {
+            return;
+        }
+        int firstRow = row(minLat);
+        int lastRow = row(maxLat);
+        int firstColumn = column(minLon);
+        int lastColumn = column(maxLon);
+        for (int row = firstRow; row <= lastRow; row += 1) {
+            for (int column = firstColumn; column <= lastColumn; column += 1) {
+                for (int i : cells[row * columns + column]) {
+                    if (maxLon(i) < minLon || minLon(i) > maxLon || maxLat(i) < minLat || minLat(i) > maxLat) {
+                        continue;
+                    }
+                    // Report each segment only from the first cell shared by the segment and the query.
+                    if (row != Math.max(firstRow, row(minLat(i))) || column != Math.max(firstColumn, column(minLon(i)))) {
+                        continue;
+                    }
+                    visitor.visit(coordinates[4 * i], coordinates[4 * i + 1],
+                            coordinates[4 * i + 2], coordinates[4 * i + 3]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of segments in this index.
+     *
+     * @return the number of segments in this index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the western edge of the bounding box of all vertices.
+     *
+     * @return the western edge of the bounding box of all vertices.
+     */
+    public double minLon() {
+        return minLon;
+    }
+
+    /**
+     * Returns the southern edge of the bounding box of all vertices.
+     *
+     * @return the southern edge of the bounding box of all vertices.
+     */
+    public double minLat() {
+        return minLat;
+    }
+
+    /**
+     * Returns the eastern edge of the bounding box of all vertices.
+     *
+     * @return the eastern edge of the bounding box of all vertices.
+     */
+    public double maxLon() {
+        return maxLon;
+    }
+
+    /**
+     * Returns the northern edge of the bounding box of all vertices.
+     *
+     * @return the northern edge of the bounding box of all vertices.
+     */
+    public double maxLat() {
+        return maxLat;
+    }
+
+    private int column(double lon) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((lon - minLon) / cellWidth)));
+    }
+
+    private int row(double lat) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((lat - minLat) / cellHeight)));
+    }
+
+    private double minLon(int i) {
+        return Math.min(coordinates[4 * i], coordinates[4 * i + 2]);
+    }
+
+    private double maxLon(int i) {
+        return Math.max(coordinates[4 * i], coordinates[4 * i + 2]);
+    }
+
+    private double minLat(int i) {
+        return Math.min(coordinates[4 * i + 1], coordinates[4 * i + 3]);
+    }
+
+    private double maxLat(int i) {
+        return Math.max(coordinates[4 * i + 1], coordinates[4 * i + 3]);
+    }
+
+    /**
+     * Receives road segments from {@link #query(double, double, double, double, SegmentVisitor)}.
+     */
+    @FunctionalInterface
+    public interface SegmentVisitor {
+        /**
+         * Visits the segment between the two given coordinates.
+         *
+         * @param fromLon the longitude of the first endpoint.
+         * @param fromLat the latitude of the first endpoint.
+         * @param toLon   the longitude of the second endpoint.
+         * @param toLat   the latitude of the second endpoint.
+         */
+        void visit(double fromLon, double fromLat, double toLon, double toLat);
+    }
+}
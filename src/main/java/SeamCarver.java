@@ -1,8 +1,10 @@
 import graphs.shortestpaths.DijkstraSolver;
+import seamfinding.energy.CachingEnergyFunction;
 import seamfinding.energy.DualGradientEnergyFunction;
 import seamfinding.energy.EnergyFunction;
 import seamfinding.AdjacencyListSeamFinder;
 import seamfinding.Picture;
+import seamfinding.RasterPicture;
 import seamfinding.SeamFinder;
 
 import java.io.File;
@@ -36,9 +38,9 @@ public class SeamCarver {
      */
     private final SeamFinder seamFinder;
     /**
-     * The {@link Picture}.
+     * The {@link Picture}, backed by a flat raster so that seams can be removed by copying runs of pixels.
      */
-    private Picture picture;
+    private RasterPicture picture;
 
     /**
      * Constructs a seam carver by reading the {@link Picture} from the file, using the given {@link EnergyFunction} and
@@ -53,13 +55,14 @@ public class SeamCarver {
         if (file == null || f == null || seamFinder == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
-        this.picture = new Picture(file);
+        this.picture = new RasterPicture(file);
         this.f = f;
         this.seamFinder = seamFinder;
     }
 
     public static void main(String[] args) throws IOException {
-        EnergyFunction f = new DualGradientEnergyFunction();
+        // Each seam is found in a new picture, so compute its energies once instead of once per edge.
+        EnergyFunction f = new CachingEnergyFunction(new DualGradientEnergyFunction());
         SeamFinder seamFinder = new AdjacencyListSeamFinder(DijkstraSolver::new);
         SeamCarver seamCarver = new SeamCarver(new File(INPUT_PATH), f, seamFinder);
 
@@ -113,16 +116,7 @@ public class SeamCarver {
      */
     public List<Integer> removeHorizontal() {
         List<Integer> seam = seamFinder.findHorizontal(picture, f);
-        Picture result = new Picture(picture.width(), picture.height() - 1);
-        for (int x = 0; x < picture.width(); x += 1) {
-            for (int y = 0; y < seam.get(x); y += 1) {
-                result.set(x, y, picture.get(x, y));
-            }
-            for (int y = seam.get(x); y < picture.height() - 1; y += 1) {
-                result.set(x, y, picture.get(x, y + 1));
-            }
-        }
-        picture = result;
+        picture = picture.removeHorizontal(seam);
         return seam;
     }
 
@@ -133,16 +127,7 @@ public class SeamCarver {
      */
     public List<Integer> removeVertical() {
         List<Integer> seam = seamFinder.findVertical(picture, f);
-        Picture result = new Picture(picture.width() - 1, picture.height());
-        for (int y = 0; y < picture.height(); y += 1) {
-            for (int x = 0; x < seam.get(y); x += 1) {
-                result.set(x, y, picture.get(x, y));
-            }
-            for (int x = seam.get(y); x < picture.width() - 1; x += 1) {
-                result.set(x, y, picture.get(x + 1, y));
-            }
-        }
-        picture = result;
+        picture = picture.removeVertical(seam);
         return seam;
     }
 }
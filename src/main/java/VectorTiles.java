@@ -0,0 +1,320 @@
+import caches.SegmentedLruCache;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates <a href="https://github.com/mapbox/vector-tile-spec">Mapbox Vector Tiles</a> of the road network and named
+ * locations in a {@link MapGraph} for clients that render maps themselves. Each tile has a "roads" layer containing a
+ * single multi-line feature and a "places" layer containing one point feature per named location. Geometry is quantized
+ * to the tile extent and, at lower zoom levels, snapped to a coarser grid so that short segments collapse and duplicate
+ * segments are dropped.
+ *
+ * @see MapGraph
+ * @see RoadIndex
+ */
+public class VectorTiles {
+    /**
+     * Number of quantized units along each side of a tile.
+     */
+    static final int EXTENT = 4096;
+    /**
+     * Extra units around each tile so that lines continue smoothly across tile edges.
+     */
+    private static final int BUFFER = 64;
+    /**
+     * Zoom level at and above which geometry keeps the full tile extent resolution.
+     */
+    static final int FULL_DETAIL_ZOOM = 14;
+    /**
+     * Minimum zoom level for including named locations.
+     */
+    static final int PLACES_MIN_ZOOM = 12;
+    /**
+     * Maximum zoom level served.
+     */
+    static final int MAX_ZOOM = 22;
+    /**
+     * Memory budget in bytes for cached tiles.
+     */
+    private static final long TILE_CACHE_BYTES = 32L << 20;
+    /**
+     * Spatial index of road segments.
+     */
+    private final RoadIndex roads;
+    /**
+     * Names of locations, sorted together with {@link #placeLons} and {@link #placeLats} by longitude.
+     */
+    private final String[] placeNames;
+    private final double[] placeLons;
+    private final double[] placeLats;
+    /**
+     * {@link SegmentedLruCache} of encoded tiles keyed by "z/x/y".
+     */
+    private final SegmentedLruCache<String, byte[]> tiles;
+
+    /**
+     * Constructs a tile generator for the given roads and named locations.
+     *
+     * @param roads  the spatial index of road segments.
+     * @param places each location name and the points with that name.
+     */
+    public VectorTiles(RoadIndex roads, Map<String, List<Point>> places) {
+        this.roads = roads;
+        this.tiles = new SegmentedLruCache<>(TILE_CACHE_BYTES, bytes -> bytes.length + 128L);
+        List<Map.Entry<String, Point>> sorted = new ArrayList<>();
+        for (Map.Entry<String, List<Point>> entry : places.entrySet()) {
+            for (Point point : entry.getValue()) {
+                sorted.add(Map.entry(entry.getKey(), point));
+            }
+        }
+        sorted.sort(Comparator.comparingDouble(entry -> entry.getValue().getLon()));
+        placeNames = new String[sorted.size()];
+        placeLons = new double[sorted.size()];
+        placeLats = new double[sorted.size()];
+        for (int i = 0; i < sorted.size(); i += 1) {
+            placeNames[i] = sorted.get(i).getKey();
+            placeLons[i] = sorted.get(i).getValue().getLon();
+            placeLats[i] = sorted.get(i).getValue().getLat();
+        }
+    }
+
+    /**
+     * Returns the encoded vector tile at the given tile coordinates.
+     *
+     * @param z the zoom level.
+     * @param x the horizontal tile index.
+     * @param y the vertical tile index.
+     * @return the encoded vector tile at the given tile coordinates.
+     * @throws IllegalArgumentException if the tile coordinates are out of range.
+     */
+    public byte[] tile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Invalid tile " + z + "/" + x + "/" + y);
+        }
+        return tiles.get(z + "/" + x + "/" + y, key -> encode(z, x, y));
+    }
+
+    /**
+     * Generates and caches, in the background, every tile covering the road network at the given zoom levels.
+     *
+     * @param minZoom the lowest zoom level to generate.
+     * @param maxZoom the highest zoom level to generate.
+     */
+    public void pregenerate(int minZoom, int maxZoom) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-tiles");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int z = minZoom; z <= maxZoom; z += 1) {
+            double world = (double) EXTENT * (1 << z);
+            int firstX = (int) (MapRenderer.x(roads.minLon(), world) / EXTENT);
+            int lastX = (int) (MapRenderer.x(roads.maxLon(), world) / EXTENT);
+            int firstY = (int) (MapRenderer.y(roads.maxLat(), world) / EXTENT);
+            int lastY = (int) (MapRenderer.y(roads.minLat(), world) / EXTENT);
+            int zoom = z;
+            for (int x = firstX; x <= lastX; x += 1) {
+                for (int y = firstY; y <= lastY; y += 1) {
+                    int tileX = x;
+                    int tileY = y;
+                    executor.execute(() -> tile(zoom, tileX, tileY));
+                }
+            }
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the tile cache for reporting hit, miss, and eviction counts.
+     *
+     * @return the tile cache.
+     */
+    public SegmentedLruCache<String, byte[]> tileCache() {
+        return tiles;
+    }
+
+    /**
+     * Returns a newly-encoded vector tile at the given tile coordinates.
+     */
+    private byte[] encode(int z, int x, int y) {
+        double world = (double) EXTENT * (1 << z);
+        double left = (double) x * EXTENT;
+        double top = (double) y * EXTENT;
+        double minLon = MapRenderer.lon(left - BUFFER, world);
+        double maxLon = MapRenderer.lon(left + EXTENT + BUFFER, world);
+        double maxLat = MapRenderer.lat(top - BUFFER, world);
+        double minLat = MapRenderer.lat(top + EXTENT + BUFFER, world);
+        // Snap to a grid that doubles in size for each zoom level below full detail.
+        int grid = 1 << Math.max(0, Math.min(8, FULL_DETAIL_ZOOM - z));
+
+        ProtobufWriter geometry = new ProtobufWriter();
+        Set<Segment> seen = new HashSet<>();
+        int[] cursor = new int[2];
+        roads.query(minLon, minLat, maxLon, maxLat, (fromLon, fromLat, toLon, toLat) -> {
+            int x1 = snap(MapRenderer.x(fromLon, world) - left, grid);
+            int y1 = snap(MapRenderer.y(fromLat, world) - top, grid);
+            int x2 = snap(MapRenderer.x(toLon, world) - left, grid);
+            int y2 = snap(MapRenderer.y(toLat, world) - top, grid);
+            if (x1 == x2 && y1 == y2) {
+                return; // Collapsed at this zoom level.
+            }
+            boolean forward = x1 < x2 || (x1 == x2 && y1 < y2);
+            if (!seen.add(forward ? new Segment(x1, y1, x2, y2) : new Segment(x2, y2, x1, y1))) {
+                return; // Duplicate at this zoom level.
+            }
+            geometry.uint32(command(1, 1));
+            geometry.sint32(x1 - cursor[0]);
+            geometry.sint32(y1 - cursor[1]);
+            geometry.uint32(command(2, 1));
+            geometry.sint32(x2 - x1);
+            geometry.sint32(y2 - y1);
+            cursor[0] = x2;
+            cursor[1] = y2;
+        });
+
+        ProtobufWriter tile = new ProtobufWriter();
+        if (geometry.size() > 0) {
+            ProtobufWriter feature = new ProtobufWriter();
+            feature.uint32Field(3, 2); // LINESTRING
+            feature.bytesField(4, geometry);
+            ProtobufWriter layer = layer("roads");
+            layer.bytesField(2, feature);
+            tile.bytesField(3, layer);
+        }
+        if (z >= PLACES_MIN_ZOOM) {
+            ProtobufWriter layer = layer("places");
+            layer.stringField(3, "name");
+            int count = 0;
+            int first = lowerBound(placeLons, minLon);
+            for (int i = first; i < placeLons.length && placeLons[i] <= maxLon; i += 1) {
+                if (placeLats[i] < minLat || placeLats[i] > maxLat) {
+                    continue;
+                }
+                ProtobufWriter value = new ProtobufWriter();
+                value.stringField(1, placeNames[i]);
+                layer.bytesField(4, value);
+
+                ProtobufWriter tags = new ProtobufWriter();
+                tags.uint32(0);
+                tags.uint32(count);
+                ProtobufWriter point = new ProtobufWriter();
+                point.uint32(command(1, 1));
+                point.sint32(snap(MapRenderer.x(placeLons[i], world) - left, 1));
+                point.sint32(snap(MapRenderer.y(placeLats[i], world) - top, 1));
+                ProtobufWriter feature = new ProtobufWriter();
+                feature.bytesField(2, tags);
+                feature.uint32Field(3, 1); // POINT
+                feature.bytesField(4, point);
+                layer.bytesField(2, feature);
+                count += 1;
+            }
+            if (count > 0) {
+                tile.bytesField(3, layer);
+            }
+        }
+        return tile.toByteArray();
+    }
+
+    /**
+     * Returns a new layer message with the given name and the common version and extent fields.
+     */
+    private static ProtobufWriter layer(String name) {
+        ProtobufWriter layer = new ProtobufWriter();
+        layer.uint32Field(15, 2);
+        layer.stringField(1, name);
+        layer.uint32Field(5, EXTENT);
+        return layer;
+    }
+
+    /**
+     * Returns the coordinate rounded to the nearest multiple of the grid size.
+     */
+    private static int snap(double coordinate, int grid) {
+        return (int) Math.round(coordinate / grid) * grid;
+    }
+
+    /**
+     * Returns an encoded geometry command integer.
+     */
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    /**
+     * Returns the index of the first value that is at least the given key in the sorted array.
+     */
+    private static int lowerBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A quantized segment in tile-local coordinates, which can reach far outside the tile extent for long segments at
+     * high zoom levels.
+     */
+    private record Segment(int x1, int y1, int x2, int y2) {
+    }
+
+    /**
+     * Minimal writer for the protocol buffer wire format used by vector tiles.
+     */
+    private static class ProtobufWriter extends ByteArrayOutputStream {
+        /**
+         * Writes an unsigned variable-length integer.
+         */
+        void uint32(int value) {
+            long v = value & 0xFFFFFFFFL;
+            while (v >= 0x80) {
+                write((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        /**
+         * Writes a zigzag-encoded signed variable-length integer.
+         */
+        void sint32(int value) {
+            uint32((value << 1) ^ (value >> 31));
+        }
+
+        void uint32Field(int field, int value) {
+            uint32(field << 3);
+            uint32(value);
+        }
+
+        void bytesField(int field, ProtobufWriter message) {
+            uint32((field << 3) | 2);
+            uint32(message.size());
+            message.copyTo(this);
+        }
+
+        void stringField(int field, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            uint32((field << 3) | 2);
+            uint32(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Writes the contents of this writer to the other writer.
+         */
+        void copyTo(ProtobufWriter other) {
+            other.write(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package autocomplete;
+
+import jdk.jfr.*;
+
+import java.util.List;
+
+/**
+ * Java Flight Recorder event for a single {@link Autocomplete#allMatches(CharSequence)} query. The event is only filled
+ * in and written when a recording has enabled it.
+ *
+ * @see Autocomplete
+ */
+@Name("huskymaps.AutocompleteQuery")
+@Label("Autocomplete Query")
+@Category({"Husky Maps", "Autocomplete"})
+@Description("A prefix query against an autocomplete implementation")
+@StackTrace(false)
+class AutocompleteQueryEvent extends Event {
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Prefix Length")
+    int prefixLength;
+
+    @Label("Match Count")
+    int matchCount;
+
+    /**
+     * Ends this event and writes it if it is enabled and exceeds the recording threshold.
+     *
+     * @param autocomplete the implementation that answered the query.
+     * @param prefix       the query prefix (or null).
+     * @param matches      the matching terms.
+     */
+    void finish(Autocomplete autocomplete, CharSequence prefix, List<CharSequence> matches) {
+        end();
+        if (shouldCommit()) {
+            implementation = autocomplete.getClass().getSimpleName();
+            prefixLength = prefix == null ? 0 : prefix.length();
+            matchCount = matches.size();
+            commit();
+        }
+    }
+}
@@ -29,6 +29,20 @@ public class SequentialSearchAutocomplete implements Autocomplete {
 
     @Override
     public List<CharSequence> allMatches(CharSequence prefix) {
+        AutocompleteQueryEvent event = new AutocompleteQueryEvent();
+        event.begin();
+        List<CharSequence> result = matches(prefix);
+        event.finish(this, prefix, result);
+        return result;
+    }
+
+    /**
+     * Returns all autocompletion terms that match the given prefix.
+     *
+     * @param prefix search query.
+     * @return all autocompletion terms that match the given prefix.
+     */
+    private List<CharSequence> matches(CharSequence prefix) {
         if (prefix == null) {
             return new ArrayList<>();
         }
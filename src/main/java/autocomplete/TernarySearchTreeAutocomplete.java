@@ -57,6 +57,20 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
 
     @Override
     public List<CharSequence> allMatches(CharSequence prefix) {
+        AutocompleteQueryEvent event = new AutocompleteQueryEvent();
+        event.begin();
+        List<CharSequence> result = matches(prefix);
+        event.finish(this, prefix, result);
+        return result;
+    }
+
+    /**
+     * Returns all autocompletion terms that match the given prefix.
+     *
+     * @param prefix search query.
+     * @return all autocompletion terms that match the given prefix.
+     */
+    private List<CharSequence> matches(CharSequence prefix) {
         ArrayList<CharSequence> returnlist = new ArrayList<>();
         if (prefix == null) {
             return new ArrayList<>();
@@ -27,6 +27,20 @@ public class TreeSetAutocomplete implements Autocomplete {
 
     @Override
     public List<CharSequence> allMatches(CharSequence prefix) {
+        AutocompleteQueryEvent event = new AutocompleteQueryEvent();
+        event.begin();
+        List<CharSequence> result = matches(prefix);
+        event.finish(this, prefix, result);
+        return result;
+    }
+
+    /**
+     * Returns all autocompletion terms that match the given prefix.
+     *
+     * @param prefix search query.
+     * @return all autocompletion terms that match the given prefix.
+     */
+    private List<CharSequence> matches(CharSequence prefix) {
         List<CharSequence> result = new ArrayList<>();
         if (prefix == null || prefix.length() == 0) {
             return result;
@@ -0,0 +1,311 @@
+package caches;
+
+import metrics.LatencyHistogram;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache of resources fetched over HTTP, keyed by URL. The memory tier is a byte-budgeted
+ * {@link SegmentedLruCache}, so concurrent requests for the same missing URL share a single upstream fetch. The optional
+ * disk tier stores fetched resources in a directory so that they survive restarts, deleting the least recently used
+ * files once their total size exceeds its own byte budget. Fetches time out so that a stalled upstream fails every
+ * request waiting on it rather than blocking them indefinitely.
+ *
+ * @see SegmentedLruCache
+ */
+public class HttpResourceCache {
+    /**
+     * Estimated per-entry overhead in bytes for the key and array headers.
+     */
+    private static final long ENTRY_OVERHEAD = 128;
+    /**
+     * Default connect and read timeout in milliseconds for upstream fetches.
+     */
+    private static final int TIMEOUT_MILLIS = 10000;
+    /**
+     * Memory tier of resource bytes (possibly base64-encoded) keyed by URL.
+     */
+    private final SegmentedLruCache<String, byte[]> memory;
+    /**
+     * Whether resources are stored base64-encoded, ready to be sent to clients.
+     */
+    private final boolean base64;
+    /**
+     * Directory for the disk tier, or null if there is no disk tier.
+     */
+    private final Path directory;
+    /**
+     * Byte budget for the disk tier.
+     */
+    private final long maxDiskBytes;
+    /**
+     * Total size in bytes of the files in the disk tier.
+     */
+    private final AtomicLong diskBytes;
+    /**
+     * Connect and read timeout in milliseconds for upstream fetches.
+     */
+    private final int timeoutMillis;
+    private final LongAdder diskHits;
+    private final LongAdder diskEvictions;
+    private final LongAdder fetches;
+    private final LatencyHistogram fetchLatency;
+    private final LatencyHistogram encodeLatency;
+
+    /**
+     * Constructs a cache, keeping any resources already in the disk tier directory.
+     *
+     * @param maxBytes     the memory budget in bytes for the memory tier.
+     * @param base64       whether to store resources base64-encoded (chunked into 76-character lines).
+     * @param directory    directory for the disk tier, or null for no disk tier.
+     * @param maxDiskBytes the byte budget for the disk tier.
+     * @throws IOException if the disk tier directory cannot be created or read.
+     */
+    public HttpResourceCache(long maxBytes, boolean base64, Path directory, long maxDiskBytes) throws IOException {
+        this(maxBytes, base64, directory, maxDiskBytes, TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs a cache, keeping any resources already in the disk tier directory.
+     *
+     * @param maxBytes      the memory budget in bytes for the memory tier.
+     * @param base64        whether to store resources base64-encoded (chunked into 76-character lines).
+     * @param directory     directory for the disk tier, or null for no disk tier.
+     * @param maxDiskBytes  the byte budget for the disk tier.
+     * @param timeoutMillis the connect and read timeout in milliseconds for upstream fetches.
+     * @throws IOException if the disk tier directory cannot be created or read.
+     */
+    HttpResourceCache(long maxBytes, boolean base64, Path directory, long maxDiskBytes, int timeoutMillis)
+            throws IOException {
+        this.memory = new SegmentedLruCache<>(maxBytes, bytes -> bytes.length + ENTRY_OVERHEAD);
+        this.base64 = base64;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.timeoutMillis = timeoutMillis;
+        diskBytes = new AtomicLong();
+        diskEvictions = new LongAdder();
+        if (directory != null) {
+            Files.createDirectories(directory);
+            for (Path file : files()) {
+                diskBytes.addAndGet(Files.size(file));
+            }
+            trimDisk();
+        }
+        diskHits = new LongAdder();
+        fetches = new LongAdder();
+        fetchLatency = new LatencyHistogram();
+        encodeLatency = new LatencyHistogram();
+    }
+
+    /**
+     * Returns the bytes of the resource at the given URL, fetching it only if it is in neither tier.
+     *
+     * @param url the URL of the resource.
+     * @return the bytes of the resource, base64-encoded if this cache was constructed to do so.
+     * @throws IOException if the resource is not cached and cannot be fetched.
+     */
+    public byte[] get(URL url) throws IOException {
+        try {
+            return memory.get(url.toString(), key -> {
+                try {
+                    return load(url, key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the resource from the disk tier if present, otherwise fetches and stores it.
+     *
+     * @param url the URL of the resource.
+     * @param key the cache key for the resource.
+     * @return the bytes of the resource in the stored encoding.
+     * @throws IOException if the resource cannot be read or fetched.
+     */
+    private byte[] load(URL url, String key) throws IOException {
+        Path file = null;
+        if (directory != null) {
+            file = directory.resolve(DigestUtils.sha256Hex(key));
+            try {
+                byte[] bytes = Files.readAllBytes(file);
+                // Mark the file as recently used so that the disk tier evicts it last.
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                diskHits.increment();
+                return bytes;
+            } catch (NoSuchFileException e) {
+                // Not stored yet, or evicted: fetch it.
+            }
+        }
+        long start = System.nanoTime();
+        byte[] bytes;
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        try (InputStream in = connection.getInputStream()) {
+            bytes = in.readAllBytes();
+        } finally {
+            fetches.increment();
+            fetchLatency.recordSince(start);
+        }
+        if (base64) {
+            start = System.nanoTime();
+            bytes = Base64.encodeBase64Chunked(bytes);
+            encodeLatency.recordSince(start);
+        }
+        if (file != null) {
+            // Write to a temporary file first so that readers never observe a partially-written resource.
+            Path temporary = Files.createTempFile(directory, "fetch", ".tmp");
+            Files.write(temporary, bytes);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(bytes.length) > maxDiskBytes) {
+                trimDisk();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the resource files in the disk tier, skipping the temporary files of writes in progress.
+     *
+     * @return the resource files in the disk tier.
+     * @throws IOException if the directory cannot be read.
+     */
+    private List<Path> files() throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (!file.getFileName().toString().endsWith(".tmp")) {
+                    result.add(file);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the least recently used files in the disk tier until its total size is within the byte budget.
+     *
+     * @throws IOException if the directory cannot be read.
+     */
+    private synchronized void trimDisk() throws IOException {
+        if (diskBytes.get() <= maxDiskBytes) {
+            return;
+        }
+        List<Path> files = files();
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path file : files) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file));
+            } catch (NoSuchFileException e) {
+                // Deleted since listing.
+            }
+        }
+        files.removeIf(file -> !modified.containsKey(file));
+        files.sort(Comparator.comparing(modified::get));
+        for (int i = 0; i < files.size() && diskBytes.get() > maxDiskBytes; i += 1) {
+            Path file = files.get(i);
+            try {
+                long size = Files.size(file);
+                Files.delete(file);
+                diskBytes.addAndGet(-size);
+                diskEvictions.increment();
+            } catch (NoSuchFileException e) {
+                // Deleted since listing.
+            }
+        }
+    }
+
+    /**
+     * Returns the memory tier for reporting hit, miss, and eviction counts.
+     *
+     * @return the memory tier.
+     */
+    public SegmentedLruCache<String, byte[]> memory() {
+        return memory;
+    }
+
+    /**
+     * Returns the number of memory misses served from the disk tier.
+     *
+     * @return the number of memory misses served from the disk tier.
+     */
+    public long diskHits() {
+        return diskHits.sum();
+    }
+
+    /**
+     * Returns the number of files deleted from the disk tier to stay within its byte budget.
+     *
+     * @return the number of files deleted from the disk tier.
+     */
+    public long diskEvictions() {
+        return diskEvictions.sum();
+    }
+
+    /**
+     * Returns the total size in bytes of the files in the disk tier.
+     *
+     * @return the total size in bytes of the files in the disk tier.
+     */
+    public long diskBytes() {
+        return diskBytes.get();
+    }
+
+    /**
+     * Returns the number of upstream fetches, including failed fetches.
+     *
+     * @return the number of upstream fetches.
+     */
+    public long fetches() {
+        return fetches.sum();
+    }
+
+    /**
+     * Returns the histogram of upstream fetch latencies, including failed fetches.
+     *
+     * @return the histogram of upstream fetch latencies.
+     */
+    public LatencyHistogram fetchLatency() {
+        return fetchLatency;
+    }
+
+    /**
+     * Returns the histogram of base64-encoding latencies for fetched resources.
+     *
+     * @return the histogram of base64-encoding latencies.
+     */
+    public LatencyHistogram encodeLatency() {
+        return encodeLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResourceCache{" +
+                "memory=" + memory +
+                ", diskHits=" + diskHits() +
+                ", diskEvictions=" + diskEvictions() +
+                ", diskBytes=" + diskBytes() +
+                ", fetches=" + fetches() +
+                ", fetchLatency=" + fetchLatency +
+                '}';
+    }
+}
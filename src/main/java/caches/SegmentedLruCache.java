@@ -0,0 +1,320 @@
+package caches;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, thread-safe cache with segmented LRU (SLRU) eviction and a weight budget. New entries enter a small
+ * <i>probation</i> segment and are promoted to the <i>protected</i> segment on their second hit, so a burst of one-off
+ * keys can only evict other one-off keys instead of the popular entries. Concurrent loads of the same missing key are
+ * coalesced: one caller runs the loader while the others wait for and share its result. Does not allow null values.
+ *
+ * @param <K> the type of keys.
+ * @param <V> the type of values.
+ */
+public class SegmentedLruCache<K, V> {
+    /**
+     * Fraction of the weight budget reserved for the protected segment.
+     */
+    private static final double PROTECTED_FRACTION = 0.8;
+    /**
+     * {@link LinkedHashMap} of entries seen once in least- to most-recently used order.
+     */
+    private final LinkedHashMap<K, Weighted<V>> probation;
+    /**
+     * {@link LinkedHashMap} of entries seen at least twice in least- to most-recently used order.
+     */
+    private final LinkedHashMap<K, Weighted<V>> protectedSegment;
+    /**
+     * {@link ConcurrentMap} of keys currently being loaded to the result that waiting callers will share.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight;
+    /**
+     * Function estimating the retained size of a value in bytes.
+     */
+    private final ToLongFunction<V> weigher;
+    /**
+     * Maximum total weight of all entries.
+     */
+    private final long maxWeight;
+    /**
+     * Maximum total weight of the protected segment.
+     */
+    private final long maxProtectedWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder coalesced;
+    private final LongAdder evictions;
+
+    /**
+     * Constructs an empty cache with the given weight budget.
+     *
+     * @param maxWeight the maximum total weight of all entries.
+     * @param weigher   function estimating the retained size of a value in bytes.
+     * @throws IllegalArgumentException if maxWeight is not positive.
+     */
+    public SegmentedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Weight budget must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.maxProtectedWeight = (long) (maxWeight * PROTECTED_FRACTION);
+        this.weigher = weigher;
+        probation = new LinkedHashMap<>(16, 0.75f, true);
+        protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+        inFlight = new ConcurrentHashMap<>();
+        hits = new LongAdder();
+        misses = new LongAdder();
+        coalesced = new LongAdder();
+        evictions = new LongAdder();
+    }
+
+    /**
+     * Returns the cached value for the key, computing it with the loader if absent. If another thread is already
+     * loading the same key, waits for and returns that thread's result instead of loading it again.
+     *
+     * @param key    the key to look up.
+     * @param loader the function computing the value for a missing key.
+     * @return the value associated with the key.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        try {
+            // Another thread may have finished loading between the lookup and claiming the key.
+            value = peek(key);
+            if (value == null) {
+                misses.increment();
+                value = loader.apply(key);
+                put(key, value);
+            } else {
+                hits.increment();
+            }
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, or null if absent. Counts as a hit if present.
+     *
+     * @param key the key to look up.
+     * @return the cached value for the key, or null if absent.
+     */
+    public V getIfPresent(K key) {
+        synchronized (this) {
+            Weighted<V> entry = protectedSegment.get(key);
+            if (entry == null) {
+                entry = probation.remove(key);
+                if (entry == null) {
+                    return null;
+                }
+                // Second hit: promote to the protected segment, demoting its least-recently used entries.
+                probationWeight -= entry.weight;
+                protectedSegment.put(key, entry);
+                protectedWeight += entry.weight;
+                demote();
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Associates the value with the key, replacing any existing value.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(K key, V value) {
+        Weighted<V> entry = new Weighted<>(value, weigher.applyAsLong(value));
+        synchronized (this) {
+            Weighted<V> old = protectedSegment.remove(key);
+            if (old != null) {
+                protectedWeight -= old.weight;
+            }
+            old = probation.remove(key);
+            if (old != null) {
+                probationWeight -= old.weight;
+            }
+            if (entry.weight > maxWeight) {
+                evictions.increment();
+                return;
+            }
+            probation.put(key, entry);
+            probationWeight += entry.weight;
+            evict();
+        }
+    }
+
+    /**
+     * Removes all entries. Does not reset the statistics.
+     */
+    public synchronized void clear() {
+        probation.clear();
+        protectedSegment.clear();
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    /**
+     * Returns the cached value without promoting it or updating statistics.
+     */
+    private synchronized V peek(K key) {
+        Weighted<V> entry = protectedSegment.get(key);
+        if (entry == null) {
+            entry = probation.get(key);
+        }
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Moves least-recently used protected entries back to the most-recently used end of probation while the protected
+     * segment is over its budget.
+     */
+    private void demote() {
+        Iterator<Map.Entry<K, Weighted<V>>> it = protectedSegment.entrySet().iterator();
+        while (protectedWeight > maxProtectedWeight && it.hasNext()) {
+            Map.Entry<K, Weighted<V>> lru = it.next();
+            it.remove();
+            protectedWeight -= lru.getValue().weight;
+            probation.put(lru.getKey(), lru.getValue());
+            probationWeight += lru.getValue().weight;
+        }
+        evict();
+    }
+
+    /**
+     * Evicts least-recently used probation entries while the cache is over its budget.
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, Weighted<V>>> it = probation.entrySet().iterator();
+        while (probationWeight + protectedWeight > maxWeight && it.hasNext()) {
+            Map.Entry<K, Weighted<V>> lru = it.next();
+            it.remove();
+            probationWeight -= lru.getValue().weight;
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Returns the result of the given load, rethrowing its failure unwrapped.
+     */
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of entries in this cache.
+     *
+     * @return the number of entries in this cache.
+     */
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Returns the total weight of all entries in this cache.
+     *
+     * @return the total weight of all entries in this cache.
+     */
+    public synchronized long weight() {
+        return probationWeight + protectedWeight;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of lookups that found a cached value.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that ran the loader.
+     *
+     * @return the number of lookups that ran the loader.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of lookups that waited for another thread's load instead of running the loader.
+     *
+     * @return the number of lookups that waited for another thread's load.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted (or rejected for exceeding the whole budget).
+     *
+     * @return the number of entries evicted.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedLruCache{" +
+                "size=" + size() +
+                ", weight=" + weight() +
+                ", maxWeight=" + maxWeight +
+                ", hits=" + hits() +
+                ", misses=" + misses() +
+                ", coalesced=" + coalesced() +
+                ", evictions=" + evictions() +
+                '}';
+    }
+
+    /**
+     * A cached value and its weight.
+     *
+     * @param <V> the type of values.
+     */
+    private static class Weighted<V> {
+        private final V value;
+        private final long weight;
+
+        Weighted(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package deques;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A ring buffer of {@code long} values with the operations of the {@link Deque} interface, for workloads like queues
+ * of packed vertex ids or keys where boxing every element would dominate the cost. The capacity is always a power
+ * of two, so indices wrap around by masking instead of comparing or dividing. The capacity doubles when full and is
+ * never reduced, since frontiers tend to grow and shrink repeatedly.
+ * <p>
+ * Unlike {@link Deque}, there is no null to return, so removing from an empty deque throws
+ * {@link NoSuchElementException} and getting an invalid index throws {@link IndexOutOfBoundsException}.
+ *
+ * @see Deque
+ * @see IntDeque
+ */
+public class LongDeque {
+    /**
+     * The initial capacity for the underlying array of elements.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * The underlying array of elements, whose length is a power of two.
+     */
+    private long[] data;
+    /**
+     * The index of the front element.
+     */
+    private int front;
+    /**
+     * The number of elements in this deque.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public LongDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque with room for at least the given number of elements before resizing.
+     *
+     * @param capacity the number of elements to make room for
+     */
+    public LongDeque(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        data = new long[powerOfTwoAtLeast(capacity)];
+    }
+
+    /**
+     * Adds the given element to the front of this deque.
+     *
+     * @param element the element to add
+     */
+    public void addFirst(long element) {
+        if (size == data.length) {
+            resize(data.length * 2);
+        }
+        front = (front - 1) & (data.length - 1);
+        data[front] = element;
+        size += 1;
+    }
+
+    /**
+     * Adds the given element to the back of this deque.
+     *
+     * @param element the element to add
+     */
+    public void addLast(long element) {
+        if (size == data.length) {
+            resize(data.length * 2);
+        }
+        data[(front + size) & (data.length - 1)] = element;
+        size += 1;
+    }
+
+    /**
+     * Adds the elements in the given range of the array to the back of this deque, in order.
+     *
+     * @param elements the array of elements to add
+     * @param from     the index of the first element to add (inclusive)
+     * @param to       the index after the last element to add (exclusive)
+     */
+    public void addAllLast(long[] elements, int from, int to) {
+        int count = to - from;
+        if (size + count > data.length) {
+            resize(powerOfTwoAtLeast(size + count));
+        }
+        int back = (front + size) & (data.length - 1);
+        // Copy up to the end of the array, then wrap around to the start.
+        int firstCount = Math.min(count, data.length - back);
+        System.arraycopy(elements, from, data, back, firstCount);
+        System.arraycopy(elements, from + firstCount, data, 0, count - firstCount);
+        size += count;
+    }
+
+    /**
+     * Gets the element at the given index, where 0 is the front, 1 is the next element, and so forth.
+     *
+     * @param index the index to get
+     * @return the element at the given index
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return data[(front + index) & (data.length - 1)];
+    }
+
+    /**
+     * Returns true if and only if this deque is empty.
+     *
+     * @return true if and only if this deque is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of elements in this deque.
+     *
+     * @return the number of elements in this deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes and returns the element at the front of this deque.
+     *
+     * @return the element at the front of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        long result = data[front];
+        front = (front + 1) & (data.length - 1);
+        size -= 1;
+        return result;
+    }
+
+    /**
+     * Removes and returns the element at the back of this deque.
+     *
+     * @return the element at the back of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        size -= 1;
+        return data[(front + size) & (data.length - 1)];
+    }
+
+    /**
+     * Removes elements from the front of this deque into the given range of the array, in order, until either the
+     * range is full or this deque is empty.
+     *
+     * @param destination the array to copy removed elements into
+     * @param from        the index for the first removed element (inclusive)
+     * @param to          the index after the last possible removed element (exclusive)
+     * @return the number of elements removed
+     */
+    public int drainFirst(long[] destination, int from, int to) {
+        int count = Math.min(to - from, size);
+        int firstCount = Math.min(count, data.length - front);
+        System.arraycopy(data, front, destination, from, firstCount);
+        System.arraycopy(data, 0, destination, from + firstCount, count - firstCount);
+        front = (front + count) & (data.length - 1);
+        size -= count;
+        return count;
+    }
+
+    /**
+     * Removes all elements from this deque, keeping its capacity.
+     */
+    public void clear() {
+        front = 0;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append('[');
+        for (int i = 0; i < size; i += 1) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(get(i));
+        }
+        result.append(']');
+        return result.toString();
+    }
+
+    /**
+     * Returns the smallest power of two that is at least the given capacity and the initial capacity.
+     *
+     * @param capacity the minimum capacity
+     * @return the power of two capacity
+     */
+    private static int powerOfTwoAtLeast(int capacity) {
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity too large: " + capacity);
+        }
+        return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1);
+    }
+
+    /**
+     * Updates the length of the underlying element data array to the given power of two capacity, moving the front
+     * element to index 0.
+     *
+     * @param capacity the length of the new element data array
+     */
+    private void resize(int capacity) {
+        long[] newData = Arrays.copyOfRange(data, front, front + capacity);
+        // The elements that wrapped around to the start of the old array follow the ones copied from the front.
+        int wrapped = front + size - data.length;
+        if (wrapped > 0) {
+            System.arraycopy(data, 0, newData, data.length - front, wrapped);
+        }
+        data = newData;
+        front = 0;
+    }
+}
@@ -0,0 +1,231 @@
+package deques;
+
+/**
+ * An unrolled linked implementation of the {@link Deque} interface. Elements are stored contiguously in a doubly-linked
+ * list of fixed-size array chunks, so the memory per element is close to that of {@link ArrayDeque} while adding an
+ * element never copies the others the way resizing an {@link ArrayDeque} does. Getting an element skips whole chunks
+ * from the nearer end instead of following one node per element. Chunks emptied by removals are kept in a small pool
+ * and reused, so a deque that repeatedly grows and shrinks doesn't allocate new chunks.
+ *
+ * @see Deque
+ * @see LinkedDeque
+ */
+public class UnrolledLinkedDeque<E> implements Deque<E> {
+    /**
+     * The number of elements in each chunk.
+     */
+    private static final int CHUNK_SIZE = 64;
+    /**
+     * The maximum number of empty chunks kept for reuse.
+     */
+    private static final int MAX_POOL_SIZE = 4;
+    /**
+     * The chunk containing the front element.
+     */
+    private Chunk first;
+    /**
+     * The chunk containing the back element.
+     */
+    private Chunk last;
+    /**
+     * The index of the front element in the first chunk.
+     */
+    private int head;
+    /**
+     * The index after the back element in the last chunk.
+     */
+    private int tail;
+    /**
+     * The empty chunks kept for reuse, linked through their next references.
+     */
+    private Chunk pool;
+    private int poolSize;
+    /**
+     * The number of elements in this deque.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public UnrolledLinkedDeque() {
+        first = new Chunk();
+        last = first;
+        // Start in the middle of the chunk so that either end can grow without a new chunk.
+        head = CHUNK_SIZE / 2;
+        tail = CHUNK_SIZE / 2;
+        size = 0;
+    }
+
+    @Override
+    public void addFirst(E element) {
+        if (head == 0) {
+            Chunk chunk = newChunk();
+            chunk.next = first;
+            first.prev = chunk;
+            first = chunk;
+            head = CHUNK_SIZE;
+        }
+        head -= 1;
+        first.elements[head] = element;
+        size += 1;
+    }
+
+    @Override
+    public void addLast(E element) {
+        if (tail == CHUNK_SIZE) {
+            Chunk chunk = newChunk();
+            chunk.prev = last;
+            last.next = chunk;
+            last = chunk;
+            tail = 0;
+        }
+        last.elements[tail] = element;
+        tail += 1;
+        size += 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        E result = (E) first.elements[head];
+        first.elements[head] = null;
+        head += 1;
+        size -= 1;
+        if (size == 0) {
+            head = CHUNK_SIZE / 2;
+            tail = CHUNK_SIZE / 2;
+        } else if (head == CHUNK_SIZE) {
+            Chunk empty = first;
+            first = first.next;
+            first.prev = null;
+            recycle(empty);
+            head = 0;
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        tail -= 1;
+        E result = (E) last.elements[tail];
+        last.elements[tail] = null;
+        size -= 1;
+        if (size == 0) {
+            head = CHUNK_SIZE / 2;
+            tail = CHUNK_SIZE / 2;
+        } else if (tail == 0) {
+            Chunk empty = last;
+            last = last.prev;
+            last.next = null;
+            recycle(empty);
+            tail = CHUNK_SIZE;
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if ((index >= size) || (index < 0)) {
+            return null;
+        }
+        if (index < size / 2) {
+            int i = head + index;
+            Chunk chunk = first;
+            while (i >= CHUNK_SIZE) {
+                chunk = chunk.next;
+                i -= CHUNK_SIZE;
+            }
+            return (E) chunk.elements[i];
+        }
+        int i = tail - (size - index);
+        Chunk chunk = last;
+        while (i < 0) {
+            chunk = chunk.prev;
+            i += CHUNK_SIZE;
+        }
+        return (E) chunk.elements[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append('[');
+        Chunk chunk = first;
+        int i = head;
+        for (int j = 0; j < size; j += 1) {
+            if (i == CHUNK_SIZE) {
+                chunk = chunk.next;
+                i = 0;
+            }
+            if (j > 0) {
+                result.append(", ");
+            }
+            result.append(chunk.elements[i]);
+            i += 1;
+        }
+        result.append(']');
+        return result.toString();
+    }
+
+    /**
+     * Returns an empty chunk from the pool, or a new chunk if the pool is empty.
+     *
+     * @return an empty chunk
+     */
+    private Chunk newChunk() {
+        if (pool == null) {
+            return new Chunk();
+        }
+        Chunk result = pool;
+        pool = pool.next;
+        poolSize -= 1;
+        result.next = null;
+        return result;
+    }
+
+    /**
+     * Keeps the given chunk, whose elements have all been cleared, for reuse if the pool is not full.
+     *
+     * @param chunk the empty chunk
+     */
+    private void recycle(Chunk chunk) {
+        if (poolSize < MAX_POOL_SIZE) {
+            chunk.prev = null;
+            chunk.next = pool;
+            pool = chunk;
+            poolSize += 1;
+        }
+    }
+
+    /**
+     * A doubly-linked node containing a fixed-size array of elements.
+     */
+    private static class Chunk {
+        /**
+         * The element data values, which are null outside the range occupied by this deque.
+         */
+        final Object[] elements = new Object[CHUNK_SIZE];
+        /**
+         * The previous chunk in the deque.
+         */
+        Chunk prev;
+        /**
+         * The next chunk in the deque.
+         */
+        Chunk next;
+    }
+}
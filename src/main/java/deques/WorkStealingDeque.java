@@ -0,0 +1,169 @@
+package deques;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Chase–Lev work-stealing implementation of the {@link Deque} interface. One <b>owner</b> thread adds and removes
+ * elements at the back ({@link #addLast(Object)} and {@link #removeLast()}) like a stack, without locking or, except
+ * for the last element, compare-and-set. Any number of other threads <b>steal</b> elements from the front
+ * ({@link #removeFirst()}), competing with each other and with the owner for the last element by compare-and-set on the
+ * front index. Elements live in a growable circular array indexed by ever-increasing front and back counters; growing
+ * copies into a new array, so thieves reading the old array still see valid elements.
+ * <p>
+ * Only the owner may call {@link #addLast(Object)} and {@link #removeLast()}. {@link #addFirst(Object)} is not
+ * supported. {@link #size()} and {@link #get(int)} are snapshots that may be stale by the time they return if other
+ * threads are stealing concurrently.
+ *
+ * @see Deque
+ * @see WorkStealingExecutor
+ */
+public class WorkStealingDeque<E> implements Deque<E> {
+    /**
+     * The initial capacity for the underlying array of elements, which must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The index of the front element, which only increases. Thieves claim elements by compare-and-set.
+     */
+    private final AtomicLong front;
+    /**
+     * The index after the back element, which is only written by the owner.
+     */
+    private volatile long back;
+    /**
+     * The underlying circular array of elements, whose length is a power of two.
+     */
+    private volatile AtomicReferenceArray<E> data;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public WorkStealingDeque() {
+        front = new AtomicLong();
+        back = 0;
+        data = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Not supported: elements can only be added to the back by the owner.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(E element) {
+        throw new UnsupportedOperationException("Work-stealing deques only add to the back");
+    }
+
+    /**
+     * {@inheritDoc} Must only be called by the owner.
+     */
+    @Override
+    public void addLast(E element) {
+        long b = back;
+        long f = front.get();
+        AtomicReferenceArray<E> array = data;
+        if (b - f >= array.length()) {
+            array = resize(array, f, b);
+            data = array;
+        }
+        array.set((int) b & (array.length() - 1), element);
+        // Publishing the new back makes the element visible to thieves.
+        back = b + 1;
+    }
+
+    /**
+     * {@inheritDoc} Must only be called by the owner.
+     */
+    @Override
+    public E removeLast() {
+        long b = back - 1;
+        AtomicReferenceArray<E> array = data;
+        // Reserve the back element before reading the front, so a thief can only take it through the front.
+        back = b;
+        long f = front.get();
+        if (f > b) {
+            back = b + 1;
+            return null;
+        }
+        E result = array.get((int) b & (array.length() - 1));
+        if (f == b) {
+            // Last element: race the thieves for it, then leave the deque empty either way.
+            if (!front.compareAndSet(f, f + 1)) {
+                result = null;
+            }
+            back = b + 1;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc} May be called by any thread to steal the front element.
+     */
+    @Override
+    public E removeFirst() {
+        while (true) {
+            long f = front.get();
+            long b = back;
+            if (f >= b) {
+                return null;
+            }
+            AtomicReferenceArray<E> array = data;
+            E result = array.get((int) f & (array.length() - 1));
+            if (front.compareAndSet(f, f + 1)) {
+                return result;
+            }
+            // Another thief or the owner took the element, so retry with the new front.
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        long f = front.get();
+        long b = back;
+        if (index < 0 || index >= b - f) {
+            return null;
+        }
+        AtomicReferenceArray<E> array = data;
+        return array.get((int) (f + index) & (array.length() - 1));
+    }
+
+    @Override
+    public int size() {
+        long f = front.get();
+        long b = back;
+        return (int) Math.max(0, b - f);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append('[');
+        int size = size();
+        for (int i = 0; i < size; i += 1) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(get(i));
+        }
+        result.append(']');
+        return result.toString();
+    }
+
+    /**
+     * Returns a new array twice the length of the given array, containing the elements from the front index
+     * (inclusive) to the back index (exclusive) at the same positions modulo the new length.
+     *
+     * @param array the full array of elements
+     * @param f     the front index
+     * @param b     the back index
+     * @return the new array of elements
+     */
+    private static <E> AtomicReferenceArray<E> resize(AtomicReferenceArray<E> array, long f, long b) {
+        AtomicReferenceArray<E> result = new AtomicReferenceArray<>(array.length() * 2);
+        for (long i = f; i < b; i += 1) {
+            result.set((int) i & (result.length() - 1), array.get((int) i & (array.length() - 1)));
+        }
+        return result;
+    }
+}
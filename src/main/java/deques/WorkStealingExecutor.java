@@ -0,0 +1,256 @@
+package deques;
+
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed pool of worker threads that each own a {@link WorkStealingDeque} of tasks. A task executed from a worker
+ * thread, such as a subtask forked by a parallel graph search, is added to the back of that worker's own deque, and the
+ * worker runs its newest task first. Tasks executed from other threads go into a shared queue. A worker without tasks
+ * of its own takes from the shared queue or steals the oldest task of a random other worker, which tends to be the
+ * largest remaining piece of work. A worker that finds no task parks until a newly executed task wakes it.
+ * <p>
+ * {@link #awaitQuiescence()} waits until every executed task, including tasks executed by other tasks, has finished.
+ * The first exception thrown by a task is rethrown from there. Tasks abandoned by {@link #close()} count as finished.
+ *
+ * @see WorkStealingDeque
+ */
+public class WorkStealingExecutor implements Executor, AutoCloseable {
+    private final Worker[] workers;
+    /**
+     * Tasks executed from threads other than the workers.
+     */
+    private final Queue<Runnable> submissions;
+    /**
+     * Workers parked waiting for a task, each woken by at most one {@link #execute(Runnable)}.
+     */
+    private final Queue<Worker> idle;
+    /**
+     * Number of tasks executed but not yet finished.
+     */
+    private final AtomicLong pending;
+    /**
+     * The first exception thrown by a task, or null.
+     */
+    private final AtomicReference<Throwable> failure;
+    private volatile boolean closed;
+
+    /**
+     * Constructs an executor with one worker per available processor.
+     */
+    public WorkStealingExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an executor with the given number of worker threads.
+     *
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if the number of worker threads is not positive
+     */
+    public WorkStealingExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Non-positive parallelism: " + parallelism);
+        }
+        submissions = new ConcurrentLinkedQueue<>();
+        idle = new ConcurrentLinkedQueue<>();
+        pending = new AtomicLong();
+        failure = new AtomicReference<>();
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i += 1) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("Executor is closed");
+        }
+        pending.incrementAndGet();
+        if (Thread.currentThread() instanceof Worker worker && worker.executor() == this) {
+            worker.tasks.addLast(task);
+        } else {
+            submissions.add(task);
+        }
+        signal();
+    }
+
+    /**
+     * Unparks one idle worker, if any.
+     */
+    private void signal() {
+        Worker worker = idle.poll();
+        if (worker != null) {
+            worker.queued.set(false);
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Waits until every executed task has finished or the executor is closed.
+     *
+     * @throws CompletionException  if a task threw an exception, which is the cause
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void awaitQuiescence() throws InterruptedException {
+        synchronized (pending) {
+            while (pending.get() > 0 && !closed) {
+                pending.wait();
+            }
+        }
+        Throwable cause = failure.getAndSet(null);
+        if (cause != null) {
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Stops the worker threads after they finish running any task, abandoning tasks that have not started and waking
+     * threads awaiting quiescence.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        for (Worker worker : workers) {
+            boolean interrupted = false;
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long abandoned = 0;
+        while (submissions.poll() != null) {
+            abandoned += 1;
+        }
+        for (Worker worker : workers) {
+            while (worker.tasks.removeFirst() != null) {
+                abandoned += 1;
+            }
+        }
+        synchronized (pending) {
+            pending.addAndGet(-abandoned);
+            pending.notifyAll();
+        }
+    }
+
+    /**
+     * Runs the task, recording its exception if it throws, and wakes threads awaiting quiescence when no tasks remain.
+     */
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (pending) {
+                    pending.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Worker thread that runs its own tasks newest first, then shared tasks, then tasks stolen from other workers.
+     */
+    private class Worker extends Thread {
+        private final WorkStealingDeque<Runnable> tasks;
+        private final int index;
+        /**
+         * Whether this worker is in the idle queue.
+         */
+        private final AtomicBoolean queued;
+
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            this.index = index;
+            tasks = new WorkStealingDeque<>();
+            queued = new AtomicBoolean();
+            setDaemon(true);
+        }
+
+        /**
+         * Returns the executor of this worker.
+         */
+        WorkStealingExecutor executor() {
+            return WorkStealingExecutor.this;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                Runnable task = tasks.removeLast();
+                if (task == null) {
+                    task = poll();
+                }
+                if (task == null) {
+                    // Join the idle queue before looking again, so a task executed after the second look unparks us.
+                    if (queued.compareAndSet(false, true)) {
+                        idle.add(this);
+                    }
+                    task = poll();
+                    if (task == null) {
+                        if (!closed) {
+                            LockSupport.park(this);
+                        }
+                    } else if (!queued.compareAndSet(true, false) || !idle.remove(this)) {
+                        // An execute already dequeued us to run a task that may not be the one we found, so pass on
+                        // the wakeup.
+                        signal();
+                    }
+                }
+                if (task != null) {
+                    WorkStealingExecutor.this.run(task);
+                }
+            }
+        }
+
+        /**
+         * Returns a shared task or a task stolen from another worker, or null.
+         */
+        private Runnable poll() {
+            Runnable task = submissions.poll();
+            if (task == null) {
+                task = steal();
+            }
+            return task;
+        }
+
+        /**
+         * Returns the oldest task of the first other worker with tasks, starting from a random worker, or null.
+         */
+        private Runnable steal() {
+            int start = ThreadLocalRandom.current().nextInt(workers.length);
+            for (int i = 0; i < workers.length; i += 1) {
+                Worker victim = workers[(start + i) % workers.length];
+                if (victim.index != index) {
+                    Runnable task = victim.tasks.removeFirst();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package graphs;
 
 import graphs.shortestpaths.ShortestPathSolver;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,10 +17,42 @@ import java.util.List;
 public interface Graph<V> {
 
     /**
-     * Returns a list of the outgoing edges from the given vertex.
+     * Calls the action with each outgoing edge from the given vertex. Unlike {@link #neighbors(Object)}, no list or
+     * {@link Edge} objects need to be allocated, so this is the method that shortest paths solvers use.
+     *
+     * @param vertex the node of interest.
+     * @param action the action to call with the originating vertex, destination vertex, and weight of each edge.
+     */
+    void forEachNeighbor(V vertex, EdgeConsumer<? super V> action);
+
+    /**
+     * Returns a list of the outgoing edges from the given vertex. By default, collects the edges passed to
+     * {@link #forEachNeighbor(Object, EdgeConsumer)} into a new list.
      *
      * @param vertex the node of interest.
      * @return a list of the outgoing edges from the given vertex.
      */
-    List<Edge<V>> neighbors(V vertex);
+    default List<Edge<V>> neighbors(V vertex) {
+        List<Edge<V>> result = new ArrayList<>();
+        forEachNeighbor(vertex, (from, to, weight) -> result.add(new Edge<>(from, to, weight)));
+        return result;
+    }
+
+    /**
+     * Action called with each outgoing edge from a vertex.
+     *
+     * @param <V> the type of vertices.
+     * @see #forEachNeighbor(Object, EdgeConsumer)
+     */
+    @FunctionalInterface
+    interface EdgeConsumer<V> {
+        /**
+         * Performs this action on the given edge.
+         *
+         * @param from   the originating vertex.
+         * @param to     the destination vertex.
+         * @param weight the weight of the edge.
+         */
+        void accept(V from, V to, double weight);
+    }
 }
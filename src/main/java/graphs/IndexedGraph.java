@@ -0,0 +1,78 @@
+package graphs;
+
+import graphs.shortestpaths.ShortestPathSolver;
+
+/**
+ * Directed, edge-weighted graph whose vertices are numbered by dense integer ids from 0 (inclusive) to
+ * {@link #vertexCount()} (exclusive). Shortest paths solvers can then keep their distances and paths in primitive
+ * arrays indexed by id rather than in hash maps keyed by vertex.
+ *
+ * @param <V> the type of vertices.
+ * @see Graph
+ * @see ShortestPathSolver
+ */
+public interface IndexedGraph<V> extends Graph<V> {
+    /**
+     * Returns the number of vertices in this graph, which is one more than the largest vertex id.
+     *
+     * @return the number of vertices in this graph.
+     */
+    int vertexCount();
+
+    /**
+     * Returns the id of the given vertex, or -1 if it is not a vertex in this graph.
+     *
+     * @param vertex the node of interest.
+     * @return the id of the given vertex, or -1 if it is not a vertex in this graph.
+     */
+    int id(V vertex);
+
+    /**
+     * Returns the vertex with the given id.
+     *
+     * @param id the id of the vertex.
+     * @return the vertex with the given id.
+     */
+    V vertex(int id);
+
+    /**
+     * Calls the action with the ids of the endpoints and the weight of each outgoing edge from the vertex with the
+     * given id.
+     *
+     * @param id     the id of the node of interest.
+     * @param action the action to call with the originating vertex id, destination vertex id, and weight of each edge.
+     */
+    void forEachNeighborId(int id, IdEdgeConsumer action);
+
+    /**
+     * Calls the action with each outgoing edge from the given vertex. By default, converts the edges passed to
+     * {@link #forEachNeighborId(int, IdEdgeConsumer)} from ids to vertices.
+     *
+     * @param vertex the node of interest.
+     * @param action the action to call with the originating vertex, destination vertex, and weight of each edge.
+     */
+    @Override
+    default void forEachNeighbor(V vertex, EdgeConsumer<? super V> action) {
+        int id = id(vertex);
+        if (id >= 0) {
+            forEachNeighborId(id, (from, to, weight) -> action.accept(vertex(from), vertex(to), weight));
+        }
+    }
+
+    /**
+     * Action called with each outgoing edge from a vertex, given by vertex ids.
+     *
+     * @see #forEachNeighborId(int, IdEdgeConsumer)
+     */
+    @FunctionalInterface
+    interface IdEdgeConsumer {
+        /**
+         * Performs this action on the given edge.
+         *
+         * @param from   the id of the originating vertex.
+         * @param to     the id of the destination vertex.
+         * @param weight the weight of the edge.
+         */
+        void accept(int from, int to, double weight);
+    }
+}
@@ -0,0 +1,178 @@
+package graphs;
+
+import java.util.*;
+
+/**
+ * Strongly connected components of a {@link Graph} computed with an iterative version of Tarjan's algorithm. Each
+ * vertex is labeled with an {@code int} component id so that reachability between two labeled vertices can be answered
+ * in constant time.
+ *
+ * @param <V> the type of vertices.
+ * @see Graph
+ */
+public class StronglyConnectedComponents<V> {
+    /**
+     * {@link Map} of each labeled vertex to its component id.
+     */
+    private final Map<V, Integer> componentOf;
+    /**
+     * {@link List} of the number of vertices in each component, indexed by component id.
+     */
+    private final List<Integer> sizes;
+    /**
+     * The id of the component with the most vertices, or -1 if there are no components.
+     */
+    private final int largest;
+
+    /**
+     * Constructs a new instance by labeling every vertex reachable from the given vertices.
+     *
+     * @param graph    the input graph.
+     * @param vertices the vertices to start labeling from.
+     */
+    public StronglyConnectedComponents(Graph<V> graph, Iterable<V> vertices) {
+        componentOf = new HashMap<>();
+        sizes = new ArrayList<>();
+        Map<V, Integer> index = new HashMap<>();
+        Map<V, Integer> lowLink = new HashMap<>();
+        Set<V> onStack = new HashSet<>();
+        Deque<V> stack = new ArrayDeque<>();
+        for (V vertex : vertices) {
+            if (!index.containsKey(vertex)) {
+                label(graph, vertex, index, lowLink, onStack, stack);
+            }
+        }
+        int best = -1;
+        for (int i = 0; i < sizes.size(); i += 1) {
+            if (best == -1 || sizes.get(i) > sizes.get(best)) {
+                best = i;
+            }
+        }
+        largest = best;
+    }
+
+    /**
+     * Labels all components reachable from the root using an explicit call stack so that very long roads don't
+     * overflow the thread stack.
+     *
+     * @param graph   the input graph.
+     * @param root    the vertex to start from.
+     * @param index   the discovery order of each visited vertex.
+     * @param lowLink the smallest discovery order reachable from each visited vertex.
+     * @param onStack the set of vertices on the component stack.
+     * @param stack   the component stack.
+     */
+    private void label(Graph<V> graph, V root, Map<V, Integer> index, Map<V, Integer> lowLink,
+                       Set<V> onStack, Deque<V> stack) {
+        Deque<Frame<V>> calls = new ArrayDeque<>();
+        visit(graph, root, index, lowLink, onStack, stack, calls);
+        while (!calls.isEmpty()) {
+            Frame<V> frame = calls.peek();
+            if (frame.edges.hasNext()) {
+                V to = frame.edges.next().to;
+                if (!index.containsKey(to)) {
+                    visit(graph, to, index, lowLink, onStack, stack, calls);
+                } else if (onStack.contains(to)) {
+                    lowLink.put(frame.vertex, Math.min(lowLink.get(frame.vertex), index.get(to)));
+                }
+            } else {
+                calls.pop();
+                V vertex = frame.vertex;
+                if (lowLink.get(vertex).equals(index.get(vertex))) {
+                    int id = sizes.size();
+                    int size = 0;
+                    V member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        componentOf.put(member, id);
+                        size += 1;
+                    } while (!member.equals(vertex));
+                    sizes.add(size);
+                }
+                if (!calls.isEmpty()) {
+                    V parent = calls.peek().vertex;
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(vertex)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns the next discovery order to the vertex and pushes it onto both stacks.
+     */
+    private void visit(Graph<V> graph, V vertex, Map<V, Integer> index, Map<V, Integer> lowLink,
+                       Set<V> onStack, Deque<V> stack, Deque<Frame<V>> calls) {
+        int order = index.size();
+        index.put(vertex, order);
+        lowLink.put(vertex, order);
+        stack.push(vertex);
+        onStack.add(vertex);
+        calls.push(new Frame<>(vertex, graph.neighbors(vertex).iterator()));
+    }
+
+    /**
+     * Returns the component id for the given vertex, or -1 if the vertex was never labeled.
+     *
+     * @param vertex the vertex of interest.
+     * @return the component id for the given vertex, or -1 if the vertex was never labeled.
+     */
+    public int component(V vertex) {
+        return componentOf.getOrDefault(vertex, -1);
+    }
+
+    /**
+     * Returns true if and only if both vertices are labeled and belong to the same component.
+     *
+     * @param a the first vertex.
+     * @param b the second vertex.
+     * @return true if and only if both vertices are labeled and belong to the same component.
+     */
+    public boolean connected(V a, V b) {
+        int component = component(a);
+        return component != -1 && component == component(b);
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of components.
+     */
+    public int count() {
+        return sizes.size();
+    }
+
+    /**
+     * Returns the number of vertices in the given component.
+     *
+     * @param component the component id.
+     * @return the number of vertices in the given component.
+     */
+    public int size(int component) {
+        return sizes.get(component);
+    }
+
+    /**
+     * Returns the id of the component with the most vertices, or -1 if there are no components.
+     *
+     * @return the id of the component with the most vertices, or -1 if there are no components.
+     */
+    public int largest() {
+        return largest;
+    }
+
+    /**
+     * A pending call in the iterative depth-first search.
+     *
+     * @param <V> the type of vertices.
+     */
+    private static class Frame<V> {
+        private final V vertex;
+        private final Iterator<Edge<V>> edges;
+
+        Frame(V vertex, Iterator<Edge<V>> edges) {
+            this.vertex = vertex;
+            this.edges = edges;
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package graphs.shortestpaths;
 
 import graphs.AStarGraph;
-import graphs.Edge;
+import graphs.Graph;
+import graphs.IndexedGraph;
 import minpq.DoubleMapMinPQ;
+import minpq.IndexMinPQ;
 import minpq.MinPQ;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
- * A* search implementation for single-pair shortest paths in an {@link AStarGraph}.
+ * A* search implementation for single-pair shortest paths in an {@link AStarGraph}. The search stops as soon as the
+ * goal is settled, which finds the shortest path when {@link AStarGraph#estimatedDistance} is consistent (never
+ * decreases by more than the weight of an edge), as straight-line distance is.
  *
  * @param <V> the type of vertices.
  * @see AStarGraph
  */
 public class AStarSolver<V> {
-    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, V> edgeTo;
     private final Map<V, Double> distTo;
+    /**
+     * Shortest path to the goal if the graph is an {@link IndexedGraph}, or null otherwise. Found when the search
+     * finishes, since the search state is then returned to the pool for other searches.
+     */
+    private final List<V> path;
     private final V goal;
 
     /**
@@ -26,26 +37,117 @@ public class AStarSolver<V> {
      * @param goal  the goal vertex.
      */
     public AStarSolver(AStarGraph<V> graph, V start, V goal) {
+        this(graph, start, goal, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing A* search on the graph from the start to the goal, reporting the work of
+     * the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param goal     the goal vertex.
+     * @param listener the listener to report the work of the search to.
+     */
+    public AStarSolver(AStarGraph<V> graph, V start, V goal, SearchListener<? super V> listener) {
+        this.goal = goal;
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        if (graph instanceof IndexedGraph<V> g) {
+            edgeTo = null;
+            distTo = null;
+            SearchState state = SearchState.acquire(g.vertexCount());
+            try {
+                int goalId = g.id(goal);
+                search(graph, g, state, g.id(start), goalId, goal, observer);
+                path = state.solution(g, goalId, goal);
+                event.finish(this, state.reached, state.distTo(goalId) < Double.POSITIVE_INFINITY ? path.size() : 0);
+            } finally {
+                state.release();
+            }
+            return;
+        }
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
-        this.goal = goal;
+        path = null;
         MinPQ<V> perimeter = new DoubleMapMinPQ<>();
+        // Created once so that relaxing the edges out of each settled vertex does not allocate.
+        Graph.EdgeConsumer<V> relax = (from, to, weight) -> {
+            observer.relaxed(from, to, weight);
+            double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
+            double newDist = distTo.get(from) + weight;
+            if (newDist < oldDist) {
+                edgeTo.put(to, from);
+                distTo.put(to, newDist);
+                double priority = newDist + graph.estimatedDistance(to, goal);
+                perimeter.addOrChangePriority(to, priority);
+                observer.updated(to, priority);
+                observer.frontier(perimeter.size());
+            }
+        };
         perimeter.add(start, 0.0);
+        observer.frontier(perimeter.size());
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
         while (!perimeter.isEmpty()) {
             V from = perimeter.removeMin();
-            for (Edge<V> e : graph.neighbors(from)) {
-                V to = e.to;
-                double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(from) + e.weight;
-                if (newDist < oldDist) {
-                    edgeTo.put(to, e);
-                    distTo.put(to, newDist);
-                    double priority = newDist + graph.estimatedDistance(to, goal);
-                    perimeter.addOrChangePriority(to, priority);
+            observer.settled(from);
+            if (Objects.equals(from, goal)) {
+                break; // The goal is settled, so its shortest path is final given a consistent heuristic.
+            }
+            graph.forEachNeighbor(from, relax);
+        }
+        event.finish(this, distTo.size(), event.isEnabled() && distTo.containsKey(goal) ? solution().size() : 0);
+    }
+
+    /**
+     * Runs A* search with the search state in primitive arrays.
+     *
+     * @param graph    the input graph.
+     * @param indexed  the input graph, by vertex id.
+     * @param state    the search state, with no vertex reached.
+     * @param start    the id of the start vertex, or -1 if it is not in the graph.
+     * @param goalId   the id of the goal vertex, or -1 if it is not in the graph.
+     * @param goal     the goal vertex.
+     * @param observer the listener to report the work of the search to.
+     */
+    private static <V> void search(AStarGraph<V> graph, IndexedGraph<V> indexed, SearchState state, int start,
+                                   int goalId, V goal, SearchListener<? super V> observer) {
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        IndexMinPQ perimeter = state.perimeter;
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (observing) {
+                observer.relaxed(indexed.vertex(from), indexed.vertex(to), weight);
+            }
+            double newDist = state.distTo[from] + weight;
+            if (newDist < state.distTo(to)) {
+                state.reach(to, from, newDist);
+                double priority = newDist + graph.estimatedDistance(indexed.vertex(to), goal);
+                perimeter.addOrChangePriority(to, priority);
+                if (observing) {
+                    observer.updated(indexed.vertex(to), priority);
+                    observer.frontier(perimeter.size());
                 }
             }
+        };
+        if (start < 0) {
+            return;
+        }
+        state.reach(start, -1, 0.0);
+        perimeter.add(start, 0.0);
+        if (observing) {
+            observer.frontier(perimeter.size());
+        }
+        while (!perimeter.isEmpty()) {
+            int from = perimeter.removeMin();
+            if (observing) {
+                observer.settled(indexed.vertex(from));
+            }
+            if (from == goalId) {
+                break; // The goal is settled, so its shortest path is final given a consistent heuristic.
+            }
+            indexed.forEachNeighborId(from, relax);
         }
     }
 
@@ -55,14 +157,126 @@ public class AStarSolver<V> {
      * @return a list of vertices representing the shortest path.
      */
     public List<V> solution() {
+        if (path != null) {
+            return new ArrayList<>(path);
+        }
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
         while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+            curr = edgeTo.get(curr);
             path.add(curr);
         }
         Collections.reverse(path);
         return path;
     }
+
+    /**
+     * Search state of A* on an {@link IndexedGraph} in primitive arrays indexed by vertex id, borrowed from a small
+     * shared pool and returned after each search. A short route settles only a few vertices, so rather than allocating
+     * and filling arrays sized to the whole graph for each search, each search takes a new generation number and treats
+     * every vertex not stamped with it as unreached. The pool holds at most one state per processor, since at most
+     * that many searches make progress at once: this keeps memory bounded however many request threads there are, and
+     * still reuses state when every request runs on a new virtual thread.
+     */
+    private static final class SearchState {
+        private static final BlockingQueue<SearchState> POOL =
+                new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+        /**
+         * Id of the previous vertex on the shortest known path to each vertex, or -1 for the start.
+         */
+        private int[] edgeTo = new int[0];
+        /**
+         * Length of the shortest known path to each vertex.
+         */
+        private double[] distTo = new double[0];
+        /**
+         * Generation of the last search to reach each vertex. Only entries stamped with the current generation are
+         * valid.
+         */
+        private int[] stamps = new int[0];
+        private IndexMinPQ perimeter = new IndexMinPQ(0);
+        private int generation;
+        /**
+         * Number of vertices reached by the current search.
+         */
+        private int reached;
+
+        /**
+         * Returns a search state from the pool with no vertex reached, or a new search state if the pool is empty.
+         *
+         * @param n the number of vertices in the graph.
+         * @return the search state with no vertex reached.
+         */
+        static SearchState acquire(int n) {
+            SearchState state = POOL.poll();
+            if (state == null) {
+                state = new SearchState();
+            }
+            state.reset(n);
+            return state;
+        }
+
+        /**
+         * Returns this search state to the pool for the next search, or drops it if the pool is full.
+         */
+        void release() {
+            POOL.offer(this);
+        }
+
+        /**
+         * Clears this search state for a graph with n vertices, growing the arrays if they are too small.
+         */
+        private void reset(int n) {
+            if (edgeTo.length < n) {
+                edgeTo = new int[n];
+                distTo = new double[n];
+                stamps = new int[n];
+                perimeter = new IndexMinPQ(n);
+                generation = 0;
+            }
+            perimeter.clear();
+            reached = 0;
+            generation += 1;
+            if (generation == 0) {
+                // The generation wrapped around, so stamps from 2^32 searches ago would look current.
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Returns the length of the shortest known path to the vertex, or infinity if it has not been reached.
+         */
+        double distTo(int id) {
+            return id >= 0 && stamps[id] == generation ? distTo[id] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Records a shorter path to the vertex through the previous vertex.
+         */
+        void reach(int id, int from, double dist) {
+            if (stamps[id] != generation) {
+                stamps[id] = generation;
+                reached += 1;
+            }
+            edgeTo[id] = from;
+            distTo[id] = dist;
+        }
+
+        /**
+         * Returns the shortest known path to the goal, or a path containing only the goal if it has not been reached.
+         */
+        <V> List<V> solution(IndexedGraph<V> graph, int goalId, V goal) {
+            List<V> result = new ArrayList<>();
+            result.add(goal);
+            if (distTo(goalId) < Double.POSITIVE_INFINITY) {
+                for (int curr = edgeTo[goalId]; curr >= 0; curr = edgeTo[curr]) {
+                    result.add(graph.vertex(curr));
+                }
+            }
+            Collections.reverse(result);
+            return result;
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package graphs.shortestpaths;
 
-import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 
 import java.util.*;
 
@@ -12,8 +12,13 @@ import java.util.*;
  * @see ShortestPathSolver
  */
 public class BellmanFordSolver<V> implements ShortestPathSolver<V> {
-    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, V> edgeTo;
     private final Map<V, Double> distTo;
+    /**
+     * Search state in primitive arrays replacing {@link #edgeTo} and {@link #distTo} if the graph is an
+     * {@link IndexedGraph}, or null otherwise.
+     */
+    private final IndexedPaths<V> indexed;
 
     /**
      * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start.
@@ -22,56 +27,179 @@ public class BellmanFordSolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public BellmanFordSolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start until every target is
+     * settled. This solver cannot finalize any distance before its last round, so it ignores the targets.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public BellmanFordSolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start until every target is
+     * settled, reporting the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public BellmanFordSolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        if (graph instanceof IndexedGraph<V> g) {
+            edgeTo = null;
+            distTo = null;
+            indexed = new IndexedPaths<>(g, start, Set.of());
+            search(indexed, observer);
+            event.finish(this, event.isEnabled() ? indexed.reached() : 0, 0);
+            return;
+        }
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
+        indexed = null;
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
         List<V> vertices = vertices(graph, start);
+        // Created once so that relaxing the edges out of each vertex in each round does not allocate.
+        Graph.EdgeConsumer<V> relax = (from, to, weight) -> {
+            observer.relaxed(from, to, weight);
+            double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
+            double newDist = distTo.get(from) + weight;
+            if (newDist < oldDist) {
+                edgeTo.put(to, from);
+                distTo.put(to, newDist);
+                observer.updated(to, newDist);
+            }
+        };
         for (int i = 1; i < vertices.size(); i += 1) {
             for (V from : vertices) {
-                for (Edge<V> e : graph.neighbors(from)) {
-                    V to = e.to;
-                    double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                    double newDist = distTo.get(from) + e.weight;
-                    if (newDist < oldDist) {
-                        edgeTo.put(to, e);
-                        distTo.put(to, newDist);
-                    }
-                }
+                observer.settled(from);
+                graph.forEachNeighbor(from, relax);
             }
         }
+        event.finish(this, distTo.size(), 0);
     }
 
     @Override
     public List<V> solution(V goal) {
+        if (indexed != null) {
+            return indexed.solution(goal);
+        }
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
         while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+            curr = edgeTo.get(curr);
             path.add(curr);
         }
         Collections.reverse(path);
         return path;
     }
 
+    /**
+     * Runs Bellman-Ford algorithm with the search state in primitive arrays.
+     *
+     * @param paths    the search state, with only the start reached.
+     * @param observer the listener to report the work of the search to.
+     */
+    private static <V> void search(IndexedPaths<V> paths, SearchListener<? super V> observer) {
+        IndexedGraph<V> graph = paths.graph;
+        int[] edgeTo = paths.edgeTo;
+        double[] distTo = paths.distTo;
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        if (paths.start < 0) {
+            return;
+        }
+        Reachable reachable = new Reachable(graph, paths.start);
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (observing) {
+                observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+            }
+            double newDist = distTo[from] + weight;
+            if (newDist < distTo[to]) {
+                edgeTo[to] = from;
+                distTo[to] = newDist;
+                if (observing) {
+                    observer.updated(graph.vertex(to), newDist);
+                }
+            }
+        };
+        for (int i = 1; i < reachable.size; i += 1) {
+            for (int j = 0; j < reachable.size; j += 1) {
+                int from = reachable.order[j];
+                if (observing) {
+                    observer.settled(graph.vertex(from));
+                }
+                graph.forEachNeighborId(from, relax);
+            }
+        }
+    }
+
     private List<V> vertices(Graph<V> graph, V start) {
         List<V> result = new ArrayList<>();
         Queue<V> queue = new ArrayDeque<>();
         Set<V> visited = new HashSet<>();
+        Graph.EdgeConsumer<V> visit = (from, to, weight) -> {
+            if (!visited.contains(to)) {
+                queue.add(to);
+                visited.add(to);
+            }
+        };
         queue.add(start);
         visited.add(start);
         while (!queue.isEmpty()) {
             V from = queue.remove();
             result.add(from);
-            for (Edge<V> e : graph.neighbors(from)) {
-                V to = e.to;
-                if (!visited.contains(to)) {
-                    queue.add(to);
-                    visited.add(to);
-                }
-            }
+            graph.forEachNeighbor(from, visit);
         }
         return result;
     }
+
+    /**
+     * Ids of the vertices reachable from a start vertex in an {@link IndexedGraph}, in breadth-first order.
+     */
+    private static class Reachable implements IndexedGraph.IdEdgeConsumer {
+        /**
+         * Reachable ids in breadth-first order, followed by unused slots.
+         */
+        private final int[] order;
+        /**
+         * Whether each id has been added to {@code order}.
+         */
+        private final boolean[] visited;
+        private int size;
+
+        /**
+         * Finds the vertices reachable from the start by breadth-first search.
+         *
+         * @param graph the input graph.
+         * @param start the id of the start vertex.
+         */
+        Reachable(IndexedGraph<?> graph, int start) {
+            order = new int[graph.vertexCount()];
+            visited = new boolean[graph.vertexCount()];
+            accept(start, start, 0);
+            for (int i = 0; i < size; i += 1) {
+                graph.forEachNeighborId(order[i], this);
+            }
+        }
+
+        @Override
+        public void accept(int from, int to, double weight) {
+            if (!visited[to]) {
+                visited[to] = true;
+                order[size] = to;
+                size += 1;
+            }
+        }
+    }
 }
@@ -0,0 +1,415 @@
+package graphs.shortestpaths;
+
+import graphs.Graph;
+import graphs.IndexedGraph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel delta-stepping implementation of the {@link ShortestPathSolver} interface for graphs with <b>non-negative
+ * edge weights</b>. Vertices are kept in buckets of width delta by distance. The edges out of the vertices in the lowest
+ * bucket are relaxed in parallel on a {@link ForkJoinPool}: first the light edges (weight at most delta) until the
+ * bucket stops changing, and then the heavy edges once. Distances are lowered with atomic compare-and-set on a primitive
+ * array, so worker threads never block each other.
+ * <p>
+ * A small delta settles vertices in nearly the same order as Dijkstra's algorithm but leaves little parallel work in
+ * each bucket, while a large delta exposes more parallelism but relaxes some edges repeatedly, like Bellman-Ford. By
+ * default, delta is the average weight of a sample of edges. Graphs that are not an {@link IndexedGraph} have no
+ * primitive array to update, so they are solved sequentially by {@link DijkstraSolver} instead.
+ *
+ * @param <V> the type of vertices.
+ * @see ShortestPathSolver
+ * @see IndexedGraph
+ */
+public class DeltaSteppingSolver<V> implements ShortestPathSolver<V> {
+    /**
+     * Atomic access to the elements of a {@code double[]} distance array.
+     */
+    private static final VarHandle DIST = MethodHandles.arrayElementVarHandle(double[].class);
+    /**
+     * Number of vertices whose edges a task relaxes itself rather than splitting the work with another task.
+     */
+    private static final int GRAIN = 256;
+    /**
+     * Maximum number of vertices whose edges are sampled to choose the default delta.
+     */
+    private static final int DELTA_SAMPLES = 1024;
+    /**
+     * Number of locks guarding updates to the path tree, which must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 64;
+    /**
+     * Search state if the graph is an {@link IndexedGraph}, or null otherwise.
+     */
+    private final IndexedPaths<V> indexed;
+    /**
+     * Sequential solver if the graph is not an {@link IndexedGraph}, or null otherwise.
+     */
+    private final ShortestPathSolver<V> fallback;
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start with the default delta on the
+     * common pool.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start with the default delta on the
+     * common pool until every target is settled. This solver stops after the bucket containing the last target.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start with the default delta on the
+     * common pool until every target is settled, reporting the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        this(graph, start, targets, defaultDelta(graph), ForkJoinPool.commonPool(), listener);
+    }
+
+    /**
+     * Constructs a new instance by executing delta-stepping on the graph from the start with the given delta on the
+     * given pool until every target is settled, reporting the work of the search to the listener. Since listeners need
+     * not be thread-safe, edges are relaxed on the calling thread whenever a listener or flight recording is active.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param delta    the width of each bucket, which must be positive.
+     * @param pool     the pool for relaxing edges in parallel.
+     * @param listener the listener to report the work of the search to.
+     * @throws IllegalArgumentException if delta is not positive and finite.
+     */
+    public DeltaSteppingSolver(Graph<V> graph, V start, Set<V> targets, double delta, ForkJoinPool pool,
+                               SearchListener<? super V> listener) {
+        if (!(delta > 0 && delta < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        if (!(graph instanceof IndexedGraph<V> g)) {
+            indexed = null;
+            fallback = new DijkstraSolver<>(graph, start, targets, listener);
+            return;
+        }
+        fallback = null;
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        indexed = new IndexedPaths<>(g, start, targets);
+        if (indexed.start >= 0) {
+            new Search<>(indexed, delta, pool, observer).run();
+        }
+        event.finish(this, event.isEnabled() ? indexed.reached() : 0, 0);
+    }
+
+    /**
+     * Returns the constructor for instances with the given delta on the given pool, for comparing deltas and degrees of
+     * parallelism.
+     *
+     * @param delta the width of each bucket, which must be positive.
+     * @param pool  the pool for relaxing edges in parallel.
+     * @param <V>   the type of vertices.
+     * @return the constructor for instances with the given delta on the given pool.
+     */
+    public static <V> ShortestPathSolver.InstrumentedConstructor<V> withDelta(double delta, ForkJoinPool pool) {
+        return (graph, start, targets, listener) ->
+                new DeltaSteppingSolver<>(graph, start, targets, delta, pool, listener);
+    }
+
+    /**
+     * Returns the average weight of the edges out of up to {@value #DELTA_SAMPLES} vertices spread evenly across the
+     * graph, or 1 if the graph is not an {@link IndexedGraph} or the sampled edges have no weight.
+     *
+     * @param graph the input graph.
+     * @param <V>   the type of vertices.
+     * @return the default delta for the graph.
+     */
+    static <V> double defaultDelta(Graph<V> graph) {
+        if (!(graph instanceof IndexedGraph<V> g) || g.vertexCount() == 0) {
+            return 1.0;
+        }
+        double[] sum = new double[2];
+        IndexedGraph.IdEdgeConsumer sample = (from, to, weight) -> {
+            sum[0] += weight;
+            sum[1] += 1;
+        };
+        int n = g.vertexCount();
+        int samples = Math.min(n, DELTA_SAMPLES);
+        for (int i = 0; i < samples; i += 1) {
+            g.forEachNeighborId((int) ((long) i * n / samples), sample);
+        }
+        double average = sum[0] / sum[1];
+        return average > 0 && average < Double.POSITIVE_INFINITY ? average : 1.0;
+    }
+
+    @Override
+    public List<V> solution(V goal) {
+        if (fallback != null) {
+            return fallback.solution(goal);
+        }
+        return indexed.solution(goal);
+    }
+
+    /**
+     * State of one delta-stepping search.
+     *
+     * @param <V> the type of vertices.
+     */
+    private static class Search<V> {
+        private final IndexedPaths<V> paths;
+        private final IndexedGraph<V> graph;
+        private final double delta;
+        private final ForkJoinPool pool;
+        private final SearchListener<? super V> observer;
+        /**
+         * Whether to relax edges on the calling thread and report them to the {@link #observer}.
+         */
+        private final boolean observing;
+        /**
+         * Locks guarding the path tree so that the previous vertex of each vertex matches its final distance.
+         */
+        private final Object[] locks;
+        /**
+         * Buckets of vertices by bucket index, which may include stale entries for vertices since moved to a lower
+         * bucket.
+         */
+        private final NavigableMap<Long, IntList> buckets;
+        /**
+         * Number of the last round of light relaxations, or the last bucket, in which each vertex was scheduled.
+         */
+        private final int[] scheduled;
+        private final int[] settled;
+        private int round;
+
+        /**
+         * Constructs the state for a search with only the start reached.
+         */
+        Search(IndexedPaths<V> paths, double delta, ForkJoinPool pool, SearchListener<? super V> observer) {
+            this.paths = paths;
+            this.graph = paths.graph;
+            this.delta = delta;
+            this.pool = pool;
+            this.observer = observer;
+            this.observing = observer != SearchListener.NONE;
+            this.locks = new Object[LOCK_STRIPES];
+            for (int i = 0; i < LOCK_STRIPES; i += 1) {
+                locks[i] = new Object();
+            }
+            this.buckets = new TreeMap<>();
+            this.scheduled = new int[graph.vertexCount()];
+            this.settled = new int[graph.vertexCount()];
+        }
+
+        /**
+         * Runs the search until every bucket is empty or every target is settled.
+         */
+        void run() {
+            IntList start = new IntList();
+            start.add(paths.start);
+            buckets.put(0L, start);
+            int bucketNumber = 0;
+            while (!buckets.isEmpty()) {
+                Map.Entry<Long, IntList> entry = buckets.pollFirstEntry();
+                long bucket = entry.getKey();
+                bucketNumber += 1;
+                IntList bucketSettled = new IntList();
+                IntList frontier = schedule(entry.getValue(), bucket);
+                while (frontier.size > 0) {
+                    if (observing) {
+                        observer.frontier(frontier.size);
+                    }
+                    for (int i = 0; i < frontier.size; i += 1) {
+                        int vertex = frontier.values[i];
+                        if (settled[vertex] != bucketNumber) {
+                            settled[vertex] = bucketNumber;
+                            bucketSettled.add(vertex);
+                        }
+                    }
+                    frontier = schedule(relax(frontier, true), bucket);
+                }
+                // Every vertex in this bucket now has its final distance.
+                boolean done = false;
+                for (int i = 0; i < bucketSettled.size; i += 1) {
+                    int vertex = bucketSettled.values[i];
+                    if (observing) {
+                        observer.settled(graph.vertex(vertex));
+                    }
+                    done |= paths.settle(vertex);
+                }
+                if (done) {
+                    return;
+                }
+                // Heavy edges always lead to a later bucket, so they only need to be relaxed once.
+                schedule(relax(bucketSettled, false), bucket);
+            }
+        }
+
+        /**
+         * Returns the vertices that belong in the given bucket, each at most once, after moving the others to the
+         * buckets where they belong.
+         *
+         * @param vertices the vertices to schedule.
+         * @param bucket   the index of the bucket being processed.
+         * @return the vertices that belong in the given bucket.
+         */
+        private IntList schedule(IntList vertices, long bucket) {
+            round += 1;
+            IntList result = new IntList();
+            for (int i = 0; i < vertices.size; i += 1) {
+                int vertex = vertices.values[i];
+                if (scheduled[vertex] == round) {
+                    continue;
+                }
+                scheduled[vertex] = round;
+                long index = (long) (paths.distTo[vertex] / delta);
+                if (index == bucket) {
+                    result.add(vertex);
+                } else if (index > bucket) {
+                    buckets.computeIfAbsent(index, ignored -> new IntList()).add(vertex);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Relaxes the light or heavy edges out of the given vertices, returning the vertices whose distances improved,
+         * possibly more than once.
+         *
+         * @param vertices the vertices whose edges to relax.
+         * @param light    true to relax edges with weight at most delta, or false to relax the other edges.
+         * @return the vertices whose distances improved.
+         */
+        private IntList relax(IntList vertices, boolean light) {
+            if (observing || vertices.size <= GRAIN) {
+                return relax(vertices, 0, vertices.size, light);
+            }
+            return pool.invoke(new RelaxTask(vertices, 0, vertices.size, light));
+        }
+
+        /**
+         * Relaxes the light or heavy edges out of the given range of vertices on the current thread.
+         */
+        private IntList relax(IntList vertices, int lo, int hi, boolean light) {
+            IntList improved = new IntList();
+            IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+                if ((weight <= delta) != light) {
+                    return;
+                }
+                if (observing) {
+                    observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+                }
+                double newDist = (double) DIST.getVolatile(paths.distTo, from) + weight;
+                if (lower(to, newDist, from)) {
+                    improved.add(to);
+                    if (observing) {
+                        observer.updated(graph.vertex(to), newDist);
+                    }
+                }
+            };
+            for (int i = lo; i < hi; i += 1) {
+                graph.forEachNeighborId(vertices.values[i], relax);
+            }
+            return improved;
+        }
+
+        /**
+         * Atomically lowers the distance to the vertex to the new distance through the previous vertex if it is an
+         * improvement.
+         *
+         * @param vertex   the vertex to update.
+         * @param newDist  the new distance to the vertex.
+         * @param previous the previous vertex on the new path.
+         * @return true if the distance was lowered.
+         */
+        private boolean lower(int vertex, double newDist, int previous) {
+            double[] distTo = paths.distTo;
+            double oldDist;
+            do {
+                oldDist = (double) DIST.getVolatile(distTo, vertex);
+                if (newDist >= oldDist) {
+                    return false;
+                }
+            } while (!DIST.compareAndSet(distTo, vertex, oldDist, newDist));
+            // Only the update that set the current distance may set the previous vertex, so a slower thread that set a
+            // distance since lowered again cannot overwrite the previous vertex of the lower distance.
+            synchronized (locks[vertex & (LOCK_STRIPES - 1)]) {
+                if ((double) DIST.getVolatile(distTo, vertex) == newDist) {
+                    paths.edgeTo[vertex] = previous;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Task relaxing the edges out of a range of vertices, splitting the range in half until it is small.
+         */
+        private class RelaxTask extends RecursiveTask<IntList> {
+            private final IntList vertices;
+            private final int lo;
+            private final int hi;
+            private final boolean light;
+
+            RelaxTask(IntList vertices, int lo, int hi, boolean light) {
+                this.vertices = vertices;
+                this.lo = lo;
+                this.hi = hi;
+                this.light = light;
+            }
+
+            @Override
+            protected IntList compute() {
+                if (hi - lo <= GRAIN) {
+                    return relax(vertices, lo, hi, light);
+                }
+                int mid = (lo + hi) >>> 1;
+                RelaxTask right = new RelaxTask(vertices, mid, hi, light);
+                right.fork();
+                IntList result = new RelaxTask(vertices, lo, mid, light).compute();
+                result.addAll(right.join());
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Growable array of ints.
+     */
+    private static class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            size += 1;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package graphs.shortestpaths;
 
-import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 import minpq.DoubleMapMinPQ;
+import minpq.IndexMinPQ;
+import minpq.IntMinPQ;
 import minpq.MinPQ;
+import minpq.RadixMinPQ;
 
 import java.util.*;
 
@@ -14,8 +17,13 @@ import java.util.*;
  * @see ShortestPathSolver
  */
 public class DijkstraSolver<V> implements ShortestPathSolver<V> {
-    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, V> edgeTo;
     private final Map<V, Double> distTo;
+    /**
+     * Search state in primitive arrays replacing {@link #edgeTo} and {@link #distTo} if the graph is an
+     * {@link IndexedGraph}, or null otherwise.
+     */
+    private final IndexedPaths<V> indexed;
 
     /**
      * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start.
@@ -24,34 +32,160 @@ public class DijkstraSolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public DijkstraSolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start until every target is
+     * settled. This solver stops as soon as every target is settled.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public DijkstraSolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start until every target is
+     * settled, reporting the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public DijkstraSolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        this(graph, start, targets, false, listener);
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start until every target is
+     * settled, reporting the work of the search to the listener.
+     *
+     * @param graph     the input graph.
+     * @param start     the start vertex.
+     * @param targets   the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param radixHeap true to keep the perimeter in a {@link RadixMinPQ} rather than an {@link IndexMinPQ} if the
+     *                  graph is an {@link IndexedGraph}.
+     * @param listener  the listener to report the work of the search to.
+     */
+    public DijkstraSolver(Graph<V> graph, V start, Set<V> targets, boolean radixHeap,
+                          SearchListener<? super V> listener) {
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        if (graph instanceof IndexedGraph<V> g) {
+            edgeTo = null;
+            distTo = null;
+            indexed = new IndexedPaths<>(g, start, targets);
+            int n = g.vertexCount();
+            search(indexed, radixHeap ? new RadixMinPQ(n) : new IndexMinPQ(n), observer);
+            event.finish(this, event.isEnabled() ? indexed.reached() : 0, 0);
+            return;
+        }
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
+        indexed = null;
+        Set<V> remaining = new HashSet<>(targets);
         MinPQ<V> perimeter = new DoubleMapMinPQ<>();
+        // Created once so that relaxing the edges out of each settled vertex does not allocate.
+        Graph.EdgeConsumer<V> relax = (from, to, weight) -> {
+            observer.relaxed(from, to, weight);
+            double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
+            double newDist = distTo.get(from) + weight;
+            if (newDist < oldDist) {
+                edgeTo.put(to, from);
+                distTo.put(to, newDist);
+                perimeter.addOrChangePriority(to, newDist);
+                observer.updated(to, newDist);
+                observer.frontier(perimeter.size());
+            }
+        };
         perimeter.add(start, 0.0);
+        observer.frontier(perimeter.size());
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
         while (!perimeter.isEmpty()) {
             V from = perimeter.removeMin();
-            for (Edge<V> e : graph.neighbors(from)) {
-                V to = e.to;
-                double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(from) + e.weight;
-                if (newDist < oldDist) {
-                    edgeTo.put(to, e);
-                    distTo.put(to, newDist);
-                    perimeter.addOrChangePriority(to, newDist);
+            observer.settled(from);
+            if (remaining.remove(from) && remaining.isEmpty()) {
+                break; // Every target is settled, so its shortest path is final.
+            }
+            graph.forEachNeighbor(from, relax);
+        }
+        event.finish(this, distTo.size(), 0);
+    }
+
+    /**
+     * Returns the constructor for instances that keep the perimeter in a {@link RadixMinPQ} if the graph is an
+     * {@link IndexedGraph}. Edge weights are non-negative, so every distance added to the perimeter is at least the
+     * distance of the last settled vertex, as a radix heap requires.
+     *
+     * @param <V> the type of vertices.
+     * @return the constructor for instances that keep the perimeter in a {@link RadixMinPQ}.
+     */
+    public static <V> ShortestPathSolver.InstrumentedConstructor<V> withRadixHeap() {
+        return (graph, start, targets, listener) -> new DijkstraSolver<>(graph, start, targets, true, listener);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm with the search state in primitive arrays.
+     *
+     * @param paths     the search state, with only the start reached.
+     * @param perimeter the empty priority queue for the perimeter.
+     * @param observer  the listener to report the work of the search to.
+     */
+    private static <V> void search(IndexedPaths<V> paths, IntMinPQ perimeter, SearchListener<? super V> observer) {
+        IndexedGraph<V> graph = paths.graph;
+        int[] edgeTo = paths.edgeTo;
+        double[] distTo = paths.distTo;
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (observing) {
+                observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+            }
+            double newDist = distTo[from] + weight;
+            if (newDist < distTo[to]) {
+                edgeTo[to] = from;
+                distTo[to] = newDist;
+                perimeter.addOrChangePriority(to, newDist);
+                if (observing) {
+                    observer.updated(graph.vertex(to), newDist);
+                    observer.frontier(perimeter.size());
                 }
             }
+        };
+        if (paths.start < 0) {
+            return;
+        }
+        perimeter.add(paths.start, 0.0);
+        if (observing) {
+            observer.frontier(perimeter.size());
+        }
+        while (!perimeter.isEmpty()) {
+            int from = perimeter.removeMin();
+            if (observing) {
+                observer.settled(graph.vertex(from));
+            }
+            if (paths.settle(from)) {
+                break; // Every target is settled, so its shortest path is final.
+            }
+            graph.forEachNeighborId(from, relax);
         }
     }
 
     @Override
     public List<V> solution(V goal) {
+        if (indexed != null) {
+            return indexed.solution(goal);
+        }
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
         while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+            curr = edgeTo.get(curr);
             path.add(curr);
         }
         Collections.reverse(path);
@@ -0,0 +1,561 @@
+package graphs.shortestpaths;
+
+import graphs.Graph;
+import graphs.IndexedGraph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bellman-Ford algorithm implementation of the {@link ShortestPathSolver} interface that only relaxes the edges out of
+ * the vertices whose distances changed in the previous round, stopping as soon as a round changes nothing. Unlike
+ * {@link BellmanFordSolver}, the edges reachable from the start are copied into primitive arrays once before the first
+ * round rather than requested from the graph in every round.
+ * <p>
+ * Edge weights may be negative. If the frontier is still not empty after as many rounds as there are reachable
+ * vertices, some negative cycle is reachable from the start and {@link #hasNegativeCycle()} returns true. Each round
+ * can optionally be relaxed in parallel on a {@link ForkJoinPool}, in which case every vertex in a block of vertices
+ * pulls the shortest distance over its incoming edges from the previous round's frontier. Parallel rounds do not share
+ * any writes but scan every incoming edge, so they only pay off when frontiers are large.
+ *
+ * @param <V> the type of vertices.
+ * @see ShortestPathSolver
+ * @see BellmanFordSolver
+ */
+public class FrontierBellmanFordSolver<V> implements ShortestPathSolver<V> {
+    /**
+     * Number of vertices that a task pulls distances for itself rather than splitting the work with another task.
+     */
+    private static final int GRAIN = 1024;
+    private final IndexedPaths<V> paths;
+    private final boolean negativeCycle;
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     */
+    public FrontierBellmanFordSolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start until every target is
+     * settled. This solver cannot finalize any distance before its frontier empties, so it ignores the targets.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public FrontierBellmanFordSolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start until every target is
+     * settled, reporting the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public FrontierBellmanFordSolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        this(graph, start, targets, null, listener);
+    }
+
+    /**
+     * Constructs a new instance by executing Bellman-Ford algorithm on the graph from the start until every target is
+     * settled with each round relaxed in parallel on the given pool, reporting the work of the search to the listener.
+     * Since listeners need not be thread-safe, rounds are relaxed on the calling thread whenever a listener or flight
+     * recording is active.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param pool     the pool for relaxing each round in parallel, or null to relax on the calling thread.
+     * @param listener the listener to report the work of the search to.
+     */
+    public FrontierBellmanFordSolver(Graph<V> graph, V start, Set<V> targets, ForkJoinPool pool,
+                                     SearchListener<? super V> listener) {
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        Adjacency<V> adjacency = new Adjacency<>(graph, start);
+        paths = new IndexedPaths<>(adjacency, start, Set.of());
+        if (paths.start < 0) {
+            negativeCycle = false;
+        } else if (pool == null || observer != SearchListener.NONE) {
+            negativeCycle = search(paths, observer);
+        } else {
+            negativeCycle = new ParallelSearch(adjacency, paths.edgeTo, paths.distTo, pool).run(paths.start);
+        }
+        event.finish(this, event.isEnabled() ? paths.reached() : 0, 0);
+    }
+
+    /**
+     * Returns the constructor for instances that relax each round in parallel on the given pool.
+     *
+     * @param pool the pool for relaxing each round in parallel.
+     * @param <V>  the type of vertices.
+     * @return the constructor for instances that relax each round in parallel on the given pool.
+     */
+    public static <V> ShortestPathSolver.InstrumentedConstructor<V> withPool(ForkJoinPool pool) {
+        return (graph, start, targets, listener) ->
+                new FrontierBellmanFordSolver<>(graph, start, targets, pool, listener);
+    }
+
+    /**
+     * Returns true if a negative cycle is reachable from the start, in which case there are no shortest paths.
+     *
+     * @return true if a negative cycle is reachable from the start.
+     */
+    public boolean hasNegativeCycle() {
+        return negativeCycle;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if a negative cycle is reachable from the start.
+     */
+    @Override
+    public List<V> solution(V goal) {
+        if (negativeCycle) {
+            throw new IllegalStateException("Negative cycle reachable from the start");
+        }
+        return paths.solution(goal);
+    }
+
+    /**
+     * Runs Bellman-Ford algorithm on the calling thread, relaxing the edges out of each vertex in the frontier in turn
+     * and adding each vertex whose distance improves to the next frontier.
+     *
+     * @param paths    the search state, with only the start reached.
+     * @param observer the listener to report the work of the search to.
+     * @return true if a negative cycle is reachable from the start.
+     */
+    private static <V> boolean search(IndexedPaths<V> paths, SearchListener<? super V> observer) {
+        IndexedGraph<V> graph = paths.graph;
+        int[] edgeTo = paths.edgeTo;
+        double[] distTo = paths.distTo;
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        int n = graph.vertexCount();
+        Frontier frontier = new Frontier(n, paths.start);
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (observing) {
+                observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+            }
+            double newDist = distTo[from] + weight;
+            if (newDist < distTo[to]) {
+                edgeTo[to] = from;
+                distTo[to] = newDist;
+                frontier.add(to);
+                if (observing) {
+                    observer.updated(graph.vertex(to), newDist);
+                }
+            }
+        };
+        // Without negative cycles, every shortest path has fewer edges than there are vertices, so the frontier is
+        // empty after at most n rounds.
+        for (int round = 0; !frontier.isEmpty(); round += 1) {
+            if (round == n) {
+                return true;
+            }
+            for (int i = 0; i < frontier.size; i += 1) {
+                int from = frontier.current[i];
+                frontier.queued[from] = false;
+                if (observing) {
+                    observer.settled(graph.vertex(from));
+                }
+                graph.forEachNeighborId(from, relax);
+            }
+            frontier.advance();
+        }
+        return false;
+    }
+
+    /**
+     * Ids of the vertices whose edges to relax in the current round, and of the vertices to relax in the next round.
+     */
+    private static class Frontier {
+        private int[] current;
+        private int[] next;
+        /**
+         * Whether each id is in the next frontier and not yet relaxed in the current round.
+         */
+        private final boolean[] queued;
+        private int size;
+        private int nextSize;
+
+        /**
+         * Constructs a frontier containing only the start.
+         *
+         * @param n     the number of vertices.
+         * @param start the id of the start vertex.
+         */
+        Frontier(int n, int start) {
+            current = new int[n];
+            next = new int[n];
+            queued = new boolean[n];
+            current[0] = start;
+            size = 1;
+        }
+
+        /**
+         * Adds the id to the next frontier unless it is already there.
+         *
+         * @param id the id to add.
+         */
+        void add(int id) {
+            if (!queued[id]) {
+                queued[id] = true;
+                next[nextSize] = id;
+                nextSize += 1;
+            }
+        }
+
+        /**
+         * Makes the next frontier the current frontier.
+         */
+        void advance() {
+            int[] temp = current;
+            current = next;
+            next = temp;
+            size = nextSize;
+            nextSize = 0;
+        }
+
+        /**
+         * Returns true if there are no vertices to relax in the current round.
+         *
+         * @return true if there are no vertices to relax in the current round.
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * State of one Bellman-Ford search relaxing each round in parallel. Every vertex pulls its distance for the next
+     * round over its incoming edges from the vertices in the frontier, reading only distances from the previous round,
+     * so tasks never write the same element.
+     */
+    private static class ParallelSearch {
+        private final Adjacency<?> adjacency;
+        private final int[] edgeTo;
+        private final ForkJoinPool pool;
+        private double[] distTo;
+        private double[] nextDistTo;
+        /**
+         * Whether each vertex is in the frontier of the current round.
+         */
+        private boolean[] active;
+        private boolean[] nextActive;
+
+        /**
+         * Constructs the state for a search writing its results to the given arrays.
+         *
+         * @param adjacency the cached edges of the graph.
+         * @param edgeTo    the previous vertex on the shortest known path to each vertex.
+         * @param distTo    the length of the shortest known path to each vertex.
+         * @param pool      the pool for relaxing each round in parallel.
+         */
+        ParallelSearch(Adjacency<?> adjacency, int[] edgeTo, double[] distTo, ForkJoinPool pool) {
+            this.adjacency = adjacency;
+            this.edgeTo = edgeTo;
+            this.distTo = distTo;
+            this.pool = pool;
+            int n = adjacency.vertexCount();
+            nextDistTo = new double[n];
+            active = new boolean[n];
+            nextActive = new boolean[n];
+        }
+
+        /**
+         * Runs rounds until the frontier is empty, leaving the final distances in the original distance array.
+         *
+         * @param start the id of the start vertex.
+         * @return true if a negative cycle is reachable from the start.
+         */
+        boolean run(int start) {
+            double[] result = distTo;
+            int n = adjacency.vertexCount();
+            adjacency.cacheIncomingEdges();
+            active[start] = true;
+            boolean negativeCycle = false;
+            for (int round = 0, size = 1; size > 0; round += 1) {
+                if (round == n) {
+                    negativeCycle = true;
+                    break;
+                }
+                size = pool.invoke(new PullTask(0, n));
+                double[] tempDistTo = distTo;
+                distTo = nextDistTo;
+                nextDistTo = tempDistTo;
+                boolean[] tempActive = active;
+                active = nextActive;
+                nextActive = tempActive;
+            }
+            if (distTo != result) {
+                System.arraycopy(distTo, 0, result, 0, n);
+            }
+            return negativeCycle;
+        }
+
+        /**
+         * Pulls the distance for the next round to each vertex in the given range over its incoming edges from the
+         * frontier, returning the number of vertices whose distance improved.
+         */
+        private int pull(int lo, int hi) {
+            int[] offsets = adjacency.incomingOffsets;
+            int[] sources = adjacency.sources;
+            double[] weights = adjacency.incomingWeights;
+            int improved = 0;
+            for (int to = lo; to < hi; to += 1) {
+                double best = distTo[to];
+                int previous = -1;
+                for (int i = offsets[to]; i < offsets[to + 1]; i += 1) {
+                    int from = sources[i];
+                    if (active[from] && distTo[from] + weights[i] < best) {
+                        best = distTo[from] + weights[i];
+                        previous = from;
+                    }
+                }
+                nextDistTo[to] = best;
+                nextActive[to] = previous >= 0;
+                if (previous >= 0) {
+                    edgeTo[to] = previous;
+                    improved += 1;
+                }
+            }
+            return improved;
+        }
+
+        /**
+         * Task pulling distances for a range of vertices, splitting the range in half until it is small.
+         */
+        private class PullTask extends RecursiveTask<Integer> {
+            private final int lo;
+            private final int hi;
+
+            PullTask(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected Integer compute() {
+                if (hi - lo <= GRAIN) {
+                    return pull(lo, hi);
+                }
+                int mid = (lo + hi) >>> 1;
+                PullTask right = new PullTask(mid, hi);
+                right.fork();
+                int result = new PullTask(lo, mid).compute();
+                return result + right.join();
+            }
+        }
+    }
+
+    /**
+     * Edges reachable from a start vertex copied into primitive arrays, with the reachable vertices renumbered from 0 in
+     * breadth-first order. The outgoing edges of each vertex are stored contiguously in order of their originating
+     * vertex, and the incoming edges can be cached in order of their destination vertex for pulling distances.
+     *
+     * @param <V> the type of vertices.
+     */
+    private static class Adjacency<V> implements IndexedGraph<V> {
+        /**
+         * The original graph if it is an {@link IndexedGraph}, or null otherwise.
+         */
+        private final IndexedGraph<V> source;
+        /**
+         * Id in this graph of each vertex id in the {@link #source}, or -1 for unreachable vertices.
+         */
+        private final int[] sourceToId;
+        /**
+         * Id in the {@link #source} of each vertex in this graph.
+         */
+        private int[] idToSource;
+        /**
+         * Id of each reachable vertex if the original graph is not an {@link IndexedGraph}, or null otherwise.
+         */
+        private final Map<V, Integer> ids;
+        /**
+         * Reachable vertices by id if the original graph is not an {@link IndexedGraph}, or null otherwise.
+         */
+        private final List<V> vertices;
+        private int size;
+        /**
+         * Outgoing edges of vertex {@code v} are at indexes from {@code offsets[v]} to {@code offsets[v + 1]} in
+         * {@link #targets} and {@link #weights}.
+         */
+        private int[] offsets;
+        private int[] targets;
+        private double[] weights;
+        private int edges;
+        /**
+         * Incoming edges of vertex {@code v} are at indexes from {@code incomingOffsets[v]} to
+         * {@code incomingOffsets[v + 1]} in {@link #sources} and {@link #incomingWeights}, or null if not yet cached.
+         */
+        private int[] incomingOffsets;
+        private int[] sources;
+        private double[] incomingWeights;
+
+        /**
+         * Copies the edges reachable from the start by breadth-first search.
+         *
+         * @param graph the input graph.
+         * @param start the start vertex.
+         */
+        Adjacency(Graph<V> graph, V start) {
+            offsets = new int[9];
+            targets = new int[8];
+            weights = new double[8];
+            if (graph instanceof IndexedGraph<V> g) {
+                source = g;
+                sourceToId = new int[g.vertexCount()];
+                Arrays.fill(sourceToId, -1);
+                idToSource = new int[8];
+                ids = null;
+                vertices = null;
+                int id = g.id(start);
+                if (id >= 0) {
+                    add(id);
+                }
+                IndexedGraph.IdEdgeConsumer copy = (from, to, weight) -> {
+                    if (sourceToId[to] < 0) {
+                        add(to);
+                    }
+                    addEdge(sourceToId[to], weight);
+                };
+                for (int i = 0; i < size; i += 1) {
+                    g.forEachNeighborId(idToSource[i], copy);
+                    offsets[i + 1] = edges;
+                }
+            } else {
+                source = null;
+                sourceToId = null;
+                ids = new HashMap<>();
+                vertices = new ArrayList<>();
+                add(start);
+                Graph.EdgeConsumer<V> copy = (from, to, weight) -> {
+                    Integer id = ids.get(to);
+                    if (id == null) {
+                        id = size;
+                        add(to);
+                    }
+                    addEdge(id, weight);
+                };
+                for (int i = 0; i < size; i += 1) {
+                    graph.forEachNeighbor(vertices.get(i), copy);
+                    offsets[i + 1] = edges;
+                }
+            }
+        }
+
+        /**
+         * Adds a vertex with the given id in the {@link #source} as the next vertex in this graph.
+         */
+        private void add(int sourceId) {
+            if (size == idToSource.length) {
+                idToSource = Arrays.copyOf(idToSource, size * 2);
+            }
+            idToSource[size] = sourceId;
+            sourceToId[sourceId] = size;
+            grow();
+        }
+
+        /**
+         * Adds the given vertex of the original graph as the next vertex in this graph.
+         */
+        private void add(V vertex) {
+            ids.put(vertex, size);
+            vertices.add(vertex);
+            grow();
+        }
+
+        /**
+         * Makes room for the offsets of one more vertex.
+         */
+        private void grow() {
+            size += 1;
+            if (size + 1 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+        }
+
+        /**
+         * Adds an edge from the vertex whose edges are being copied.
+         */
+        private void addEdge(int to, double weight) {
+            if (edges == targets.length) {
+                targets = Arrays.copyOf(targets, edges * 2);
+                weights = Arrays.copyOf(weights, edges * 2);
+            }
+            targets[edges] = to;
+            weights[edges] = weight;
+            edges += 1;
+        }
+
+        /**
+         * Copies the edges into {@link #incomingOffsets}, {@link #sources}, and {@link #incomingWeights} ordered by
+         * destination vertex, unless already cached.
+         */
+        void cacheIncomingEdges() {
+            if (incomingOffsets != null) {
+                return;
+            }
+            int[] counts = new int[size + 1];
+            for (int i = 0; i < edges; i += 1) {
+                counts[targets[i] + 1] += 1;
+            }
+            for (int v = 0; v < size; v += 1) {
+                counts[v + 1] += counts[v];
+            }
+            incomingOffsets = counts.clone();
+            sources = new int[edges];
+            incomingWeights = new double[edges];
+            for (int from = 0; from < size; from += 1) {
+                for (int i = offsets[from]; i < offsets[from + 1]; i += 1) {
+                    int index = counts[targets[i]];
+                    sources[index] = from;
+                    incomingWeights[index] = weights[i];
+                    counts[targets[i]] += 1;
+                }
+            }
+        }
+
+        @Override
+        public int vertexCount() {
+            return size;
+        }
+
+        @Override
+        public int id(V vertex) {
+            if (source == null) {
+                return ids.getOrDefault(vertex, -1);
+            }
+            int id = source.id(vertex);
+            return id >= 0 ? sourceToId[id] : -1;
+        }
+
+        @Override
+        public V vertex(int id) {
+            if (source == null) {
+                return vertices.get(id);
+            }
+            return source.vertex(idToSource[id]);
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i += 1) {
+                action.accept(id, targets[i], weights[i]);
+            }
+        }
+    }
+}
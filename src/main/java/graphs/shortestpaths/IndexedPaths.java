@@ -0,0 +1,123 @@
+package graphs.shortestpaths;
+
+import graphs.IndexedGraph;
+
+import java.util.*;
+
+/**
+ * Search state of a shortest paths solver on an {@link IndexedGraph}, kept in primitive arrays indexed by vertex id in
+ * place of the {@code edgeTo} and {@code distTo} maps that solvers use for other graphs.
+ *
+ * @param <V> the type of vertices.
+ * @see IndexedGraph
+ */
+final class IndexedPaths<V> {
+    final IndexedGraph<V> graph;
+    /**
+     * Id of the previous vertex on the shortest known path to each vertex, or -1 for the start and unreached vertices.
+     */
+    final int[] edgeTo;
+    /**
+     * Length of the shortest known path to each vertex, or infinity for unreached vertices.
+     */
+    final double[] distTo;
+    /**
+     * Id of the start vertex, or -1 if the start is not a vertex in the graph.
+     */
+    final int start;
+    /**
+     * Whether each vertex is a target that has not yet been settled.
+     */
+    private final boolean[] targets;
+    private int remaining;
+
+    /**
+     * Constructs the state for a search on the graph from the start with every other vertex unreached.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    IndexedPaths(IndexedGraph<V> graph, V start, Set<V> targets) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        edgeTo = new int[n];
+        distTo = new double[n];
+        Arrays.fill(edgeTo, -1);
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        this.start = graph.id(start);
+        if (this.start >= 0) {
+            distTo[this.start] = 0.0;
+        }
+        this.targets = new boolean[n];
+        for (V target : targets) {
+            int id = graph.id(target);
+            if (id >= 0 && !this.targets[id]) {
+                this.targets[id] = true;
+                remaining += 1;
+            }
+        }
+    }
+
+    /**
+     * Marks the vertex as settled, returning true if it was the last target to be settled. Always returns false if
+     * there were no targets.
+     *
+     * @param id the id of the settled vertex.
+     * @return true if the vertex was the last target to be settled.
+     */
+    boolean settle(int id) {
+        if (!targets[id]) {
+            return false;
+        }
+        targets[id] = false;
+        remaining -= 1;
+        return remaining == 0;
+    }
+
+    /**
+     * Returns the number of vertices with a known path from the start.
+     *
+     * @return the number of vertices with a known path from the start.
+     */
+    int reached() {
+        int result = 0;
+        for (double dist : distTo) {
+            if (dist != Double.POSITIVE_INFINITY) {
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if there is a known path from the start to the given vertex.
+     *
+     * @param vertex the vertex of interest.
+     * @return true if there is a known path from the start to the given vertex.
+     */
+    boolean hasPathTo(V vertex) {
+        int id = graph.id(vertex);
+        return id >= 0 && distTo[id] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the shortest known path from the start to the goal, or a path containing only the goal if it has not
+     * been reached.
+     *
+     * @param goal the goal vertex.
+     * @return a list of vertices representing the shortest known path.
+     */
+    List<V> solution(V goal) {
+        List<V> path = new ArrayList<>();
+        path.add(goal);
+        int id = graph.id(goal);
+        if (id >= 0) {
+            for (int curr = edgeTo[id]; curr >= 0; curr = edgeTo[curr]) {
+                path.add(graph.vertex(curr));
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,88 @@
+package graphs.shortestpaths;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event for a single shortest paths search, so that slow requests and garbage collections can be
+ * correlated with the size of the search behind them. The work of the search is only counted, and the event only
+ * written, when a recording has enabled it.
+ *
+ * @see SearchListener
+ * @see ShortestPathSolver
+ */
+@Name("huskymaps.RouteSearch")
+@Label("Route Search")
+@Category({"Husky Maps", "Routing"})
+@Description("A shortest paths search from a start vertex")
+@StackTrace(false)
+class RouteSearchEvent extends Event {
+    @Label("Solver")
+    String solver;
+
+    @Label("Vertices Settled")
+    @Description("Number of vertices removed from the perimeter or otherwise scanned")
+    long settled;
+
+    @Label("Edges Relaxed")
+    @Description("Number of edges examined from settled vertices")
+    long relaxed;
+
+    @Label("Perimeter Peak")
+    @Description("Largest number of vertices in the perimeter at once, or 0 for searches without a perimeter")
+    int perimeterPeak;
+
+    @Label("Vertices Reached")
+    int reached;
+
+    @Label("Path Length")
+    @Description("Number of vertices in the path to the goal, or 0 for single-source searches")
+    int pathLength;
+
+    /**
+     * Counts the work of the search while this event is enabled, or null otherwise.
+     */
+    private transient SearchStats stats;
+
+    /**
+     * Begins this event and returns the listener that the search should report to: the given listener, also counting
+     * into this event if a recording has enabled it.
+     *
+     * @param listener the listener given to the solver.
+     * @param <V>      the type of vertices.
+     * @return the listener that the search should report to.
+     */
+    <V> SearchListener<? super V> listen(SearchListener<? super V> listener) {
+        begin();
+        if (!isEnabled()) {
+            return listener;
+        }
+        // Separate returns rather than a conditional expression: JFR rewrites this class and cannot recompute stack
+        // frames that merge unrelated types.
+        SearchStats counts = new SearchStats();
+        stats = counts;
+        if (listener == SearchListener.NONE) {
+            return counts;
+        }
+        return listener.andThen(counts);
+    }
+
+    /**
+     * Ends this event and writes it if it is enabled and exceeds the recording threshold.
+     *
+     * @param solver     the solver that ran the search.
+     * @param reached    the number of vertices reached from the start.
+     * @param pathLength the number of vertices in the path to the goal, or 0 for single-source searches.
+     */
+    void finish(Object solver, int reached, int pathLength) {
+        end();
+        if (shouldCommit() && stats != null) {
+            this.solver = solver.getClass().getSimpleName();
+            settled = stats.settles();
+            relaxed = stats.relaxations();
+            perimeterPeak = stats.maxFrontier();
+            this.reached = reached;
+            this.pathLength = pathLength;
+            commit();
+        }
+    }
+}
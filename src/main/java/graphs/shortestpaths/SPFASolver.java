@@ -1,19 +1,33 @@
 package graphs.shortestpaths;
 
-import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 
 import java.util.*;
 
 /**
- * Shortest Path Faster Algorithm implementation of the {@link ShortestPathSolver} interface.
+ * Shortest Path Faster Algorithm implementation of the {@link ShortestPathSolver} interface. Edge weights may be
+ * negative. Each vertex tracks the number of edges on its shortest known path, and a path with at least as many edges
+ * as there are vertices must repeat a vertex, which is only possible if a negative cycle is reachable from the start.
+ * The search then stops and {@link #hasNegativeCycle()} returns true.
+ * <p>
+ * On an {@link IndexedGraph}, the queue can optionally be reordered by the Small Label First and Large Label Last
+ * heuristics, which often relax fewer edges than first-in-first-out order. Small Label First adds a vertex to the front
+ * of the queue rather than the back if its distance is smaller than that of the vertex at the front. Large Label Last
+ * moves the vertex at the front to the back while its distance is larger than the average distance in the queue.
  *
  * @param <V> the type of vertices.
  * @see ShortestPathSolver
  */
 public class SPFASolver<V> implements ShortestPathSolver<V> {
-    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, V> edgeTo;
     private final Map<V, Double> distTo;
+    /**
+     * Search state in primitive arrays replacing {@link #edgeTo} and {@link #distTo} if the graph is an
+     * {@link IndexedGraph}, or null otherwise.
+     */
+    private final IndexedPaths<V> indexed;
+    private final boolean negativeCycle;
 
     /**
      * Constructs a new instance by executing SPFA on the graph from the start.
@@ -22,34 +36,192 @@ public class SPFASolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public SPFASolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing SPFA on the graph from the start until every target is settled. This
+     * solver cannot finalize any distance before the queue empties, so it ignores the targets.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public SPFASolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing SPFA on the graph from the start until every target is settled, reporting
+     * the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public SPFASolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        this(graph, start, targets, false, listener);
+    }
+
+    /**
+     * Constructs a new instance by executing SPFA on the graph from the start until every target is settled, reporting
+     * the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param reorder  true to reorder the queue by the Small Label First and Large Label Last heuristics if the graph
+     *                 is an {@link IndexedGraph}, or false for first-in-first-out order.
+     * @param listener the listener to report the work of the search to.
+     */
+    public SPFASolver(Graph<V> graph, V start, Set<V> targets, boolean reorder, SearchListener<? super V> listener) {
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        if (graph instanceof IndexedGraph<V> g) {
+            edgeTo = null;
+            distTo = null;
+            indexed = new IndexedPaths<>(g, start, Set.of());
+            negativeCycle = search(indexed, reorder, observer);
+            event.finish(this, event.isEnabled() ? indexed.reached() : 0, 0);
+            return;
+        }
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
+        indexed = null;
+        Map<V, Integer> hops = new HashMap<>();
         Queue<V> perimeter = new OptimizedArrayQueueSet<>();
+        // Created once so that relaxing the edges out of each dequeued vertex does not allocate.
+        Graph.EdgeConsumer<V> relax = (from, to, weight) -> {
+            observer.relaxed(from, to, weight);
+            double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
+            double newDist = distTo.get(from) + weight;
+            if (newDist < oldDist) {
+                edgeTo.put(to, from);
+                distTo.put(to, newDist);
+                hops.put(to, hops.get(from) + 1);
+                perimeter.offer(to);
+                observer.updated(to, newDist);
+                observer.frontier(perimeter.size());
+            }
+        };
         perimeter.add(start);
+        observer.frontier(perimeter.size());
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
+        hops.put(start, 0);
+        boolean cycle = false;
         while (!perimeter.isEmpty()) {
             V from = perimeter.remove();
-            for (Edge<V> e : graph.neighbors(from)) {
-                V to = e.to;
-                double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(from) + e.weight;
-                if (newDist < oldDist) {
-                    edgeTo.put(to, e);
-                    distTo.put(to, newDist);
-                    perimeter.add(to);
+            // A path through more edges than there are reached vertices must repeat a vertex.
+            if (hops.get(from) >= distTo.size()) {
+                cycle = true;
+                break;
+            }
+            observer.settled(from);
+            graph.forEachNeighbor(from, relax);
+        }
+        negativeCycle = cycle;
+        event.finish(this, distTo.size(), 0);
+    }
+
+    /**
+     * Returns the constructor for instances that reorder the queue by the Small Label First and Large Label Last
+     * heuristics on an {@link IndexedGraph}.
+     *
+     * @param <V> the type of vertices.
+     * @return the constructor for instances that reorder the queue.
+     */
+    public static <V> ShortestPathSolver.InstrumentedConstructor<V> withReordering() {
+        return (graph, start, targets, listener) -> new SPFASolver<>(graph, start, targets, true, listener);
+    }
+
+    /**
+     * Returns true if a negative cycle is reachable from the start, in which case there are no shortest paths.
+     *
+     * @return true if a negative cycle is reachable from the start.
+     */
+    public boolean hasNegativeCycle() {
+        return negativeCycle;
+    }
+
+    /**
+     * Runs SPFA with the search state in primitive arrays.
+     *
+     * @param paths    the search state, with only the start reached.
+     * @param reorder  true to reorder the queue by the Small Label First and Large Label Last heuristics.
+     * @param observer the listener to report the work of the search to.
+     * @return true if a negative cycle is reachable from the start.
+     */
+    private static <V> boolean search(IndexedPaths<V> paths, boolean reorder, SearchListener<? super V> observer) {
+        IndexedGraph<V> graph = paths.graph;
+        int[] edgeTo = paths.edgeTo;
+        double[] distTo = paths.distTo;
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        int n = graph.vertexCount();
+        int[] hops = new int[n];
+        IdDequeSet perimeter = new IdDequeSet(n);
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (observing) {
+                observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+            }
+            double oldDist = distTo[to];
+            double newDist = distTo[from] + weight;
+            if (newDist < oldDist) {
+                edgeTo[to] = from;
+                distTo[to] = newDist;
+                hops[to] = hops[from] + 1;
+                if (reorder) {
+                    perimeter.offerSmallLabelFirst(to, oldDist, distTo);
+                } else {
+                    perimeter.offer(to);
+                }
+                if (observing) {
+                    observer.updated(graph.vertex(to), newDist);
+                    observer.frontier(perimeter.size());
                 }
             }
+        };
+        if (paths.start < 0) {
+            return false;
+        }
+        perimeter.offer(paths.start);
+        if (observing) {
+            observer.frontier(perimeter.size());
         }
+        while (!perimeter.isEmpty()) {
+            int from = reorder ? perimeter.removeLargeLabelLast(distTo) : perimeter.remove();
+            // A path through at least as many edges as there are vertices must repeat a vertex.
+            if (hops[from] >= n) {
+                return true;
+            }
+            if (observing) {
+                observer.settled(graph.vertex(from));
+            }
+            graph.forEachNeighborId(from, relax);
+        }
+        return false;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if a negative cycle is reachable from the start.
+     */
     @Override
     public List<V> solution(V goal) {
+        if (negativeCycle) {
+            throw new IllegalStateException("Negative cycle reachable from the start");
+        }
+        if (indexed != null) {
+            return indexed.solution(goal);
+        }
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
         while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+            curr = edgeTo.get(curr);
             path.add(curr);
         }
         Collections.reverse(path);
@@ -113,4 +285,127 @@ public class SPFASolver<V> implements ShortestPathSolver<V> {
             return queue.size();
         }
     }
+
+    /**
+     * Optimized array deque of vertex ids in an {@link IndexedGraph}. Like {@link OptimizedArrayQueueSet}, ignores
+     * offers of ids already in the deque, so a ring buffer with one slot per vertex never overflows. Membership is kept
+     * in a bitset, so the deque uses a little over 4 bytes per vertex.
+     */
+    private static class IdDequeSet {
+        /**
+         * Ring buffer of ids, starting at {@code head}.
+         */
+        private final int[] deque;
+        /**
+         * Bit {@code id % 64} of word {@code id / 64} is set if the id is in this deque.
+         */
+        private final long[] contains;
+        private int head;
+        private int size;
+        /**
+         * Sum of the distances to the ids in this deque if they were added by
+         * {@link #offerSmallLabelFirst(int, double, double[])}.
+         */
+        private double sum;
+
+        /**
+         * Constructs an empty deque for ids between 0 (inclusive) and the given capacity (exclusive).
+         *
+         * @param capacity the number of possible ids.
+         */
+        IdDequeSet(int capacity) {
+            deque = new int[capacity];
+            contains = new long[(capacity + 63) >>> 6];
+        }
+
+        /**
+         * Returns true if the id is in this deque.
+         *
+         * @param id the id to check.
+         * @return true if the id is in this deque.
+         */
+        boolean contains(int id) {
+            return (contains[id >>> 6] & (1L << id)) != 0;
+        }
+
+        /**
+         * Adds the id to the back of this deque unless it is already in this deque.
+         *
+         * @param id the id to add.
+         */
+        void offer(int id) {
+            if (contains(id)) {
+                return;
+            }
+            int tail = head + size;
+            deque[tail < deque.length ? tail : tail - deque.length] = id;
+            contains[id >>> 6] |= 1L << id;
+            size += 1;
+        }
+
+        /**
+         * Adds the id whose distance just decreased unless it is already in this deque: to the front if its distance
+         * is smaller than the distance to the id at the front (Small Label First), or to the back otherwise.
+         *
+         * @param id      the id to add.
+         * @param oldDist the distance to the id before it decreased.
+         * @param distTo  the distance to each id.
+         */
+        void offerSmallLabelFirst(int id, double oldDist, double[] distTo) {
+            if (contains(id)) {
+                sum += distTo[id] - oldDist;
+                return;
+            }
+            sum += distTo[id];
+            if (size > 0 && distTo[id] < distTo[deque[head]]) {
+                head = head > 0 ? head - 1 : deque.length - 1;
+                deque[head] = id;
+                contains[id >>> 6] |= 1L << id;
+                size += 1;
+            } else {
+                offer(id);
+            }
+        }
+
+        /**
+         * Returns and removes the id at the front of this deque, which must not be empty.
+         *
+         * @return the id at the front of this deque.
+         */
+        int remove() {
+            int id = deque[head];
+            head = head + 1 < deque.length ? head + 1 : 0;
+            size -= 1;
+            contains[id >>> 6] &= ~(1L << id);
+            return id;
+        }
+
+        /**
+         * Moves ids from the front to the back of this deque while the distance to the id at the front is larger than
+         * the average (Large Label Last), then returns and removes the id at the front. This deque must not be empty
+         * and its ids must all have been added by {@link #offerSmallLabelFirst(int, double, double[])}.
+         *
+         * @param distTo the distance to each id.
+         * @return the id at the front of this deque after moving ids with large distances to the back.
+         */
+        int removeLargeLabelLast(double[] distTo) {
+            // Rotating at most once around the deque guards against rounding error in the sum.
+            for (int i = 1; i < size && distTo[deque[head]] * size > sum; i += 1) {
+                int tail = head + size;
+                deque[tail < deque.length ? tail : tail - deque.length] = deque[head];
+                head = head + 1 < deque.length ? head + 1 : 0;
+            }
+            int id = remove();
+            sum = size > 0 ? sum - distTo[id] : 0;
+            return id;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package graphs.shortestpaths;
+
+/**
+ * Observer of the work done by a shortest paths search, for comparing solvers and heuristics on the same graph. Every
+ * method does nothing by default, and solvers constructed without a listener use {@link #none()}, whose calls the
+ * compiler inlines away.
+ *
+ * @param <V> the type of vertices.
+ * @see SearchStats
+ * @see ShortestPathSolver.InstrumentedConstructor
+ */
+public interface SearchListener<V> {
+    /**
+     * The listener that does nothing, returned by {@link #none()}.
+     */
+    SearchListener<Object> NONE = new SearchListener<>() {
+    };
+
+    /**
+     * Called when the search settles (removes from its perimeter, or otherwise finishes scanning) a vertex.
+     *
+     * @param vertex the settled vertex.
+     */
+    default void settled(V vertex) {
+    }
+
+    /**
+     * Called when the search examines an edge out of a settled vertex.
+     *
+     * @param from   the originating vertex of the examined edge.
+     * @param to     the destination vertex of the examined edge.
+     * @param weight the weight of the examined edge.
+     */
+    default void relaxed(V from, V to, double weight) {
+    }
+
+    /**
+     * Called when the search improves the distance to a vertex, updating its priority in the perimeter if there is one.
+     *
+     * @param vertex   the vertex with the improved distance.
+     * @param priority the new distance, or the new priority for searches that order by something else.
+     */
+    default void updated(V vertex, double priority) {
+    }
+
+    /**
+     * Called after the search adds to its perimeter.
+     *
+     * @param size the number of vertices in the perimeter.
+     */
+    default void frontier(int size) {
+    }
+
+    /**
+     * Returns a listener that does nothing.
+     *
+     * @param <V> the type of vertices.
+     * @return a listener that does nothing.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> SearchListener<V> none() {
+        return (SearchListener<V>) NONE;
+    }
+
+    /**
+     * Returns a listener that calls this listener and then the other listener.
+     *
+     * @param other the other listener.
+     * @return a listener that calls this listener and then the other listener.
+     */
+    default SearchListener<V> andThen(SearchListener<? super V> other) {
+        SearchListener<V> first = this;
+        return new SearchListener<>() {
+            @Override
+            public void settled(V vertex) {
+                first.settled(vertex);
+                other.settled(vertex);
+            }
+
+            @Override
+            public void relaxed(V from, V to, double weight) {
+                first.relaxed(from, to, weight);
+                other.relaxed(from, to, weight);
+            }
+
+            @Override
+            public void updated(V vertex, double priority) {
+                first.updated(vertex, priority);
+                other.updated(vertex, priority);
+            }
+
+            @Override
+            public void frontier(int size) {
+                first.frontier(size);
+                other.frontier(size);
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package graphs.shortestpaths;
+
+/**
+ * {@link SearchListener} that counts the work done by one or more shortest paths searches. Not thread-safe: use one
+ * instance per thread.
+ *
+ * @see SearchListener
+ */
+public class SearchStats implements SearchListener<Object> {
+    private long settles;
+    private long relaxations;
+    private long updates;
+    private int maxFrontier;
+
+    @Override
+    public void settled(Object vertex) {
+        settles += 1;
+    }
+
+    @Override
+    public void relaxed(Object from, Object to, double weight) {
+        relaxations += 1;
+    }
+
+    @Override
+    public void updated(Object vertex, double priority) {
+        updates += 1;
+    }
+
+    @Override
+    public void frontier(int size) {
+        if (size > maxFrontier) {
+            maxFrontier = size;
+        }
+    }
+
+    /**
+     * Returns the number of vertices settled.
+     *
+     * @return the number of vertices settled.
+     */
+    public long settles() {
+        return settles;
+    }
+
+    /**
+     * Returns the number of edges examined.
+     *
+     * @return the number of edges examined.
+     */
+    public long relaxations() {
+        return relaxations;
+    }
+
+    /**
+     * Returns the number of distance or priority updates.
+     *
+     * @return the number of distance or priority updates.
+     */
+    public long updates() {
+        return updates;
+    }
+
+    /**
+     * Returns the largest perimeter size observed.
+     *
+     * @return the largest perimeter size observed.
+     */
+    public int maxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public void reset() {
+        settles = 0;
+        relaxations = 0;
+        updates = 0;
+        maxFrontier = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchStats{" +
+                "settles=" + settles +
+                ", relaxations=" + relaxations +
+                ", updates=" + updates +
+                ", maxFrontier=" + maxFrontier +
+                '}';
+    }
+}
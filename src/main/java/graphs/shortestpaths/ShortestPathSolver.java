@@ -3,12 +3,14 @@ package graphs.shortestpaths;
 import graphs.Graph;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Single-source shortest paths from a start vertex to all reachable vertices.
  *
  * @param <V> the type of vertices.
  * @see Constructor
+ * @see SearchListener
  * @see Graph
  * @see DijkstraSolver
  * @see ToposortDAGSolver
@@ -32,12 +34,73 @@ public interface ShortestPathSolver<V> {
     interface Constructor<V> {
         /**
          * Functional interface for running the constructor. Given an implementation of {@link ShortestPathSolver},
-         * refer to its constructor as (for example) {@code ShortestPathSolver::new}.
+         * refer to its constructor as (for example) {@code ShortestPathSolver::new}. Implementations may stop
+         * searching once the shortest paths to all the targets are known, so {@link #solution(Object)} is only
+         * defined for the targets.
+         *
+         * @param graph   the input graph.
+         * @param start   the start vertex.
+         * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+         * @return an instance of {@link ShortestPathSolver}.
+         */
+        ShortestPathSolver<V> run(Graph<V> graph, V start, Set<V> targets);
+
+        /**
+         * Runs the constructor to find shortest paths to all reachable vertices.
+         *
+         * @param graph the input graph.
+         * @param start the start vertex.
+         * @return an instance of {@link ShortestPathSolver}.
+         */
+        default ShortestPathSolver<V> run(Graph<V> graph, V start) {
+            return run(graph, start, Set.of());
+        }
+
+        /**
+         * Runs the constructor to find the shortest path to the goal, possibly stopping as soon as it is known.
          *
          * @param graph the input graph.
          * @param start the start vertex.
+         * @param goal  the goal vertex.
          * @return an instance of {@link ShortestPathSolver}.
          */
-        ShortestPathSolver<V> run(Graph<V> graph, V start);
+        default ShortestPathSolver<V> run(Graph<V> graph, V start, V goal) {
+            return run(graph, start, Set.of(goal));
+        }
+    }
+
+    /**
+     * Constructor for {@link ShortestPathSolver} that reports its work to a {@link SearchListener}.
+     *
+     * @param <V> the type of vertices.
+     * @see SearchListener
+     */
+    @FunctionalInterface
+    interface InstrumentedConstructor<V> {
+        /**
+         * Functional interface for running the constructor. Given an implementation of {@link ShortestPathSolver},
+         * refer to its constructor as (for example) {@code ShortestPathSolver::new}.
+         *
+         * @param graph    the input graph.
+         * @param start    the start vertex.
+         * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+         * @param listener the listener to report the work of the search to.
+         * @return an instance of {@link ShortestPathSolver}.
+         */
+        ShortestPathSolver<V> run(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener);
+    }
+
+    /**
+     * Returns a {@link Constructor} that runs the given constructor with the given listener, for code such as seam
+     * finders that only accept a plain {@link Constructor}.
+     *
+     * @param constructor the constructor that accepts a listener.
+     * @param listener    the listener to report the work of every search to.
+     * @param <V>         the type of vertices.
+     * @return a {@link Constructor} that runs the given constructor with the given listener.
+     */
+    static <V> Constructor<V> instrumented(InstrumentedConstructor<V> constructor,
+                                           SearchListener<? super V> listener) {
+        return (graph, start, targets) -> constructor.run(graph, start, targets, listener);
     }
 }
@@ -1,22 +1,28 @@
 package graphs.shortestpaths;
 
-import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 
-import java.lang.reflect.Array;
 import java.util.*;
 
 /**
  * Topological sorting implementation of the {@link ShortestPathSolver} interface for <b>directed acyclic graphs</b>.
+ * Vertices are settled in topological order by Kahn's algorithm, so the search runs in linear time with constant stack
+ * depth. Edges into the start are ignored, so the start is settled exactly once even if it is on a cycle, and any
+ * other vertex on or after a cycle is never settled.
  *
  * @param <V> the type of vertices.
  * @see ShortestPathSolver
  */
 public class ToposortDAGSolver<V> implements ShortestPathSolver<V> {
-    private final Map<V, Edge<V>> edgeTo;
+    private final Map<V, V> edgeTo;
     private final Map<V, Double> distTo;
+    /**
+     * Search state in primitive arrays replacing {@link #edgeTo} and {@link #distTo} if the graph is an
+     * {@link IndexedGraph}, or null otherwise.
+     */
+    private final IndexedPaths<V> indexed;
 
-    private int counter;
     /**
      * Constructs a new instance by executing the toposort-DAG-shortest-paths algorithm on the graph from the start.
      *
@@ -24,68 +30,246 @@ public class ToposortDAGSolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public ToposortDAGSolver(Graph<V> graph, V start) {
+        this(graph, start, Set.of(), SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing the toposort-DAG-shortest-paths algorithm on the graph from the start
+     * until every target is settled. This solver stops relaxing edges as soon as every target is reached in topological
+     * order.
+     *
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     */
+    public ToposortDAGSolver(Graph<V> graph, V start, Set<V> targets) {
+        this(graph, start, targets, SearchListener.none());
+    }
+
+    /**
+     * Constructs a new instance by executing the toposort-DAG-shortest-paths algorithm on the graph from the start
+     * until every target is settled, reporting the work of the search to the listener.
+     *
+     * @param graph    the input graph.
+     * @param start    the start vertex.
+     * @param targets  the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param listener the listener to report the work of the search to.
+     */
+    public ToposortDAGSolver(Graph<V> graph, V start, Set<V> targets, SearchListener<? super V> listener) {
+        RouteSearchEvent event = new RouteSearchEvent();
+        SearchListener<? super V> observer = event.listen(listener);
+        if (graph instanceof IndexedGraph<V> g) {
+            edgeTo = null;
+            distTo = null;
+            indexed = new IndexedPaths<>(g, start, targets);
+            search(indexed, observer);
+            event.finish(this, event.isEnabled() ? indexed.reached() : 0, 0);
+            return;
+        }
         edgeTo = new HashMap<>();
         distTo = new HashMap<>();
+        indexed = null;
+        Set<V> remaining = new HashSet<>(targets);
 
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
 
-        Set<V> visited = new HashSet<V>();
-        List<V> result = new ArrayList<V>();
-
-        dfsPostOrder(graph, start, visited, result);
-
-        Collections.reverse(result);
+        // Count the edges into each vertex reachable from the start with a breadth-first search. The start is queued
+        // up front, so edges into it are not counted.
+        Map<V, Integer> inDegree = new HashMap<>();
+        Queue<V> queue = new ArrayDeque<>();
+        inDegree.put(start, 0);
+        queue.add(start);
+        Graph.EdgeConsumer<V> count = (from, to, weight) -> {
+            if (Objects.equals(to, start)) {
+                return;
+            }
+            if (inDegree.merge(to, 1, Integer::sum) == 1) {
+                queue.add(to);
+            }
+        };
+        while (!queue.isEmpty()) {
+            graph.forEachNeighbor(queue.remove(), count);
+        }
 
-        //relax edges
-        for (V node : result) {
-            for (Edge<V> edge : graph.neighbors(node)) {
-                //System.out.println("DistTo: " + distTo.get(edge.to) + " ||||| Node: " + distTo.get(node) + " ||||| From: " + distTo.get(edge.from) + " ||||| Weight: " + edge.weight);
-                double oldDist = distTo.getOrDefault(edge.to, Double.POSITIVE_INFINITY);
-                double newDist = distTo.get(node) + edge.weight;
-                if (newDist < oldDist) {
-                    edgeTo.put(edge.to, edge);
-                    distTo.put(edge.to, newDist);
-                }
+        // Kahn's algorithm: a vertex joins the queue once every edge into it has been relaxed, so vertices leave the
+        // queue in topological order.
+        queue.add(start);
+        Graph.EdgeConsumer<V> relax = (from, to, weight) -> {
+            if (Objects.equals(to, start)) {
+                return;
             }
+            observer.relaxed(from, to, weight);
+            double oldDist = distTo.getOrDefault(to, Double.POSITIVE_INFINITY);
+            double newDist = distTo.get(from) + weight;
+            if (newDist < oldDist) {
+                edgeTo.put(to, from);
+                distTo.put(to, newDist);
+                observer.updated(to, newDist);
+            }
+            if (inDegree.merge(to, -1, Integer::sum) == 0) {
+                queue.add(to);
+            }
+        };
+        while (!queue.isEmpty()) {
+            V node = queue.remove();
+            observer.settled(node);
+            if (remaining.remove(node) && remaining.isEmpty()) {
+                break; // Every target is reached in topological order, so its shortest path is final.
+            }
+            graph.forEachNeighbor(node, relax);
         }
+        event.finish(this, distTo.size(), 0);
     }
 
     /**
-     * Recursively adds nodes from the graph to the result in DFS postorder from the start vertex.
+     * Runs the toposort-DAG-shortest-paths algorithm with the search state in primitive arrays.
      *
-     * @param graph   the input graph.
-     * @param start   the start vertex.
-     * @param visited the set of visited vertices.
-     * @param result  the destination for adding nodes.
+     * @param paths    the search state, with only the start reached.
+     * @param observer the listener to report the work of the search to.
      */
-    // Proud of adapting code from Djikstra solver to complete this section
-    private void dfsPostOrder(Graph<V> graph, V start, Set<V> visited, List<V> result) {
-        visited.add(start);
-
-        for (Edge<V> edge : graph.neighbors(start)) {
-            edgeTo.put(edge.to, edge);
-            distTo.put(edge.to, edge.weight + distTo.get(edge.from));
-
-            if (!visited.contains(edge.to)) {
-                counter += 1;
-                dfsPostOrder(graph, edge.to, visited, result);
+    private static <V> void search(IndexedPaths<V> paths, SearchListener<? super V> observer) {
+        IndexedGraph<V> graph = paths.graph;
+        int[] edgeTo = paths.edgeTo;
+        double[] distTo = paths.distTo;
+        // Only look up vertices by id for the listener if something is listening.
+        boolean observing = observer != SearchListener.NONE;
+        if (paths.start < 0) {
+            return;
+        }
+        TopologicalQueue queue = new TopologicalQueue(graph, paths.start);
+        IndexedGraph.IdEdgeConsumer relax = (from, to, weight) -> {
+            if (to == paths.start) {
+                return;
+            }
+            if (observing) {
+                observer.relaxed(graph.vertex(from), graph.vertex(to), weight);
+            }
+            double newDist = distTo[from] + weight;
+            if (newDist < distTo[to]) {
+                edgeTo[to] = from;
+                distTo[to] = newDist;
+                if (observing) {
+                    observer.updated(graph.vertex(to), newDist);
+                }
+            }
+            queue.release(to);
+        };
+        while (!queue.isEmpty()) {
+            int node = queue.remove();
+            if (observing) {
+                observer.settled(graph.vertex(node));
+            }
+            if (paths.settle(node)) {
+                break; // Every target is reached in topological order, so its shortest path is final.
             }
+            graph.forEachNeighborId(node, relax);
         }
-        result.add(start);
     }
 
-
     @Override
     public List<V> solution(V goal) {
+        if (indexed != null) {
+            return indexed.solution(goal);
+        }
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
         while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+            curr = edgeTo.get(curr);
             path.add(curr);
         }
         Collections.reverse(path);
         return path;
     }
+
+    /**
+     * Queue of the vertex ids reachable from a start vertex in an {@link IndexedGraph} that releases each id once every
+     * edge into it has been relaxed, so that ids are removed in topological order (Kahn's algorithm). Uses constant
+     * stack depth, unlike a recursive depth-first search. The start is added up front, so edges into it are not
+     * counted and must not be released.
+     */
+    private static class TopologicalQueue implements IndexedGraph.IdEdgeConsumer {
+        /**
+         * Number of edges into each reachable id that have not yet been relaxed, or -1 for unreachable ids.
+         */
+        private final int[] inDegree;
+        /**
+         * Ids in the order they were added, followed by unused slots. Each reachable id is added exactly once.
+         */
+        private final int[] order;
+        private final int start;
+        private int head;
+        private int tail;
+
+        /**
+         * Constructs a queue containing only the start, counting the edges into each id reachable from the start.
+         *
+         * @param graph the input graph.
+         * @param start the id of the start vertex.
+         */
+        TopologicalQueue(IndexedGraph<?> graph, int start) {
+            inDegree = new int[graph.vertexCount()];
+            order = new int[graph.vertexCount()];
+            this.start = start;
+            Arrays.fill(inDegree, -1);
+            // Breadth-first search over the reachable ids, temporarily using the order as the search queue.
+            inDegree[start] = 0;
+            order[tail] = start;
+            tail += 1;
+            while (head < tail) {
+                graph.forEachNeighborId(order[head], this);
+                head += 1;
+            }
+            head = 0;
+            tail = 1;
+        }
+
+        @Override
+        public void accept(int from, int to, double weight) {
+            if (to == start) {
+                return;
+            }
+            if (inDegree[to] < 0) {
+                inDegree[to] = 1;
+                order[tail] = to;
+                tail += 1;
+            } else {
+                inDegree[to] += 1;
+            }
+        }
+
+        /**
+         * Records that an edge into the given id has been relaxed, adding the id once every edge into it is relaxed.
+         *
+         * @param id the destination id of the relaxed edge.
+         */
+        void release(int id) {
+            inDegree[id] -= 1;
+            if (inDegree[id] == 0) {
+                order[tail] = id;
+                tail += 1;
+            }
+        }
+
+        /**
+         * Returns true if there are no ids ready to be removed.
+         *
+         * @return true if there are no ids ready to be removed.
+         */
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        /**
+         * Removes and returns the next id in topological order.
+         *
+         * @return the next id in topological order.
+         */
+        int remove() {
+            int id = order[head];
+            head += 1;
+            return id;
+        }
+    }
 }
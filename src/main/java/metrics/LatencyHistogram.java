@@ -0,0 +1,169 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with log-linear buckets in the style of HdrHistogram. Each power of
+ * two is divided into {@value #SUB_BUCKETS} equal buckets, so every recorded value is reported within about 6% of its
+ * true value across the whole range of non-negative longs. Recording is a handful of atomic increments with no
+ * allocation, and percentiles are only computed when read.
+ *
+ * @see MetricsRegistry
+ */
+public class LatencyHistogram {
+    /**
+     * Number of bits of precision kept for each recorded value.
+     */
+    private static final int PRECISION_BITS = 5;
+    /**
+     * Number of buckets dividing each power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << (PRECISION_BITS - 1);
+    /**
+     * Total number of buckets covering every non-negative long.
+     */
+    private static final int NUM_BUCKETS = index(Long.MAX_VALUE) + 1;
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(NUM_BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records the given latency. Negative latencies are recorded as zero.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        // Read before writing so that the common case of a smaller value does not contend.
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Records the time elapsed since the given start time from {@link System#nanoTime()}.
+     *
+     * @param start the start time in nanoseconds.
+     */
+    public void recordSince(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded latencies in nanoseconds.
+     *
+     * @return the sum of all recorded latencies in nanoseconds.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest recorded latency in nanoseconds, or 0 if none have been recorded.
+     *
+     * @return the largest recorded latency in nanoseconds.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound on the latency at the given quantile, or 0 if none have been recorded. The result is the
+     * largest value in the bucket containing the quantile, capped at the largest recorded latency.
+     *
+     * @param quantile the quantile between 0 and 1.
+     * @return an upper bound on the latency at the given quantile in nanoseconds.
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1.
+     */
+    public long quantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        // Snapshot the buckets, since recording may continue concurrently.
+        long[] snapshot = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i += 1) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i += 1) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Clears all recorded latencies. Latencies recorded concurrently may be partially cleared.
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i += 1) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Returns the index of the bucket containing the given non-negative value.
+     */
+    static int index(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - PRECISION_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value in the bucket with the given index.
+     */
+    static long highestEquivalent(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + count() +
+                ", p50=" + quantile(0.5) +
+                ", p99=" + quantile(0.99) +
+                ", max=" + max() +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named {@link LatencyHistogram}s and counters written in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">Prometheus text format</a>. Histograms are
+ * written as summaries of latency in seconds labeled by stage, and counters are read from their suppliers only when
+ * written, so existing statistics such as cache hit counts can be exported without extra bookkeeping.
+ *
+ * @see LatencyHistogram
+ */
+public class MetricsRegistry {
+    /**
+     * Quantiles written for each histogram.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    /**
+     * Prefix for the names of all written metrics.
+     */
+    private final String namespace;
+    private final Map<String, LatencyHistogram> histograms;
+    private final Map<String, LongSupplier> counters;
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param namespace the prefix for the names of all written metrics.
+     */
+    public MetricsRegistry(String namespace) {
+        this.namespace = namespace;
+        // Sorted maps keep the written metrics in a stable order between scrapes.
+        histograms = new ConcurrentSkipListMap<>();
+        counters = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Returns the histogram for the given stage, creating it if it does not exist.
+     *
+     * @param stage the name of the stage.
+     * @return the histogram for the given stage.
+     */
+    public LatencyHistogram histogram(String stage) {
+        return histograms.computeIfAbsent(stage, ignored -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers an existing histogram for the given stage, replacing any histogram already registered for it.
+     *
+     * @param stage     the name of the stage.
+     * @param histogram the histogram for the stage.
+     */
+    public void register(String stage, LatencyHistogram histogram) {
+        histograms.put(stage, histogram);
+    }
+
+    /**
+     * Registers a counter whose current value is read from the given supplier whenever metrics are written.
+     *
+     * @param name  the name of the counter, without the namespace or "_total" suffix.
+     * @param value the supplier of the current value of the counter.
+     */
+    public void register(String name, LongSupplier value) {
+        counters.put(name, value);
+    }
+
+    /**
+     * Returns all metrics in the Prometheus text format.
+     *
+     * @return all metrics in the Prometheus text format.
+     */
+    public String scrape() {
+        StringBuilder result = new StringBuilder();
+        if (!histograms.isEmpty()) {
+            String name = namespace + "_latency_seconds";
+            result.append("# TYPE ").append(name).append(" summary\n");
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                String stage = entry.getKey();
+                LatencyHistogram histogram = entry.getValue();
+                for (double quantile : QUANTILES) {
+                    result.append(name).append("{stage=\"").append(stage)
+                            .append("\",quantile=\"").append(quantile).append("\"} ")
+                            .append(seconds(histogram.quantile(quantile))).append('\n');
+                }
+                result.append(name).append("_sum{stage=\"").append(stage).append("\"} ")
+                        .append(seconds(histogram.sum())).append('\n');
+                result.append(name).append("_count{stage=\"").append(stage).append("\"} ")
+                        .append(histogram.count()).append('\n');
+            }
+            String max = namespace + "_latency_max_seconds";
+            result.append("# TYPE ").append(max).append(" gauge\n");
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                result.append(max).append("{stage=\"").append(entry.getKey()).append("\"} ")
+                        .append(seconds(entry.getValue().max())).append('\n');
+            }
+        }
+        for (Map.Entry<String, LongSupplier> entry : counters.entrySet()) {
+            String name = namespace + "_" + entry.getKey() + "_total";
+            result.append("# TYPE ").append(name).append(" counter\n");
+            result.append(name).append(' ').append(entry.getValue().getAsLong()).append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the given duration in nanoseconds formatted in seconds.
+     */
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsRegistry{" +
+                "namespace='" + namespace + '\'' +
+                ", histograms=" + histograms.keySet() +
+                ", counters=" + counters.keySet() +
+                '}';
+    }
+}
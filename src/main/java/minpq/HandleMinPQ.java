@@ -0,0 +1,59 @@
+package minpq;
+
+/**
+ * {@link MinPQ} that returns a handle for each added element, so that its priority value can later be decreased
+ * through the handle without looking up the element. Shortest paths solvers can keep the handle of each vertex in
+ * their search state and decrease its distance without hashing.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ * @see PairingHeapMinPQ
+ */
+public interface HandleMinPQ<E> extends MinPQ<E> {
+
+    /**
+     * Adds an element with the given priority value, returning the handle for decreasing its priority value.
+     *
+     * @param element  the element to add.
+     * @param priority the priority value for the element.
+     * @return the handle for the element in this priority queue.
+     * @throws IllegalArgumentException if element is null or already present.
+     */
+    Handle<E> insert(E element, double priority);
+
+    @Override
+    default void add(E element, double priority) {
+        insert(element, priority);
+    }
+
+    /**
+     * Decreases the priority value of the element with the given handle.
+     *
+     * @param handle   the handle returned when the element was added.
+     * @param priority the new priority value, which must be no greater than the current priority value.
+     * @throws IllegalArgumentException if the handle is not for an element in this priority queue, or if the priority
+     *                                  value is greater than the current priority value.
+     */
+    void decreaseKey(Handle<E> handle, double priority);
+
+    /**
+     * Handle for an element in a {@link HandleMinPQ}.
+     *
+     * @param <E> the type of the element.
+     */
+    interface Handle<E> {
+        /**
+         * Returns the element of this handle.
+         *
+         * @return the element of this handle.
+         */
+        E element();
+
+        /**
+         * Returns the current priority value of the element of this handle.
+         *
+         * @return the current priority value of the element of this handle.
+         */
+        double priority();
+    }
+}
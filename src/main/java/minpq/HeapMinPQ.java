@@ -26,8 +26,9 @@ public class HeapMinPQ<E> implements MinPQ<E> {
      */
     public HeapMinPQ(Map<E, Double> elementsAndPriorities) {
         pq = new PriorityQueue<>(elementsAndPriorities.size(), Comparator.comparingDouble(PriorityNode::getPriority));
+        // Map keys are unique, so skip the linear-time contains check in add.
         for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
-            add(entry.getKey(), entry.getValue());
+            pq.add(new PriorityNode<>(entry.getKey(), entry.getValue()));
         }
     }
 
@@ -0,0 +1,172 @@
+package minpq;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed binary heap implementation of the {@link IntMinPQ} interface. Unlike the {@link MinPQ} implementations,
+ * elements and priorities are stored in primitive arrays, so no operation allocates and the position of an element in
+ * the heap is found without hashing. Intended for shortest paths solvers on graphs with dense integer vertex ids.
+ *
+ * @see IntMinPQ
+ */
+public class IndexMinPQ implements IntMinPQ {
+    /**
+     * Elements in heap order: the children of the element at position i are at positions 2i + 1 and 2i + 2.
+     */
+    private final int[] heap;
+    /**
+     * Position of each element in the {@code heap}, or -1 if the element is not in this priority queue.
+     */
+    private final int[] positions;
+    /**
+     * Priority value of each element in this priority queue.
+     */
+    private final double[] priorities;
+    private int size;
+
+    /**
+     * Constructs an empty instance for elements between 0 (inclusive) and the given capacity (exclusive).
+     *
+     * @param capacity the number of possible elements.
+     */
+    public IndexMinPQ(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    @Override
+    public void add(int element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        heap[size] = element;
+        positions[element] = size;
+        priorities[element] = priority;
+        size += 1;
+        swim(size - 1);
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return positions[element] >= 0;
+    }
+
+    @Override
+    public double getPriority(int element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return priorities[element];
+    }
+
+    @Override
+    public int peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return heap[0];
+    }
+
+    @Override
+    public int removeMin() {
+        int min = peekMin();
+        size -= 1;
+        swap(0, size);
+        positions[min] = -1;
+        sink(0);
+        return min;
+    }
+
+    @Override
+    public void changePriority(int element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        double old = priorities[element];
+        priorities[element] = priority;
+        if (priority < old) {
+            swim(positions[element]);
+        } else {
+            sink(positions[element]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every element from this priority queue in time proportional to its size rather than its capacity, so
+     * that one instance can be reused for many small searches.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i += 1) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the number of possible elements.
+     *
+     * @return the number of possible elements.
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Moves the element at the given heap position up until its parent has a smaller or equal priority value.
+     */
+    private void swim(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[heap[parent]] <= priorities[heap[i]]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Moves the element at the given heap position down until its children have greater or equal priority values.
+     */
+    private void sink(int i) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child += 1;
+            }
+            if (priorities[heap[i]] <= priorities[heap[child]]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Swaps the elements at the given heap positions.
+     */
+    private void swap(int i, int j) {
+        int a = heap[i];
+        int b = heap[j];
+        heap[i] = b;
+        heap[j] = a;
+        positions[b] = i;
+        positions[a] = j;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexMinPQ{" +
+                "size=" + size +
+                ", capacity=" + heap.length +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package minpq;
+
+/**
+ * Priority queue of {@code int} elements between 0 (inclusive) and a fixed capacity (exclusive) with {@code double}
+ * priority values. Like {@link MinPQ}, but with primitive elements so that shortest paths solvers on graphs with dense
+ * integer vertex ids can keep their perimeter without boxing or hashing.
+ *
+ * @see IndexMinPQ
+ * @see RadixMinPQ
+ * @see MinPQ
+ */
+public interface IntMinPQ {
+
+    /**
+     * Adds an element with the given priority value.
+     *
+     * @param element  the element to add.
+     * @param priority the priority value for the element.
+     * @throws IllegalArgumentException  if the element is already present.
+     * @throws IndexOutOfBoundsException if the element is not between 0 and the capacity.
+     */
+    void add(int element, double priority);
+
+    /**
+     * Adds an element with the given priority value if it is not already present. Otherwise, updates the priority value
+     * of the existing element.
+     *
+     * @param element  the element to add or update.
+     * @param priority the priority value for the element.
+     */
+    default void addOrChangePriority(int element, double priority) {
+        if (contains(element)) {
+            changePriority(element, priority);
+        } else {
+            add(element, priority);
+        }
+    }
+
+    /**
+     * Returns true if the given element is in this priority queue.
+     *
+     * @param element the element to check.
+     * @return true if the given element is in this priority queue.
+     */
+    boolean contains(int element);
+
+    /**
+     * Returns the priority value of the given element.
+     *
+     * @param element the element whose priority value is to be returned.
+     * @return the priority value of the element.
+     * @throws java.util.NoSuchElementException if the element is not present.
+     */
+    double getPriority(int element);
+
+    /**
+     * Returns the element with the minimum priority value.
+     *
+     * @return the element with the minimum priority value.
+     * @throws java.util.NoSuchElementException if this priority queue is empty.
+     */
+    int peekMin();
+
+    /**
+     * Returns and removes the element with the minimum priority value.
+     *
+     * @return the element with the minimum priority value.
+     * @throws java.util.NoSuchElementException if this priority queue is empty.
+     */
+    int removeMin();
+
+    /**
+     * Updates the given element's associated priority value.
+     *
+     * @param element  the element whose associated priority value should be modified.
+     * @param priority the updated priority value.
+     * @throws java.util.NoSuchElementException if the element is not present.
+     */
+    void changePriority(int element, double priority);
+
+    /**
+     * Returns the number of elements in this priority queue.
+     *
+     * @return the number of elements in this priority queue.
+     */
+    int size();
+
+    /**
+     * Returns true if this priority queue contains no elements.
+     *
+     * @return true if this priority queue contains no elements.
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
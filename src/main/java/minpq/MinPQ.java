@@ -2,6 +2,7 @@ package minpq;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Priority queue where objects have <b>extrinsic priority</b>. Whereas {@link java.util.PriorityQueue} relies on
@@ -112,4 +113,72 @@ public interface MinPQ<E> {
     default boolean isEmpty() {
         return size() == 0;
     }
+
+    /**
+     * Returns up to the given number of lowest-priority elements in order of priority value, like
+     * {@link #removeMin(int)} on a priority queue of all the given elements, without building that priority queue.
+     * Keeps the lowest-priority elements seen so far in a max-heap of at most {@code k} elements, so this takes
+     * O(n log k) time for n elements.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     * @param k                     the desired number of lowest-priority elements.
+     * @param <E>                   the type of elements.
+     * @return a list containing up to the given number of lowest-priority elements.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    static <E> List<E> smallestK(Map<E, Double> elementsAndPriorities, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Negative k: " + k);
+        }
+        k = Math.min(k, elementsAndPriorities.size());
+        // Max-heap where the children of index i are at indices 2i + 1 and 2i + 2.
+        List<E> heap = new ArrayList<>(k);
+        double[] priorities = new double[k];
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            double priority = entry.getValue();
+            if (heap.size() < k) {
+                int i = heap.size();
+                heap.add(entry.getKey());
+                while (i > 0 && priorities[(i - 1) / 2] < priority) {
+                    heap.set(i, heap.get((i - 1) / 2));
+                    priorities[i] = priorities[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heap.set(i, entry.getKey());
+                priorities[i] = priority;
+            } else if (k > 0 && priority < priorities[0]) {
+                sinkMax(heap, priorities, k, entry.getKey(), priority);
+            }
+        }
+        // Repeatedly move the maximum to the end of the shrinking heap, leaving the elements in increasing order.
+        for (int size = heap.size() - 1; size > 0; size -= 1) {
+            E max = heap.get(0);
+            double maxPriority = priorities[0];
+            sinkMax(heap, priorities, size, heap.get(size), priorities[size]);
+            heap.set(size, max);
+            priorities[size] = maxPriority;
+        }
+        return heap;
+    }
+
+    /**
+     * Replaces the root of the max-heap of the given size with the given element and moves it down into place.
+     */
+    private static <E> void sinkMax(List<E> heap, double[] priorities, int size, E element, double priority) {
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && priorities[child + 1] > priorities[child]) {
+                child += 1;
+            }
+            if (priority >= priorities[child]) {
+                break;
+            }
+            heap.set(i, heap.get(child));
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        heap.set(i, element);
+        priorities[i] = priority;
+    }
 }
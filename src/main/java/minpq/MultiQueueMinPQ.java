@@ -0,0 +1,333 @@
+package minpq;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, <b>relaxed</b> MultiQueue implementation of the {@link MinPQ} interface for parallel best-first search.
+ * Elements are spread over several internal binary heaps, each guarded by its own lock, so threads rarely contend. Each
+ * heap publishes the priority value of its minimum, which {@link #removeMin()} compares between two randomly chosen
+ * heaps before removing from the better one. If that heap's lock is taken, it picks two other heaps instead of waiting.
+ * <p>
+ * The price of avoiding a global lock is that the order is relaxed, even on a single thread. {@link #removeMin()} and
+ * {@link #peekMin()} return the minimum of the two chosen heaps, not necessarily the minimum of this priority queue.
+ * With {@code k} heaps, the number of elements with smaller priority values than the removed element is {@code O(k)}
+ * in expectation. Every element is removed exactly once, and only an element that is still present is ever returned.
+ * Best-first searches that settle vertices out of order must therefore relax edges again when a settled distance
+ * improves, as label-correcting algorithms do.
+ * <p>
+ * Changing a priority value adds a new entry rather than moving the old one, which becomes stale and is discarded when
+ * it reaches the top of its heap (lazy deletion). The current entry of each element is kept in a
+ * {@link ConcurrentHashMap}, so {@link #contains(Object)}, {@link #getPriority(Object)}, and {@link #size()} never lock.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see MinPQ
+ */
+public class MultiQueueMinPQ<E> implements MinPQ<E> {
+    /**
+     * Default number of heaps per available processor.
+     */
+    private static final int QUEUES_PER_THREAD = 2;
+    /**
+     * Current entry of each element in this priority queue.
+     */
+    private final Map<E, Entry<E>> entries;
+    private final Heap<E>[] heaps;
+
+    /**
+     * Constructs an empty instance with {@value #QUEUES_PER_THREAD} heaps per available processor.
+     */
+    public MultiQueueMinPQ() {
+        this(QUEUES_PER_THREAD * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty instance with the given number of heaps. More heaps mean less contention but a more relaxed
+     * order.
+     *
+     * @param queues the number of heaps, which must be at least 2.
+     * @throws IllegalArgumentException if there are fewer than 2 heaps.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueueMinPQ(int queues) {
+        if (queues < 2) {
+            throw new IllegalArgumentException("Need at least 2 queues: " + queues);
+        }
+        entries = new ConcurrentHashMap<>();
+        heaps = new Heap[queues];
+        for (int i = 0; i < queues; i += 1) {
+            heaps[i] = new Heap<>();
+        }
+    }
+
+    @Override
+    public void add(E element, double priority) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element is null");
+        }
+        Entry<E> entry = new Entry<>(element, priority);
+        if (entries.putIfAbsent(element, entry) != null) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        push(entry);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return entries.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        Entry<E> entry = entries.get(element);
+        if (entry == null) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return entry.priority;
+    }
+
+    /**
+     * {@inheritDoc} The order is relaxed: returns the minimum of two randomly chosen internal heaps, or of any heap
+     * if those are both empty.
+     */
+    @Override
+    public E peekMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Heap<E> heap = choose(random);
+            if (heap == null) {
+                heap = best();
+                if (heap == null) {
+                    throw new NoSuchElementException("PQ is empty");
+                }
+            }
+            heap.lock.lock();
+            try {
+                Entry<E> top = heap.top(entries);
+                if (top != null) {
+                    return top.element;
+                }
+            } finally {
+                heap.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc} The order is relaxed: removes the minimum of two randomly chosen internal heaps, or of any heap if
+     * those are both empty.
+     */
+    @Override
+    public E removeMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Heap<E> heap = choose(random);
+            if (heap == null) {
+                heap = best();
+                if (heap == null) {
+                    throw new NoSuchElementException("PQ is empty");
+                }
+            }
+            if (!heap.lock.tryLock()) {
+                continue;
+            }
+            try {
+                Entry<E> top;
+                while ((top = heap.top(entries)) != null) {
+                    heap.pop();
+                    // Another thread may have changed the element since it was checked, so claim it atomically.
+                    if (entries.remove(top.element, top)) {
+                        return top.element;
+                    }
+                }
+            } finally {
+                heap.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void changePriority(E element, double priority) {
+        Entry<E> entry = new Entry<>(element, priority);
+        while (true) {
+            Entry<E> old = entries.get(element);
+            if (old == null) {
+                throw new NoSuchElementException("PQ does not contain " + element);
+            }
+            if (entries.replace(element, old, entry)) {
+                push(entry);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Adds the entry to a randomly chosen heap whose lock is free.
+     */
+    private void push(Entry<E> entry) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Heap<E> heap = heaps[random.nextInt(heaps.length)];
+            if (heap.lock.tryLock()) {
+                try {
+                    heap.push(entry);
+                    return;
+                } finally {
+                    heap.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the heap with the smaller published minimum of two randomly chosen heaps, or null if both are empty.
+     */
+    private Heap<E> choose(ThreadLocalRandom random) {
+        return better(heaps[random.nextInt(heaps.length)], heaps[random.nextInt(heaps.length)]);
+    }
+
+    /**
+     * Returns the heap with the smallest published minimum, or null if this priority queue is empty.
+     */
+    private Heap<E> best() {
+        while (!entries.isEmpty()) {
+            Heap<E> best = null;
+            for (Heap<E> heap : heaps) {
+                best = better(best, heap);
+            }
+            if (best != null) {
+                return best;
+            }
+            // An element is present but its entry is still being pushed by another thread.
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the non-empty heap with the smaller published minimum, or null if neither heap has entries.
+     *
+     * @param a a heap, or null.
+     * @param b a heap.
+     */
+    private static <E> Heap<E> better(Heap<E> a, Heap<E> b) {
+        if (a == null || a.size == 0) {
+            return b.size == 0 ? null : b;
+        }
+        return b.size > 0 && b.min < a.min ? b : a;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiQueueMinPQ{" +
+                "size=" + size() +
+                ", queues=" + heaps.length +
+                '}';
+    }
+
+    /**
+     * Element and one of its priority values, which is stale once the element has been changed or removed.
+     *
+     * @param <E> the type of the element.
+     */
+    private static class Entry<E> {
+        private final E element;
+        private final double priority;
+
+        Entry(E element, double priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Binary heap of entries guarded by a lock, which publishes the priority value of its top entry.
+     *
+     * @param <E> the type of elements.
+     */
+    private static class Heap<E> {
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * Entries in heap order: the children of the entry at position i are at positions 2i + 1 and 2i + 2.
+         */
+        private Entry<E>[] entries;
+        /**
+         * Number of entries, current or stale. Read without the lock to choose a heap.
+         */
+        private volatile int size;
+        /**
+         * Priority value of the top entry, which may be stale, if this heap is not empty. Read without the lock to
+         * choose a heap.
+         */
+        private volatile double min;
+
+        @SuppressWarnings("unchecked")
+        Heap() {
+            entries = new Entry[8];
+        }
+
+        /**
+         * Returns the top entry after discarding stale entries from the top, or null if there are none.
+         *
+         * @param current the current entry of each element.
+         */
+        Entry<E> top(Map<E, Entry<E>> current) {
+            while (size > 0 && current.get(entries[0].element) != entries[0]) {
+                pop();
+            }
+            return size > 0 ? entries[0] : null;
+        }
+
+        /**
+         * Adds the entry to this heap.
+         */
+        void push(Entry<E> entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            int i = size;
+            while (i > 0 && entries[(i - 1) / 2].priority > entry.priority) {
+                entries[i] = entries[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            entries[i] = entry;
+            min = entries[0].priority;
+            size += 1;
+        }
+
+        /**
+         * Removes the top entry from this heap, which must not be empty.
+         */
+        void pop() {
+            int n = size - 1;
+            Entry<E> last = entries[n];
+            entries[n] = null;
+            int i = 0;
+            while (2 * i + 1 < n) {
+                int child = 2 * i + 1;
+                if (child + 1 < n && entries[child + 1].priority < entries[child].priority) {
+                    child += 1;
+                }
+                if (last.priority <= entries[child].priority) {
+                    break;
+                }
+                entries[i] = entries[child];
+                i = child;
+            }
+            if (n > 0) {
+                entries[i] = last;
+                min = entries[0].priority;
+            }
+            size = n;
+        }
+    }
+}
@@ -3,14 +3,18 @@ package minpq;
 import java.util.*;
 
 /**
- * Optimized binary heap implementation of the {@link MinPQ} interface.
+ * Optimized binary heap implementation of the {@link MinPQ} interface. Each element's index in the heap is kept in a
+ * {@link HashMap}, so {@link #contains(Object)}, {@link #getPriority(Object)}, and {@link #changePriority(Object, double)}
+ * don't need to search the heap. Constructing an instance from a {@link Map} heapifies bottom-up (Floyd's algorithm)
+ * in linear time rather than adding each element.
  *
  * @param <E> the type of elements in this priority queue.
  * @see MinPQ
  */
 public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
     /**
-     * {@link List} of {@link PriorityNode} objects representing the heap of element-priority pairs.
+     * {@link List} of {@link PriorityNode} objects representing the heap of element-priority pairs. The children of the
+     * node at index i are at indices 2i + 1 and 2i + 2.
      */
     private final List<PriorityNode<E>> elements;
     /**
@@ -24,7 +28,6 @@ public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
     public OptimizedHeapMinPQ() {
         elements = new ArrayList<>();
         elementsToIndex = new HashMap<>();
-        elements.add(null);
     }
 
     /**
@@ -35,73 +38,40 @@ public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
     public OptimizedHeapMinPQ(Map<E, Double> elementsAndPriorities) {
         elements = new ArrayList<>(elementsAndPriorities.size());
         elementsToIndex = new HashMap<>(elementsAndPriorities.size());
-        for (E key : elementsAndPriorities.keySet()){
-            add(key, elementsAndPriorities.get(key)); //maps can't have dupe keys, so can send info straight to add()
+        // Map keys are unique, so every element can go straight into the list before restoring the heap order.
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            elements.add(new PriorityNode<>(entry.getKey(), entry.getValue()));
+        }
+        // Sinking each parent from the last one up takes linear time since most nodes are near the bottom.
+        for (int i = elements.size() / 2 - 1; i >= 0; i -= 1) {
+            sink(i);
+        }
+        for (int i = 0; i < elements.size(); i += 1) {
+            elementsToIndex.put(elements.get(i).getElement(), i);
         }
-
-//        System.out.println(isMinHeap());
-//        System.out.println(elements.toString());
-//        System.out.println(elementsToIndex.toString());
     }
 
     @Override
-    // Interesting Bug: arraylist starting with null at index 0 always
     public void add(E element, double priority) {
-        //System.out.println("Adding new element: " + element + "         " + priority);
         if (contains(element)) {
             throw new IllegalArgumentException("Already contains " + element);
         }
-        if (!elements.isEmpty() && elements.get(0) == null) {
-            elements.set(0, new PriorityNode<>(element, priority));
-            elementsToIndex.put(element, 0);
-            //System.out.println("Is Empty");
-            //System.out.println(elements.toString());
-            //System.out.println(elementsToIndex.toString());
-        }
-        else {
-            elements.add(new PriorityNode<>(element, priority));
-            elementsToIndex.put(element, elements.size() - 1); // Add new key to hashmap, will likely be changed later but this
-                //is necessary for updateHashMap() to work
-            swim(elements.size()-1);
-            //System.out.println(elements.toString());
-            //System.out.println(elementsToIndex.toString());
-        }
+        elements.add(new PriorityNode<>(element, priority));
+        elementsToIndex.put(element, elements.size() - 1);
+        swim(elements.size() - 1);
     }
 
     @Override
     public boolean contains(E element) {
-        //System.out.println(elements.toString());
-        //System.out.println("From contains: " + element);
-        //System.out.println("element: " + element);
-        //System.out.println("hash map" + elementsToIndex.toString());
-        //System.out.println("Return Value: " + elementsToIndex.containsKey(element));
         return elementsToIndex.containsKey(element);
-        /*
-        for (PriorityNode<E> node : elements) {
-            if (node != null) {
-                if (node.getElement().equals(element)) {
-                    return true;
-                }
-            }
-
-        }
-        return false;
-         */
     }
 
     @Override
     public double getPriority(E element) {
-        int index = elementsToIndex.get(element); //will throw error if element not found since int can't be null
-        return elements.get(index).getPriority();
-        /*
-        for (PriorityNode<E> ePriorityNode : elements) {
-            if (ePriorityNode.getElement().equals(element)) {
-                return ePriorityNode.getPriority();
-            }
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
         }
-
-         */
-        //throw new NoSuchElementException("Element " + element + " is not present in the data structure");
+        return elements.get(elementsToIndex.get(element)).getPriority();
     }
 
     @Override
@@ -109,7 +79,6 @@ public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
         if (isEmpty()) {
             throw new NoSuchElementException("PQ is empty");
         }
-        //System.out.println("Peek Min: " + elements.toString());
         return elements.get(0).getElement();
     }
 
@@ -118,13 +87,12 @@ public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
         if (isEmpty()) {
             throw new NoSuchElementException("PQ is empty");
         }
-        PriorityNode<E> returnVal = elements.get(0);
-        updateHashMap(0, elements.size() - 1);
-        Collections.swap(elements, 0, elements.size()-1);
+        E min = elements.get(0).getElement();
+        swap(0, elements.size() - 1);
         elements.removeLast();
-        elementsToIndex.remove(returnVal.getElement());
+        elementsToIndex.remove(min);
         sink(0);
-        return returnVal.getElement();
+        return min;
     }
 
     @Override
@@ -132,131 +100,57 @@ public class OptimizedHeapMinPQ<E> implements MinPQ<E> {
         if (!contains(element)) {
             throw new NoSuchElementException("PQ does not contain " + element);
         }
-        int index = elementsToIndex.get(element); // should throw exception if element is not present
-        updateHashMap(index, elements.size() - 1);
-        Collections.swap(elements, index, elements.size()-1);
-        elements.removeLast();
-        elementsToIndex.remove(element);
+        int index = elementsToIndex.get(element);
+        elements.get(index).setPriority(priority);
+        swim(index);
         sink(index);
-        add(element, priority);
     }
 
     @Override
     public int size() {
-        //System.out.println(elements.toString());
         return elements.size();
     }
 
-
-    private void swimattempt(int i) {
-        //System.out.println("Swim Before: " + elements.toString());
-        while (i > 0 && elements.get(i).getPriority() > elements.get(i/2).getPriority()) {
-            Collections.swap(elements, i, i/2);
-            i = i/2;
-        }
-    }
-
-    private void sinkattempt(int i) {
-//        PriorityNode<E> item = elements.get(0);
-//        PriorityNode<E> temp = elements.get(size() - 1);
-//
-//        int parent = 0;
-//        int child = 1;
-//        while (child <= size())
-//        {
-//            if (child < size() && elements.get(child).getPriority() < elements.get(child + 1).getPriority())
-//                child++;
-//            if (temp.getPriority() >= elements.get(child).getPriority())
-//                break;
-//
-//            elements.set(parent, elements.get(child));
-//            parent = child;
-//            child *= 2;
-//        }
-//        elements.set(parent, temp);
-
-
-
-        while (i*2 <= elements.size()) {
-            int j = i*2;
-            if (j < size() && elements.get(i).getPriority() < elements.get(i + 1).getPriority()) {
-                j++;
-            }
-            if (elements.get(i).getPriority() < elements.get(j).getPriority()) {
-                break;
-            }
-            updateHashMap(i, j);
-            Collections.swap(elements, i, j);
-            i = j;
-        }
-    }
-
-
-
-    private void swim(int i) {//somewhat inefficient probably
-        //System.out.println(i);
-        //System.out.println("Swim Before: " + elementsToIndex.toString());
-        while (i > 0 && elements.get(i - 1).getPriority() > elements.get(i).getPriority()) {
-            updateHashMap(i - 1, i);
-            Collections.swap(elements, i - 1, i);
-            i = i - 1;
+    /**
+     * Moves the node at the given index up until its parent has a smaller or equal priority value.
+     */
+    private void swim(int i) {
+        while (i > 0 && priority(i) < priority((i - 1) / 2)) {
+            swap(i, (i - 1) / 2);
+            i = (i - 1) / 2;
         }
-        //System.out.println("Swim After: "+ elementsToIndex.toString());
     }
 
-    private void sink(int i) { //somewhat inefficient probably
-        //elements.sort(Comparator.comparingDouble(PriorityNode::getPriority));
-
-        while (i < elements.size() - 1 && elements.get(i).getPriority() > elements.get(i+1).getPriority()) {
-            updateHashMap(i, i + 1);
-            Collections.swap(elements, i, i +1);
-            i = i + 1;
-        }
-        /*
-        while (2 * i <= elements.size()) {
-            int j = 2*i;
-            if (j < elements.size() && elements.get(j).getPriority() > elements.get(j + 1).getPriority()) {
-                j++;
+    /**
+     * Moves the node at the given index down until its children have greater or equal priority values.
+     */
+    private void sink(int i) {
+        while (2 * i + 1 < elements.size()) {
+            int child = 2 * i + 1;
+            if (child + 1 < elements.size() && priority(child + 1) < priority(child)) {
+                child += 1;
             }
-            if (!(elements.get(i).getPriority() > elements.get(j).getPriority())) {
+            if (priority(i) <= priority(child)) {
                 break;
             }
-            Collections.swap(elements, i, j);
-            i = j;
+            swap(i, child);
+            i = child;
         }
-
-         */
     }
 
-    private void updateHashMap(int i, int j) {
-        elementsToIndex.replace(elements.get(i).getElement(), j);
-        elementsToIndex.replace(elements.get(j).getElement(), i);
-    }
-
-
-    private boolean isMinHeap() {
-        for (int i = 0; i < size(); i++) {
-            if (elements.get(i) == null) {System.out.print("Here1"); return false;}
-        }
-        for (int i = size()+1; i < size() - 1; i++) {
-            if (elements.get(i) != null) {System.out.print("Here2"); return false;}
-        }
-//        if (elements.get(0) != null) {
-//            System.out.print("Here3");
-//            return false;
-//        }
-        return isMinHeapOrdered(1);
+    /**
+     * Returns the priority value of the node at the given index.
+     */
+    private double priority(int i) {
+        return elements.get(i).getPriority();
     }
 
-    // is subtree of pq[1..n] rooted at k a min heap?
-    private boolean isMinHeapOrdered(int k) {
-        if (k > size()) return true;
-        int left = 2*k;
-        int right = 2*k + 1;
-        if (left  <= size() && k > left)  {System.out.print("Here4");return false;}
-        if (right <= size() && k > right) {System.out.print("Here5");return false;}
-        return isMinHeapOrdered(left) && isMinHeapOrdered(right);
+    /**
+     * Swaps the nodes at the given indices, updating their indices in {@code elementsToIndex} if present.
+     */
+    private void swap(int i, int j) {
+        Collections.swap(elements, i, j);
+        elementsToIndex.replace(elements.get(i).getElement(), i);
+        elementsToIndex.replace(elements.get(j).getElement(), j);
     }
-
-
 }
@@ -0,0 +1,259 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing heap implementation of the {@link HandleMinPQ} interface. The heap is a tree where each node has a smaller or
+ * equal priority value than its children, stored as a linked list of siblings. Adding an element or decreasing its
+ * priority value links a single node under the root in constant time, and removing the minimum merges the children of
+ * the root in two passes: pairs from left to right, then the pairs from right to left. Decreasing a priority value
+ * through its {@link HandleMinPQ.Handle} never hashes the element, while the element-based {@link MinPQ} methods find
+ * the node of an element in a {@link HashMap}.
+ *
+ * @param <E> the type of elements in this priority queue.
+ * @see HandleMinPQ
+ */
+public class PairingHeapMinPQ<E> implements HandleMinPQ<E> {
+    /**
+     * Node of each element in this priority queue.
+     */
+    private final Map<E, Node<E>> nodes;
+    private Node<E> root;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public PairingHeapMinPQ() {
+        nodes = new HashMap<>();
+    }
+
+    /**
+     * Constructs an instance containing all the given elements and their priority values.
+     *
+     * @param elementsAndPriorities each element and its corresponding priority.
+     */
+    public PairingHeapMinPQ(Map<E, Double> elementsAndPriorities) {
+        nodes = new HashMap<>(elementsAndPriorities.size());
+        for (Map.Entry<E, Double> entry : elementsAndPriorities.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Handle<E> insert(E element, double priority) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element is null");
+        }
+        Node<E> node = new Node<>(this, element, priority);
+        if (nodes.putIfAbsent(element, node) != null) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        root = root == null ? node : link(root, node);
+        return node;
+    }
+
+    @Override
+    public void decreaseKey(Handle<E> handle, double priority) {
+        if (!(handle instanceof Node<E> node) || node.pq != this) {
+            throw new IllegalArgumentException("Not a handle for an element in this PQ");
+        }
+        if (priority > node.priority) {
+            throw new IllegalArgumentException("Priority " + priority + " is greater than " + node.priority);
+        }
+        node.priority = priority;
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return nodes.containsKey(element);
+    }
+
+    @Override
+    public double getPriority(E element) {
+        return node(element).priority;
+    }
+
+    @Override
+    public E peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return root.element;
+    }
+
+    @Override
+    public E removeMin() {
+        E min = peekMin();
+        nodes.remove(min);
+        root.pq = null;
+        root = merge(root.child);
+        return min;
+    }
+
+    @Override
+    public void changePriority(E element, double priority) {
+        Node<E> node = node(element);
+        if (priority <= node.priority) {
+            decreaseKey(node, priority);
+            return;
+        }
+        // Increasing a priority value may break the order with its children, so reinsert the node without them.
+        node.priority = priority;
+        Node<E> children = merge(node.child);
+        node.child = null;
+        if (node == root) {
+            root = children;
+        } else {
+            cut(node);
+            if (children != null) {
+                root = link(root, children);
+            }
+        }
+        root = root == null ? node : link(root, node);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the node of the given element.
+     *
+     * @throws NoSuchElementException if the element is not present.
+     */
+    private Node<E> node(E element) {
+        Node<E> node = nodes.get(element);
+        if (node == null) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return node;
+    }
+
+    /**
+     * Removes the subtree rooted at the given node, which must not be the root, from its parent.
+     */
+    private static <E> void cut(Node<E> node) {
+        if (node.previous.child == node) {
+            node.previous.child = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+    }
+
+    /**
+     * Links two trees without siblings, returning the root with the smaller priority value with the other root as its
+     * first child.
+     */
+    private static <E> Node<E> link(Node<E> a, Node<E> b) {
+        if (b.priority < a.priority) {
+            Node<E> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.previous = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.previous = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Merges the given list of sibling trees into one tree by linking pairs from left to right and then linking the
+     * resulting trees from right to left, returning its root or null if there are no trees.
+     */
+    private static <E> Node<E> merge(Node<E> first) {
+        // First pass: link pairs from left to right, pushing each result onto a stack of trees linked through next.
+        Node<E> pairs = null;
+        while (first != null) {
+            Node<E> a = first;
+            Node<E> b = a.next;
+            first = b == null ? null : b.next;
+            a.previous = null;
+            a.next = null;
+            if (b != null) {
+                b.previous = null;
+                b.next = null;
+                a = link(a, b);
+            }
+            a.next = pairs;
+            pairs = a;
+        }
+        if (pairs == null) {
+            return null;
+        }
+        // Second pass: link the trees from right to left, which is the order of the stack.
+        Node<E> result = pairs;
+        Node<E> rest = pairs.next;
+        result.next = null;
+        while (rest != null) {
+            Node<E> tree = rest;
+            rest = rest.next;
+            tree.next = null;
+            result = link(result, tree);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PairingHeapMinPQ{" +
+                "size=" + size() +
+                '}';
+    }
+
+    /**
+     * Node of a pairing heap, which is also the {@link HandleMinPQ.Handle} for its element.
+     *
+     * @param <E> the type of the element.
+     */
+    private static class Node<E> implements Handle<E> {
+        /**
+         * The priority queue containing this node, or null if the element has been removed.
+         */
+        private PairingHeapMinPQ<E> pq;
+        private final E element;
+        private double priority;
+        /**
+         * First child of this node.
+         */
+        private Node<E> child;
+        /**
+         * Next sibling of this node.
+         */
+        private Node<E> next;
+        /**
+         * Previous sibling of this node, or its parent if it is the first child.
+         */
+        private Node<E> previous;
+
+        Node(PairingHeapMinPQ<E> pq, E element, double priority) {
+            this.pq = pq;
+            this.element = element;
+            this.priority = priority;
+        }
+
+        @Override
+        public E element() {
+            return element;
+        }
+
+        @Override
+        public double priority() {
+            return priority;
+        }
+    }
+}
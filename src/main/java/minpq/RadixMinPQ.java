@@ -0,0 +1,237 @@
+package minpq;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Radix heap implementation of the {@link IntMinPQ} interface for <b>monotone</b> workloads, where every priority
+ * value added is non-negative and no less than the minimum priority value last returned by {@link #peekMin()} or
+ * {@link #removeMin()}. Dijkstra's algorithm only adds distances of at least the distance of the last settled vertex,
+ * so it meets this requirement.
+ * <p>
+ * The bits of a non-negative {@code double} ordered as a {@code long} are in the same order as the {@code double}
+ * values, so each entry is kept in bucket {@code b} if the highest bit where its bits differ from the bits of the last
+ * minimum is bit {@code b - 1}, or in bucket 0 if they are equal. Removing the minimum takes an entry from bucket 0 if
+ * possible. Otherwise, the smallest entry in the first non-empty bucket becomes the new last minimum, and every entry in
+ * that bucket moves to a lower bucket. Each entry moves at most 64 times, so operations take amortized constant time
+ * without comparing entries to each other.
+ * <p>
+ * Changing a priority value adds a new entry rather than moving the old one, which becomes stale and is discarded when
+ * it is next encountered (lazy deletion). Each entry is stamped with the version of its element when added, so an entry
+ * is stale if its element has been changed or removed since.
+ *
+ * @see IntMinPQ
+ * @see IndexMinPQ
+ */
+public class RadixMinPQ implements IntMinPQ {
+    /**
+     * Number of buckets: one for entries equal to the last minimum and one for each bit of a {@code long}.
+     */
+    private static final int BUCKETS = Long.SIZE + 1;
+    /**
+     * Priority value of each element in this priority queue.
+     */
+    private final double[] priorities;
+    /**
+     * Number of times each element has been added or changed, which stamps its one current entry.
+     */
+    private final int[] versions;
+    /**
+     * Whether each element is in this priority queue.
+     */
+    private final boolean[] contains;
+    private final Bucket[] buckets;
+    /**
+     * Bits of the minimum priority value last returned by {@link #peekMin()} or {@link #removeMin()}.
+     */
+    private long last;
+    private double lastPriority;
+    private int size;
+
+    /**
+     * Constructs an empty instance for elements between 0 (inclusive) and the given capacity (exclusive).
+     *
+     * @param capacity the number of possible elements.
+     */
+    public RadixMinPQ(int capacity) {
+        priorities = new double[capacity];
+        versions = new int[capacity];
+        contains = new boolean[capacity];
+        buckets = new Bucket[BUCKETS];
+        for (int i = 0; i < BUCKETS; i += 1) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority value is less than the last minimum priority value.
+     */
+    @Override
+    public void add(int element, double priority) {
+        if (contains(element)) {
+            throw new IllegalArgumentException("Already contains " + element);
+        }
+        long key = key(priority);
+        contains[element] = true;
+        size += 1;
+        push(element, priority, key);
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return contains[element];
+    }
+
+    @Override
+    public double getPriority(int element) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        return priorities[element];
+    }
+
+    @Override
+    public int peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        Bucket min = minBucket();
+        return min.elements[min.size - 1];
+    }
+
+    @Override
+    public int removeMin() {
+        int min = peekMin();
+        buckets[0].size -= 1;
+        contains[min] = false;
+        size -= 1;
+        return min;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority value is less than the last minimum priority value.
+     */
+    @Override
+    public void changePriority(int element, double priority) {
+        if (!contains(element)) {
+            throw new NoSuchElementException("PQ does not contain " + element);
+        }
+        long key = key(priority);
+        if (priority != priorities[element]) {
+            push(element, priority, key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the bits of the priority value, which must be no less than the last minimum priority value.
+     */
+    private long key(double priority) {
+        if (!(priority >= lastPriority)) {
+            throw new IllegalArgumentException("Priority " + priority + " is less than the last minimum " +
+                    lastPriority);
+        }
+        // Adding zero turns negative zero into positive zero, whose bits are the smallest.
+        return Double.doubleToRawLongBits(priority + 0.0);
+    }
+
+    /**
+     * Adds a new current entry for the element with the given priority value, making any previous entry stale.
+     */
+    private void push(int element, double priority, long key) {
+        priorities[element] = priority;
+        versions[element] += 1;
+        buckets[bucket(key)].add(element, versions[element], key);
+    }
+
+    /**
+     * Returns the index of the bucket for the given bits relative to the last minimum.
+     */
+    private int bucket(long key) {
+        return key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Returns true if the entry at the given index in the bucket is stale.
+     */
+    private boolean isStale(Bucket bucket, int i) {
+        int element = bucket.elements[i];
+        return !contains[element] || versions[element] != bucket.versions[i];
+    }
+
+    /**
+     * Returns bucket 0 after discarding its stale entries from the end and, if it has no current entries, refilling it
+     * from the first bucket with a current entry. This priority queue must not be empty.
+     */
+    private Bucket minBucket() {
+        Bucket zero = buckets[0];
+        while (zero.size > 0 && isStale(zero, zero.size - 1)) {
+            zero.size -= 1;
+        }
+        if (zero.size > 0) {
+            return zero;
+        }
+        for (int b = 1; b < BUCKETS; b += 1) {
+            Bucket bucket = buckets[b];
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < bucket.size; i += 1) {
+                if (!isStale(bucket, i) && bucket.keys[i] < min) {
+                    min = bucket.keys[i];
+                }
+            }
+            if (min == Long.MAX_VALUE) {
+                bucket.size = 0;
+                continue;
+            }
+            last = min;
+            lastPriority = Double.longBitsToDouble(min);
+            // Every current entry now differs from the last minimum in a lower bit, so it moves to a lower bucket.
+            for (int i = 0; i < bucket.size; i += 1) {
+                if (!isStale(bucket, i)) {
+                    buckets[bucket(bucket.keys[i])].add(bucket.elements[i], bucket.versions[i], bucket.keys[i]);
+                }
+            }
+            bucket.size = 0;
+            return zero;
+        }
+        throw new IllegalStateException("No current entries in a non-empty PQ");
+    }
+
+    @Override
+    public String toString() {
+        return "RadixMinPQ{" +
+                "size=" + size +
+                ", capacity=" + priorities.length +
+                '}';
+    }
+
+    /**
+     * Growable arrays of entries, each an element, its version when the entry was added, and the bits of its priority.
+     */
+    private static class Bucket {
+        private int[] elements = new int[4];
+        private int[] versions = new int[4];
+        private long[] keys = new long[4];
+        private int size;
+
+        void add(int element, int version, long key) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+                versions = Arrays.copyOf(versions, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            elements[size] = element;
+            versions[size] = version;
+            keys[size] = key;
+            size += 1;
+        }
+    }
+}
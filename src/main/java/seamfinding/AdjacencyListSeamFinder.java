@@ -2,6 +2,7 @@ package seamfinding;
 
 import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 import graphs.shortestpaths.ShortestPathSolver;
 import seamfinding.energy.EnergyFunction;
 
@@ -33,8 +34,11 @@ public class AdjacencyListSeamFinder implements SeamFinder {
 
     @Override
     public List<Integer> findHorizontal(Picture picture, EnergyFunction f) {
+        SeamFindEvent event = new SeamFindEvent();
+        event.begin();
         PixelGraph graph = new PixelGraph(picture, f);
-        List<Node> seam = sps.run(graph, graph.source).solution(graph.sink);
+        ShortestPathSolver<Node> solver = sps.run(graph, graph.source, graph.sink);
+        List<Node> seam = solver.solution(graph.sink);
         seam = seam.subList(1, seam.size() - 1); // Skip the source and sink nodes
         List<Integer> result = new ArrayList<>(seam.size());
         for (Node node : seam) {
@@ -42,26 +46,28 @@ public class AdjacencyListSeamFinder implements SeamFinder {
             PixelGraph.Pixel pixel = (PixelGraph.Pixel) node;
             result.add(pixel.y);
         }
+        event.finish(this, solver, picture);
         return result;
     }
 
     /**
-     * Adjacency list graph of {@link Pixel} vertices and {@link EnergyFunction}-weighted edges.
+     * Adjacency list graph of {@link Pixel} vertices and {@link EnergyFunction}-weighted edges. Pixels are numbered
+     * column by column, followed by the source and the sink.
      *
      * @see Pixel
      * @see EnergyFunction
      */
-    private static class PixelGraph implements Graph<Node> {
+    private static class PixelGraph implements IndexedGraph<Node> {
         /**
          * The {@link Pixel} vertices in the {@link Picture}.
          */
         private final Pixel[][] pixels;
         /**
-         * The {@link Picture} for {@link #neighbors(Node)}.
+         * The {@link Picture} for {@link #forEachNeighbor(Node, EdgeConsumer)}.
          */
         private final Picture picture;
         /**
-         * The {@link Picture} for {@link #neighbors(Node)}.
+         * The {@link EnergyFunction} for {@link #forEachNeighbor(Node, EdgeConsumer)}.
          */
         private final EnergyFunction f;
         /**
@@ -69,22 +75,25 @@ public class AdjacencyListSeamFinder implements SeamFinder {
          */
         private final Node source = new Node() {
             @Override
-            public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
-                List<Edge<Node>> result = new ArrayList<>(picture.height());
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
                 for (int j = 0; j < picture.height(); j += 1) {
                     Pixel to = pixels[0][j];
-                    result.add(new Edge<>(this, to, f.apply(picture, 0, j)));
+                    action.accept(this, to, f.apply(picture, 0, j));
                 }
-                return result;
             }
         };
         /**
          * Sink {@link Node} for the adjacency list graph.
          */
         private final Node sink = new Node() {
+            @Override
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
+                // Sink has no neighbors
+            }
+
             @Override
             public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
-                return List.of(); // Sink has no neighbors
+                return List.of();
             }
         };
 
@@ -122,11 +131,60 @@ public class AdjacencyListSeamFinder implements SeamFinder {
             this.f = f;
         }
 
+        @Override
+        public void forEachNeighbor(Node node, EdgeConsumer<? super Node> action) {
+            node.forEachNeighbor(picture, f, action);
+        }
+
         @Override
         public List<Edge<Node>> neighbors(Node node) {
             return node.neighbors(picture, f);
         }
 
+        @Override
+        public int vertexCount() {
+            // One vertex per pixel, followed by the source and the sink.
+            return picture.width() * picture.height() + 2;
+        }
+
+        @Override
+        public int id(Node node) {
+            if (node == source) {
+                return vertexCount() - 2;
+            } else if (node == sink) {
+                return vertexCount() - 1;
+            } else if (node instanceof Pixel pixel) {
+                return pixel.x * picture.height() + pixel.y;
+            }
+            return -1;
+        }
+
+        @Override
+        public Node vertex(int id) {
+            if (id == vertexCount() - 2) {
+                return source;
+            } else if (id == vertexCount() - 1) {
+                return sink;
+            }
+            return pixels[id / picture.height()][id % picture.height()];
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            if (id == vertexCount() - 2) {
+                // The source has an edge to every pixel in the leftmost column.
+                for (int j = 0; j < picture.height(); j += 1) {
+                    action.accept(id, j, f.apply(picture, 0, j));
+                }
+            } else if (id < vertexCount() - 2) {
+                List<Edge<Node>> edges = pixels[id / picture.height()][id % picture.height()].neighbors;
+                for (int i = 0; i < edges.size(); i += 1) {
+                    Edge<Node> edge = edges.get(i);
+                    action.accept(id, id(edge.to), edge.weight);
+                }
+            }
+        }
+
         /**
          * A pixel in the {@link PixelGraph} representation of the {@link Picture} with {@link EnergyFunction}-weighted
          * edges to neighbors.
@@ -152,6 +210,14 @@ public class AdjacencyListSeamFinder implements SeamFinder {
                 this.neighbors = new ArrayList<>(3);
             }
 
+            @Override
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
+                for (int i = 0; i < neighbors.size(); i += 1) {
+                    Edge<Node> edge = neighbors.get(i);
+                    action.accept(edge.from, edge.to, edge.weight);
+                }
+            }
+
             @Override
             public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
                 return neighbors;
@@ -17,6 +17,8 @@ public class DynamicProgrammingSeamFinder implements SeamFinder {
     private double[][] table;
     @Override
     public List<Integer> findHorizontal(Picture picture, EnergyFunction f) {
+        SeamFindEvent event = new SeamFindEvent();
+        event.begin();
         table = new double[picture.width()][picture.height()];
         createTable(picture, f);
 
@@ -72,6 +74,7 @@ public class DynamicProgrammingSeamFinder implements SeamFinder {
 
         //System.out.println("Width " + picture.width() + " ||| Seam Width: " + path.size());
 
+        event.finish(this, this, picture);
         return path;
     }
 
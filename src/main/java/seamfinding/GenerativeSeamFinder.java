@@ -1,7 +1,7 @@
 package seamfinding;
 
-import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 import graphs.shortestpaths.ShortestPathSolver;
 import seamfinding.energy.EnergyFunction;
 
@@ -34,8 +34,11 @@ public class GenerativeSeamFinder implements SeamFinder {
 
     @Override
     public List<Integer> findHorizontal(Picture picture, EnergyFunction f) {
+        SeamFindEvent event = new SeamFindEvent();
+        event.begin();
         PixelGraph graph = new PixelGraph(picture, f);
-        List<Node> seam = sps.run(graph, graph.source).solution(graph.sink);
+        ShortestPathSolver<Node> solver = sps.run(graph, graph.source, graph.sink);
+        List<Node> seam = solver.solution(graph.sink);
         seam = seam.subList(1, seam.size() - 1); // Skip the source and sink nodes
         List<Integer> result = new ArrayList<>(seam.size());
         for (Node node : seam) {
@@ -43,38 +46,43 @@ public class GenerativeSeamFinder implements SeamFinder {
             PixelGraph.Pixel pixel = (PixelGraph.Pixel) node;
             result.add(pixel.y);
         }
+        event.finish(this, solver, picture);
         return result;
     }
 
     /**
      * Generative adjacency list graph of {@link Pixel} vertices and {@link EnergyFunction}-weighted edges. Rather than
      * materialize all vertices and edges upfront in the constructor, generates vertices and edges as needed when
-     * {@link #neighbors(Node)} is called by a client.
+     * {@link #forEachNeighbor(Node, EdgeConsumer)} is called by a client. Each vertex is generated at most once, so
+     * expanding a vertex again does not allocate. Pixels are numbered column by column, followed by the source and the
+     * sink, and {@link #forEachNeighborId(int, IdEdgeConsumer)} generates edges between ids without generating any
+     * vertices.
      *
      * @see Pixel
      * @see EnergyFunction
      */
-    private static class PixelGraph implements Graph<Node> {
+    private static class PixelGraph implements IndexedGraph<Node> {
         /**
-         * The {@link Picture} for {@link #neighbors(Node)}.
+         * The {@link Picture} for {@link #forEachNeighbor(Node, EdgeConsumer)}.
          */
         private final Picture picture;
         /**
-         * The {@link EnergyFunction} for {@link #neighbors(Node)}.
+         * The {@link EnergyFunction} for {@link #forEachNeighbor(Node, EdgeConsumer)}.
          */
         private final EnergyFunction f;
+        /**
+         * The {@link Pixel} vertices generated so far, or null for pixels not yet reached.
+         */
+        private final Pixel[][] pixels;
         /**
          * Source {@link Node} for the adjacency list graph.
          */
         private final Node source = new Node() {
             @Override
-            public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
-                List<Edge<Node>> result = new ArrayList<>(picture.height());
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
                 for (int j = 0; j < picture.height(); j += 1) {
-
-                    result.add(new Edge<>(this, new Pixel(0, j), f.apply(picture, 0, j)));
+                    action.accept(this, pixel(0, j), f.apply(picture, 0, j));
                 }
-                return result;
             }
         };
         /**
@@ -82,14 +90,14 @@ public class GenerativeSeamFinder implements SeamFinder {
          */
         private final Node sink = new Node() {
             @Override
-            public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
-                return List.of();
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
+                // Sink has no neighbors
             }
         };
 
         /**
          * Constructs a generative adjacency list graph. All work is deferred to implementations of
-         * {@link Node#neighbors(Picture, EnergyFunction)}.
+         * {@link Node#forEachNeighbor(Picture, EnergyFunction, EdgeConsumer)}.
          *
          * @param picture the input picture.
          * @param f       the input energy function.
@@ -97,11 +105,83 @@ public class GenerativeSeamFinder implements SeamFinder {
         private PixelGraph(Picture picture, EnergyFunction f) {
             this.picture = picture;
             this.f = f;
+            this.pixels = new Pixel[picture.width()][picture.height()];
+        }
+
+        @Override
+        public void forEachNeighbor(Node node, EdgeConsumer<? super Node> action) {
+            node.forEachNeighbor(picture, f, action);
+        }
+
+        @Override
+        public int vertexCount() {
+            // One vertex per pixel, followed by the source and the sink.
+            return picture.width() * picture.height() + 2;
+        }
+
+        @Override
+        public int id(Node node) {
+            if (node == source) {
+                return vertexCount() - 2;
+            } else if (node == sink) {
+                return vertexCount() - 1;
+            } else if (node instanceof Pixel pixel) {
+                return pixel.x * picture.height() + pixel.y;
+            }
+            return -1;
+        }
+
+        @Override
+        public Node vertex(int id) {
+            if (id == vertexCount() - 2) {
+                return source;
+            } else if (id == vertexCount() - 1) {
+                return sink;
+            }
+            return pixel(id / picture.height(), id % picture.height());
         }
 
         @Override
-        public List<Edge<Node>> neighbors(Node node) {
-            return node.neighbors(picture, f);
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            int height = picture.height();
+            int pixels = picture.width() * height;
+            if (id == pixels) {
+                // The source has an edge to every pixel in the leftmost column.
+                for (int j = 0; j < height; j += 1) {
+                    action.accept(id, j, f.apply(picture, 0, j));
+                }
+            } else if (id < pixels) {
+                // The same edges as Pixel.forEachNeighbor, where the pixel to the right has id + height.
+                int x = id / height;
+                int y = id % height;
+                if (x + 1 < picture.width()) {
+                    if (y - 1 > 0) {
+                        action.accept(id, id + height - 1, f.apply(picture, x + 1, y - 1));
+                    }
+                    action.accept(id, id + height, f.apply(picture, x + 1, y));
+                    if (y + 1 < height) {
+                        action.accept(id, id + height + 1, f.apply(picture, x + 1, y + 1));
+                    }
+                } else {
+                    action.accept(id, pixels + 1, 0);
+                }
+            }
+        }
+
+        /**
+         * Returns the {@link Pixel} at the given indices, generating it if it has not been reached before.
+         *
+         * @param x horizontal index into the picture.
+         * @param y vertical index into the picture.
+         * @return the {@link Pixel} at the given indices.
+         */
+        private Pixel pixel(int x, int y) {
+            Pixel result = pixels[x][y];
+            if (result == null) {
+                result = new Pixel(x, y);
+                pixels[x][y] = result;
+            }
+            return result;
         }
 
         /**
@@ -128,29 +208,25 @@ public class GenerativeSeamFinder implements SeamFinder {
             }
 
             @Override
-            public List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
-                List<Edge<Node>> list = new ArrayList<>(4);
-
+            public void forEachNeighbor(Picture picture, EnergyFunction f, EdgeConsumer<? super Node> action) {
                 // Proud of getting the logic here correct on my first try
                 if( (x + 1) < picture.width()) {
                     //right-up
                     if( (y - 1) > 0) {
-                        list.add(new Edge<>(this, new Pixel(x + 1, y - 1) , f.apply(picture, x + 1, y - 1)));
+                        action.accept(this, pixel(x + 1, y - 1), f.apply(picture, x + 1, y - 1));
                     }
 
                     //right-middle
-                    list.add(new Edge<>(this, new Pixel(x + 1, y) , f.apply(picture, x + 1, y)));
+                    action.accept(this, pixel(x + 1, y), f.apply(picture, x + 1, y));
 
                     //right-down
                     if( (y + 1) < picture.height()) {
-                        list.add(new Edge<>(this, new Pixel(x + 1, y + 1) , f.apply(picture, x + 1, y + 1)));
+                        action.accept(this, pixel(x + 1, y + 1), f.apply(picture, x + 1, y + 1));
                     }
                 }
                 else {
-                    list.add(new Edge<>(this, sink, 0));
+                    action.accept(this, sink, 0);
                 }
-
-                return list;
             }
 
             @Override
@@ -1,8 +1,10 @@
 package seamfinding;
 
 import graphs.Edge;
+import graphs.Graph;
 import seamfinding.energy.EnergyFunction;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -13,6 +15,16 @@ import java.util.List;
  * @see GenerativeSeamFinder
  */
 public interface Node {
+    /**
+     * Calls the action with each edge to the right-up, right-middle, and right-down neighbors (if they exist) for this
+     * node.
+     *
+     * @param picture the input picture.
+     * @param f       the input energy function.
+     * @param action  the action to call with each edge.
+     */
+    void forEachNeighbor(Picture picture, EnergyFunction f, Graph.EdgeConsumer<? super Node> action);
+
     /**
      * Returns the {@link List} of right-up, right-middle, and right-down neighbors (if they exist) for this node.
      *
@@ -20,5 +32,9 @@ public interface Node {
      * @param f       the input energy function.
      * @return the {@link List} of right-up, right-middle, and right-down neighbors (if they exist) for this node.
      */
-    List<Edge<Node>> neighbors(Picture picture, EnergyFunction f);
+    default List<Edge<Node>> neighbors(Picture picture, EnergyFunction f) {
+        List<Edge<Node>> result = new ArrayList<>(3);
+        forEachNeighbor(picture, f, (from, to, weight) -> result.add(new Edge<>(from, to, weight)));
+        return result;
+    }
 }
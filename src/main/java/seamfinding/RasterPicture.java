@@ -0,0 +1,141 @@
+package seamfinding;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link Picture} backed by a flat {@code int[]} raster of red-green-blue colors in row-major order, so that
+ * {@link #get(int, int)} and {@link #set(int, int, int)} are array accesses instead of per-pixel color model conversions
+ * through a {@link BufferedImage}. Pixels are converted from or to a {@link BufferedImage} in one bulk call when the
+ * picture is read, constructed from an image, or saved. Seams can be removed by copying runs of pixels.
+ *
+ * @see Picture
+ */
+public class RasterPicture extends Picture {
+    /**
+     * The color of pixel (x, y) is at index {@code y * width + x}.
+     */
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructs a black picture with the given width and height dimensions.
+     *
+     * @param width  the horizontal dimension for the picture.
+     * @param height the vertical dimension for the picture.
+     */
+    public RasterPicture(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+    }
+
+    /**
+     * Constructs a picture by copying the colors of the given image.
+     *
+     * @param image the input image.
+     */
+    public RasterPicture(BufferedImage image) {
+        width = image.getWidth();
+        height = image.getHeight();
+        pixels = image.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    /**
+     * Constructs a picture from the given file.
+     *
+     * @param file the input file.
+     * @throws IOException if an error occurs during reading.
+     */
+    public RasterPicture(File file) throws IOException {
+        this(ImageIO.read(file));
+    }
+
+    @Override
+    public int get(int x, int y) {
+        return pixels[index(x, y)];
+    }
+
+    @Override
+    public void set(int x, int y, int rgb) {
+        pixels[index(x, y)] = rgb;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public void save(File file) throws IOException {
+        new Picture(toBufferedImage()).save(file);
+    }
+
+    /**
+     * Returns a new image with the colors of this picture.
+     *
+     * @return a new image with the colors of this picture.
+     */
+    public BufferedImage toBufferedImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * Returns a new picture without the pixels of the given horizontal seam, one pixel narrower in height.
+     *
+     * @param seam the y-index of the pixel to remove in each column.
+     * @return a new picture without the pixels of the given horizontal seam.
+     */
+    public RasterPicture removeHorizontal(List<Integer> seam) {
+        RasterPicture result = new RasterPicture(width, height - 1);
+        for (int y = 0; y < height - 1; y += 1) {
+            int row = y * width;
+            for (int x = 0; x < width; x += 1) {
+                // Pixels on or below the seam move up one row.
+                result.pixels[row + x] = pixels[y < seam.get(x) ? row + x : row + width + x];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new picture without the pixels of the given vertical seam, one pixel narrower in width.
+     *
+     * @param seam the x-index of the pixel to remove in each row.
+     * @return a new picture without the pixels of the given vertical seam.
+     */
+    public RasterPicture removeVertical(List<Integer> seam) {
+        RasterPicture result = new RasterPicture(width - 1, height);
+        for (int y = 0; y < height; y += 1) {
+            int x = seam.get(y);
+            // Copy the run of pixels on each side of the seam.
+            System.arraycopy(pixels, y * width, result.pixels, y * (width - 1), x);
+            System.arraycopy(pixels, y * width + x + 1, result.pixels, y * (width - 1) + x, width - 1 - x);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the pixel (x, y) in the raster.
+     *
+     * @throws IndexOutOfBoundsException if (x, y) is outside this picture.
+     */
+    private int index(int x, int y) {
+        return Objects.checkIndex(y, height) * width + Objects.checkIndex(x, width);
+    }
+}
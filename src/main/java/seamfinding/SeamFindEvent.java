@@ -0,0 +1,47 @@
+package seamfinding;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event for finding a single seam. The event is only filled in and written when a recording has
+ * enabled it.
+ *
+ * @see SeamFinder
+ */
+@Name("huskymaps.SeamFind")
+@Label("Seam Find")
+@Category({"Husky Maps", "Seam Carving"})
+@Description("A search for a minimum-energy horizontal seam")
+@StackTrace(false)
+class SeamFindEvent extends Event {
+    @Label("Finder")
+    String finder;
+
+    @Label("Solver")
+    @Description("Shortest paths solver used by graph-based finders, or the finder itself otherwise")
+    String solver;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    /**
+     * Ends this event and writes it if it is enabled and exceeds the recording threshold.
+     *
+     * @param finder  the seam finder.
+     * @param solver  the object that found the seam.
+     * @param picture the picture searched.
+     */
+    void finish(SeamFinder finder, Object solver, Picture picture) {
+        end();
+        if (shouldCommit()) {
+            this.finder = finder.getClass().getSimpleName();
+            this.solver = solver.getClass().getSimpleName();
+            width = picture.width();
+            height = picture.height();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package seamfinding.energy;
+
+import seamfinding.Picture;
+
+/**
+ * {@link EnergyFunction} adapter that computes an {@link EnergyMap} of each picture with the given energy function the
+ * first time it is applied to that picture, and then looks up energies in the map. Seam finders that apply the energy
+ * function to each pixel several times, such as once per incoming edge, compute each energy only once.
+ * <p>
+ * Pictures are recognized by identity and must not be modified while they are being used with this adapter. Only the
+ * energy map of the most recent picture is kept, so a finder should apply it to one picture at a time.
+ *
+ * @see EnergyMap
+ * @see EnergyFunction
+ */
+public class CachingEnergyFunction implements EnergyFunction {
+    /**
+     * The energy function for computing energy maps.
+     */
+    private final EnergyFunction f;
+    /**
+     * The most recent picture and its energy map, or null.
+     */
+    private volatile Cached cached;
+
+    /**
+     * Constructs an adapter that caches the energies of the given energy function.
+     *
+     * @param f the energy function for computing energy maps.
+     */
+    public CachingEnergyFunction(EnergyFunction f) {
+        this.f = f;
+    }
+
+    @Override
+    public double apply(Picture picture, int x, int y) {
+        Cached current = cached;
+        if (current == null || current.picture != picture) {
+            current = new Cached(picture, new EnergyMap(picture, f));
+            cached = current;
+        }
+        return current.energies.get(x, y);
+    }
+
+    /**
+     * A picture and its energy map.
+     *
+     * @param picture  the picture.
+     * @param energies the energy map of the picture.
+     */
+    private record Cached(Picture picture, EnergyMap energies) {
+    }
+}
@@ -0,0 +1,112 @@
+package seamfinding.energy;
+
+import seamfinding.Picture;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The energy of every pixel in a {@link Picture}, computed once by an {@link EnergyFunction} into a flat
+ * {@code double[]} in row-major order. Rows are split into bands that are computed in parallel on the common
+ * {@link ForkJoinPool}, so the energy function and the picture must be safe to read from several threads at once.
+ * The map is a snapshot: later changes to the picture are not reflected.
+ *
+ * @see EnergyFunction
+ * @see CachingEnergyFunction
+ */
+public class EnergyMap {
+    /**
+     * Minimum number of pixels in a band of rows computed by one task.
+     */
+    private static final int GRAIN = 4096;
+    /**
+     * The energy of pixel (x, y) is at index {@code y * width + x}.
+     */
+    private final double[] energies;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructs the energy map of the given picture.
+     *
+     * @param picture the input picture.
+     * @param f       the energy function applied to each pixel.
+     */
+    public EnergyMap(Picture picture, EnergyFunction f) {
+        width = picture.width();
+        height = picture.height();
+        energies = new double[width * height];
+        int rowsPerBand = Math.max(1, GRAIN / width);
+        Band all = new Band(picture, f, 0, height, rowsPerBand);
+        if (height <= rowsPerBand) {
+            all.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(all);
+        }
+    }
+
+    /**
+     * Returns the energy of pixel (x, y).
+     *
+     * @param x the x-index into the picture.
+     * @param y the y-index into the picture.
+     * @return the energy of pixel (x, y).
+     * @throws IndexOutOfBoundsException if (x, y) is outside the picture.
+     */
+    public double get(int x, int y) {
+        return energies[Objects.checkIndex(y, height) * width + Objects.checkIndex(x, width)];
+    }
+
+    /**
+     * Returns the width of the picture.
+     *
+     * @return the width of the picture.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the picture.
+     *
+     * @return the height of the picture.
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Task that computes the energies of a band of rows, splitting it in half while it is larger than the grain.
+     */
+    private class Band extends RecursiveAction {
+        private final Picture picture;
+        private final EnergyFunction f;
+        private final int from;
+        private final int to;
+        private final int rowsPerBand;
+
+        Band(Picture picture, EnergyFunction f, int from, int to, int rowsPerBand) {
+            this.picture = picture;
+            this.f = f;
+            this.from = from;
+            this.to = to;
+            this.rowsPerBand = rowsPerBand;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > rowsPerBand) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Band(picture, f, from, mid, rowsPerBand), new Band(picture, f, mid, to, rowsPerBand));
+                return;
+            }
+            for (int y = from; y < to; y += 1) {
+                int row = y * width;
+                for (int x = 0; x < width; x += 1) {
+                    energies[row + x] = f.apply(picture, x, y);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+import graphs.AStarGraph;
+import graphs.shortestpaths.AStarSolver;
+import graphs.shortestpaths.DeltaSteppingSolver;
+import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.SPFASolver;
+import graphs.shortestpaths.SearchListener;
+import graphs.shortestpaths.SearchStats;
+import graphs.shortestpaths.ShortestPathSolver;
+import org.junit.jupiter.api.*;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static graphs.shortestpaths.ShortestPathSolverTests.time;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MapGraph} class on a small road network in src/test/resources: a jittered 30 by 30 grid of
+ * streets with some blocks missing, a few diagonal arterials, a footway that is not part of the road network, and a
+ * three-location island disconnected from the rest.
+ *
+ * @see MapGraph
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MapGraphTests {
+    /**
+     * Error tolerance for route distances.
+     */
+    private static final double EPSILON = 1e-9;
+    private MapGraph map;
+    private List<Point> points;
+
+    @BeforeAll
+    void loadMap() throws Exception {
+        map = new MapGraph("fixture.osm.gz", "fixture-places.tsv", SpatialContext.GEO);
+        points = List.copyOf(map.vertices());
+    }
+
+    /**
+     * Returns the total length of the route.
+     */
+    private double length(List<Point> route) {
+        double total = 0;
+        for (int i = 1; i < route.size(); i += 1) {
+            total += map.estimatedDistance(route.get(i - 1), route.get(i));
+        }
+        return total;
+    }
+
+    @Test
+    void idsRoundTrip() {
+        assertEquals(points.size(), map.vertexCount());
+        Set<Integer> ids = new HashSet<>();
+        for (Point point : points) {
+            int id = map.id(point);
+            assertTrue(0 <= id && id < map.vertexCount(), "id " + id);
+            assertTrue(ids.add(id), "Duplicate id " + id);
+            assertEquals(point, map.vertex(id));
+        }
+        assertEquals(-1, map.id(SpatialContext.GEO.getShapeFactory().pointLatLon(0, 0)));
+    }
+
+    @Test
+    void forEachNeighborIdMatchesForEachNeighbor() {
+        int edges = 0;
+        for (int id = 0; id < map.vertexCount(); id += 1) {
+            List<List<Object>> expected = new ArrayList<>();
+            map.forEachNeighbor(map.vertex(id),
+                    (from, to, weight) -> expected.add(List.of(map.id(from), map.id(to), weight)));
+            List<List<Object>> actual = new ArrayList<>();
+            map.forEachNeighborId(id, (from, to, weight) -> actual.add(List.of(from, to, weight)));
+            assertEquals(expected, actual);
+            edges += actual.size();
+        }
+        // Every location is on a road, and every road is stored in both directions.
+        assertTrue(edges >= 2 * (points.size() - 1));
+        assertEquals(0, edges % 2);
+    }
+
+    /**
+     * Returns the graph without its {@link graphs.IndexedGraph} view, so that solvers keep their search state in hash
+     * maps.
+     */
+    private static AStarGraph<Point> mapBased(MapGraph map) {
+        return new AStarGraph<>() {
+            @Override
+            public void forEachNeighbor(Point vertex, EdgeConsumer<? super Point> action) {
+                map.forEachNeighbor(vertex, action);
+            }
+
+            @Override
+            public double estimatedDistance(Point start, Point end) {
+                return map.estimatedDistance(start, end);
+            }
+        };
+    }
+
+    @Test
+    void shortestPathMatchesMapBasedSolver() {
+        AStarGraph<Point> mapBased = mapBased(map);
+        Random random = new Random(373);
+        for (int i = 0; i < 200; i += 1) {
+            Point from = map.closest(points.get(random.nextInt(points.size())));
+            Point to = map.closest(points.get(random.nextInt(points.size())));
+            List<Point> route = map.shortestPath(from, to);
+            assertEquals(from, route.get(0));
+            assertEquals(to, route.get(route.size() - 1));
+            assertEquals(length(new DijkstraSolver<>(mapBased, from).solution(to)), length(route), EPSILON);
+        }
+    }
+
+    @Test
+    void routeCacheCountsAreExported() {
+        String scrape = map.metrics().scrape();
+        for (String counter : List.of("hits", "misses", "coalesced", "evictions")) {
+            assertTrue(scrape.contains("huskymaps_route_cache_" + counter + "_total "), counter);
+        }
+    }
+
+    @Test
+    void nestedSearchesDoNotShareState() {
+        Random random = new Random(373);
+        Point from = map.closest(points.get(random.nextInt(points.size())));
+        Point to = map.closest(points.get(random.nextInt(points.size())));
+        Point otherFrom = map.closest(points.get(random.nextInt(points.size())));
+        Point otherTo = map.closest(points.get(random.nextInt(points.size())));
+        List<Point> expected = new AStarSolver<>(map, from, to).solution();
+        List<Point> otherExpected = new AStarSolver<>(map, otherFrom, otherTo).solution();
+        // Run another search while the first search holds its search state.
+        List<List<Point>> nested = new ArrayList<>();
+        SearchListener<Point> listener = new SearchListener<>() {
+            @Override
+            public void settled(Point vertex) {
+                if (nested.isEmpty()) {
+                    nested.add(new AStarSolver<>(map, otherFrom, otherTo).solution());
+                }
+            }
+        };
+        assertEquals(expected, new AStarSolver<>(map, from, to, listener).solution());
+        assertEquals(List.of(otherExpected), nested);
+    }
+
+    @Test
+    void concurrentSearchesMatchSequential() throws Exception {
+        Random random = new Random(373);
+        List<Point[]> routes = new ArrayList<>();
+        List<List<Point>> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i += 1) {
+            Point from = map.closest(points.get(random.nextInt(points.size())));
+            Point to = map.closest(points.get(random.nextInt(points.size())));
+            routes.add(new Point[]{from, to});
+            expected.add(new AStarSolver<>(map, from, to).solution());
+        }
+        // Run every search on many more threads than there are pooled search states, bypassing the route cache.
+        int threads = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t += 1) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < routes.size(); i += 1) {
+                        Point[] route = routes.get(i);
+                        assertEquals(expected.get(i), new AStarSolver<>(map, route[0], route[1]).solution());
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Asserts that the solver finds a route as short as Dijkstra's algorithm from each of a few random starts to every
+     * location, including the locations on the island that neither can reach.
+     */
+    private void assertMatchesDijkstra(ShortestPathSolver.InstrumentedConstructor<Point> solver) {
+        Random random = new Random(373);
+        for (int trial = 0; trial < 5; trial += 1) {
+            Point start = points.get(random.nextInt(points.size()));
+            ShortestPathSolver<Point> reference = new DijkstraSolver<>(map, start);
+            ShortestPathSolver<Point> testing = solver.run(map, start, Set.of(), SearchListener.none());
+            for (Point goal : points) {
+                List<Point> expected = reference.solution(goal);
+                List<Point> actual = testing.solution(goal);
+                assertEquals(expected.get(0), actual.get(0), goal.toString());
+                assertEquals(length(expected), length(actual), EPSILON, goal.toString());
+            }
+        }
+    }
+
+    @Test
+    void deltaSteppingMatchesDijkstra() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Streets are about 0.001 degrees apart, so try buckets narrower than, about as wide as, and wider than a
+            // block.
+            for (double delta : new double[]{0.0002, 0.001, 0.01}) {
+                assertMatchesDijkstra(DeltaSteppingSolver.withDelta(delta, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reorderedSPFAMatchesDijkstra() {
+        assertMatchesDijkstra(SPFASolver.withReordering());
+    }
+
+    @Test
+    void radixHeapDijkstraMatchesDijkstra() {
+        assertMatchesDijkstra(DijkstraSolver.withRadixHeap());
+    }
+
+    /**
+     * Experiments on the Seattle road network. Skipped if the OSM data is not on the classpath.
+     */
+    @Nested
+    @Disabled
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class RuntimeExperiments {
+        /**
+         * Number of one-to-all searches per configuration. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+        /**
+         * Number of single-pair searches for short routes, and the number of random road steps between their
+         * endpoints.
+         */
+        private static final int NUM_ROUTES = 10000;
+        private static final int ROUTE_STEPS = 20;
+        private MapGraph map;
+        private List<Point> points;
+
+        @BeforeAll
+        void loadMap() throws Exception {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Assumptions.assumeTrue(loader.getResource("seattle.osm.gz") != null, "seattle.osm.gz is not available");
+            map = new MapGraph("seattle.osm.gz", "places.tsv", SpatialContext.GEO);
+            points = List.copyOf(map.vertices());
+        }
+
+        /**
+         * Print the average time (nanoseconds) of a single-pair A* search between nearby locations with the search
+         * state in pooled arrays reused across searches, and in hash maps for reference. Short routes are the
+         * common case for the server and settle only a few vertices of the whole map.
+         */
+        @Test
+        void shortRoutes() {
+            Random random = new Random(373);
+            List<Point[]> routes = new ArrayList<>();
+            List<Point> neighbors = new ArrayList<>();
+            for (int i = 0; i < NUM_ROUTES; i += 1) {
+                Point start = points.get(random.nextInt(points.size()));
+                Point goal = start;
+                for (int step = 0; step < ROUTE_STEPS; step += 1) {
+                    neighbors.clear();
+                    map.forEachNeighbor(goal, (from, to, weight) -> neighbors.add(to));
+                    if (neighbors.isEmpty()) {
+                        break;
+                    }
+                    goal = neighbors.get(random.nextInt(neighbors.size()));
+                }
+                routes.add(new Point[]{start, goal});
+            }
+            System.out.println("state,time");
+            System.out.printf("arrays,%.0f%n", timeRoutes(map, routes));
+            System.out.printf("maps,%.0f%n", timeRoutes(mapBased(map), routes));
+        }
+
+        /**
+         * Returns the average time in nanoseconds to find each route with A* search.
+         */
+        private double timeRoutes(AStarGraph<Point> graph, List<Point[]> routes) {
+            // Warm up before timing.
+            for (Point[] route : routes) {
+                new AStarSolver<>(graph, route[0], route[1]);
+            }
+            long begin = System.nanoTime();
+            for (Point[] route : routes) {
+                new AStarSolver<>(graph, route[0], route[1]);
+            }
+            return (System.nanoTime() - begin) / (double) routes.size();
+        }
+
+        /**
+         * Print the parallelism, delta (degrees), and average time (nanoseconds) of a one-to-all search from a random
+         * location, with Dijkstra's algorithm as parallelism 0 for reference.
+         */
+        @Test
+        void deltaSteppingScaling() {
+            Point start = points.get(new Random(373).nextInt(points.size()));
+            System.out.println("parallelism,delta,time");
+            System.out.printf("0,0,%.0f%n", time(DijkstraSolver::new, map, start, NUM_TRIALS));
+            for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    for (double delta : new double[]{0.0005, 0.001, 0.005, 0.01}) {
+                        double time = time(DeltaSteppingSolver.withDelta(delta, pool), map, start, NUM_TRIALS);
+                        System.out.printf("%d,%s,%.0f%n", parallelism, delta, time);
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+
+        /**
+         * Print the average time (nanoseconds) and the number of edges relaxed by a one-to-all search from a random
+         * location with Dijkstra's algorithm, SPFA, and SPFA with its queue reordered.
+         */
+        @Test
+        void spfaReordering() {
+            Point start = points.get(new Random(373).nextInt(points.size()));
+            System.out.println("solver,time,relaxations");
+            Map<String, ShortestPathSolver.InstrumentedConstructor<Point>> solvers = new LinkedHashMap<>();
+            solvers.put("dijkstra", DijkstraSolver::new);
+            solvers.put("spfa", SPFASolver::new);
+            solvers.put("reorderedSpfa", SPFASolver.withReordering());
+            SearchStats stats = new SearchStats();
+            for (Map.Entry<String, ShortestPathSolver.InstrumentedConstructor<Point>> entry : solvers.entrySet()) {
+                double time = time(entry.getValue(), map, start, NUM_TRIALS);
+                // Count the work of one search separately so that the listener does not affect the timing.
+                stats.reset();
+                entry.getValue().run(map, start, Set.of(), stats);
+                System.out.printf("%s,%.0f,%d%n", entry.getKey(), time, stats.relaxations());
+            }
+        }
+
+        /**
+         * Print the average time (nanoseconds) of one-to-all and single-pair searches between random locations with
+         * Dijkstra's algorithm keeping its perimeter in a binary heap and in a radix heap.
+         */
+        @Test
+        void radixHeap() {
+            Random random = new Random(373);
+            Point start = points.get(random.nextInt(points.size()));
+            Point goal = points.get(random.nextInt(points.size()));
+            ShortestPathSolver.InstrumentedConstructor<Point> binary = DijkstraSolver::new;
+            ShortestPathSolver.InstrumentedConstructor<Point> radix = DijkstraSolver.withRadixHeap();
+            System.out.println("query,binaryHeapTime,radixHeapTime");
+            System.out.printf("oneToAll,%.0f,%.0f%n", time(binary, map, start, NUM_TRIALS),
+                    time(radix, map, start, NUM_TRIALS));
+            System.out.printf("singlePair,%.0f,%.0f%n", time(binary, map, start, Set.of(goal), NUM_TRIALS),
+                    time(radix, map, start, Set.of(goal), NUM_TRIALS));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MapRenderer} class.
+ *
+ * @see MapRenderer
+ */
+public class MapRendererTests {
+    private static final ShapeFactory factory = SpatialContext.GEO.getShapeFactory();
+    private static final int BACKGROUND = 0xf2efe9;
+    private static final int ROAD = 0xffffff;
+
+    /**
+     * Returns a renderer for a road just east of the antimeridian and short roads in Seattle and Sydney.
+     */
+    private static MapRenderer createRenderer() {
+        Point[][] roads = {
+                {factory.pointLatLon(-10, -170), factory.pointLatLon(10, -170)},
+                {factory.pointLatLon(47.6, -122.3001), factory.pointLatLon(47.6, -122.2999)},
+                {factory.pointLatLon(-33.87, 151.2099), factory.pointLatLon(-33.87, 151.2101)},
+        };
+        return new MapRenderer(new RoadIndex(RoadIndexTests.roadsOf(roads), RoadIndexTests.verticesOf(roads)));
+    }
+
+    /**
+     * Returns the decoded PNG image.
+     */
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    /**
+     * Returns the red-green-blue color of the pixel (x, y) in the image.
+     */
+    private static int rgb(BufferedImage image, int x, int y) {
+        return image.getRGB(x, y) & 0xffffff;
+    }
+
+    @Test
+    void wrapsAroundAntimeridianAndCachesTiles() throws IOException {
+        MapRenderer renderer = createRenderer();
+        // At zoom 0 the world is 1024 pixels wide, so the left edge of a 512-pixel image centered on the antimeridian
+        // is at x = 768 and the road at longitude -170 (x = 28.4) is drawn 1024 + 28.4 - 768 = 284.4 pixels in.
+        byte[] east = renderer.render(factory.pointLatLon(0, 180), 0, 512, 200, List.of(), List.of());
+        BufferedImage image = decode(east);
+        assertEquals(512, image.getWidth());
+        assertEquals(200, image.getHeight());
+        assertNotEquals(BACKGROUND, rgb(image, 284, 100));
+        assertEquals(BACKGROUND, rgb(image, 100, 100));
+        // Two columns by two rows of tiles, one column wrapped around to x = 0.
+        long misses = renderer.tileCache().misses();
+        long hits = renderer.tileCache().hits();
+        assertEquals(4, misses);
+
+        // The same view centered on the other side of the antimeridian reuses the same tiles.
+        byte[] west = renderer.render(factory.pointLatLon(0, -180), 0, 512, 200, List.of(), List.of());
+        assertEquals(misses, renderer.tileCache().misses());
+        assertEquals(hits + 4, renderer.tileCache().hits());
+        assertArrayEquals(east, west);
+    }
+
+    @Test
+    void rendersHighestZoom() throws IOException {
+        MapRenderer renderer = createRenderer();
+        // Pixel coordinates in the south-east quarter of the world are past the range of an int at the highest zoom.
+        for (Point center : List.of(factory.pointLatLon(47.6, -122.3), factory.pointLatLon(-33.87, 151.21))) {
+            BufferedImage image = decode(renderer.render(center, MapRenderer.MAX_ZOOM, 64, 64, List.of(), List.of()));
+            // The road is about 20 pixels wide at the highest zoom level, so the center pixel is inside it.
+            assertEquals(ROAD, rgb(image, 32, 32), center.toString());
+            assertEquals(BACKGROUND, rgb(image, 32, 0), center.toString());
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeViews() {
+        MapRenderer renderer = createRenderer();
+        Point center = factory.pointLatLon(47.6, -122.3);
+        for (int zoom : new int[]{-3, -1, MapRenderer.MAX_ZOOM + 1, Integer.MAX_VALUE}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> renderer.render(center, zoom, 100, 100, List.of(), List.of()));
+        }
+        for (int size : new int[]{0, -1, MapRenderer.MAX_DIMENSION + 1, 100000}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> renderer.render(center, 12, size, 100, List.of(), List.of()));
+            assertThrows(IllegalArgumentException.class,
+                    () -> renderer.render(center, 12, 100, size, List.of(), List.of()));
+        }
+        assertDoesNotThrow(() -> renderer.render(center, MapRenderer.MIN_ZOOM, MapRenderer.MAX_DIMENSION, 1,
+                List.of(), List.of()));
+    }
+}
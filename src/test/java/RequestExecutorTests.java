@@ -0,0 +1,261 @@
+import com.sun.net.httpserver.HttpServer;
+import io.javalin.Javalin;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RequestExecutor} class using a local stand-in for the upstream map image server.
+ *
+ * @see RequestExecutor
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RequestExecutorTests {
+    /**
+     * Artificial upstream latency in milliseconds.
+     */
+    private static final int UPSTREAM_DELAY = 50;
+    /**
+     * Maximum number of Jetty request threads, kept small so that blocking is visible.
+     */
+    private static final int SERVER_THREADS = 16;
+    /**
+     * The local stand-in upstream server, which responds to /{name} with the bytes of the name after a delay.
+     */
+    private HttpServer upstream;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = exchange.getRequestURI().getPath().substring(1).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterAll
+    void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    /**
+     * Returns a started server whose /route/{n} handler computes for about the given number of microseconds and then
+     * fetches the result from the stand-in upstream server.
+     *
+     * @param executor the request executor.
+     * @param micros   the duration of the compute stage in microseconds.
+     * @return a started server.
+     */
+    private Javalin server(RequestExecutor executor, int micros) {
+        Javalin app = Javalin.create(executor::configure).start("127.0.0.1", 0);
+        app.get("/route/{n}", ctx -> {
+            String n = ctx.pathParam("n");
+            executor.respond(ctx, () -> {
+                long deadline = System.nanoTime() + micros * 1000L;
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                return URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + "/" + n).toURL();
+            }, RequestExecutorTests::fetch);
+        });
+        app.get("/fail", ctx -> executor.respond(ctx, () -> {
+            throw new IOException("unreachable");
+        }, RequestExecutorTests::fetch));
+        return app;
+    }
+
+    /**
+     * Returns the bytes of the resource at the given URL.
+     *
+     * @param url the URL of the resource.
+     * @return the bytes of the resource.
+     * @throws IOException if the resource cannot be fetched.
+     */
+    private static byte[] fetch(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the response to a GET request for the given path on the server.
+     *
+     * @param app  the server.
+     * @param path the request path.
+     * @return the response to a GET request.
+     */
+    private CompletableFuture<HttpResponse<String>> get(Javalin app, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + app.port() + path)).build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    void assertResponds(RequestExecutor.Mode mode) {
+        try (RequestExecutor executor = new RequestExecutor(mode, SERVER_THREADS)) {
+            Javalin app = server(executor, 10);
+            try {
+                List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+                for (int i = 0; i < 32; i += 1) {
+                    responses.add(get(app, "/route/" + i));
+                }
+                for (int i = 0; i < responses.size(); i += 1) {
+                    HttpResponse<String> response = responses.get(i).join();
+                    assertEquals(200, response.statusCode());
+                    assertEquals(String.valueOf(i), response.body());
+                }
+                assertEquals(500, get(app, "/fail").join().statusCode());
+            } finally {
+                app.stop();
+            }
+        }
+    }
+
+    @Test
+    void platformResponds() {
+        assertResponds(RequestExecutor.Mode.PLATFORM);
+    }
+
+    @Test
+    void virtualResponds() {
+        assertResponds(RequestExecutor.Mode.VIRTUAL);
+    }
+
+    @Test
+    void asyncResponds() {
+        assertResponds(RequestExecutor.Mode.ASYNC);
+    }
+
+    @Test
+    void asyncRejectsWhenQueueIsFull() throws InterruptedException {
+        int numRequests = 10;
+        // One routing thread and one queued task, so all but two concurrent requests are rejected.
+        try (RequestExecutor executor = new RequestExecutor(RequestExecutor.Mode.ASYNC, SERVER_THREADS, 1, 1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Javalin app = Javalin.create(executor::configure).start("127.0.0.1", 0);
+            app.get("/block", ctx -> executor.respond(ctx, () -> {
+                started.countDown();
+                release.await();
+                return "done";
+            }, result -> result.getBytes(StandardCharsets.UTF_8)));
+            try {
+                List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+                responses.add(get(app, "/block"));
+                started.await();
+                for (int i = 1; i < numRequests; i += 1) {
+                    responses.add(get(app, "/block"));
+                }
+                // Wait for the rejections so that every request has reached the executor before releasing the others.
+                long deadline = System.nanoTime() + 10_000_000_000L;
+                while (responses.stream().filter(CompletableFuture::isDone).count() < numRequests - 2) {
+                    assertTrue(System.nanoTime() < deadline, "Requests were not rejected");
+                    Thread.sleep(10);
+                }
+                release.countDown();
+                int ok = 0;
+                int unavailable = 0;
+                for (CompletableFuture<HttpResponse<String>> response : responses) {
+                    int status = response.join().statusCode();
+                    if (status == 200) {
+                        ok += 1;
+                        assertEquals("done", response.join().body());
+                    } else {
+                        assertEquals(503, status);
+                        unavailable += 1;
+                    }
+                }
+                assertEquals(2, ok);
+                assertEquals(numRequests - 2, unavailable);
+            } finally {
+                release.countDown();
+                app.stop();
+            }
+        }
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Number of concurrent clients in each experiment run.
+         */
+        private static final int[] CLIENTS = {16, 64, 256};
+        /**
+         * Number of requests sent by each client.
+         */
+        private static final int REQUESTS_PER_CLIENT = 10;
+        /**
+         * Duration of the simulated routing stage in microseconds.
+         */
+        private static final int ROUTING_MICROS = 500;
+
+        /**
+         * Print the throughput (successful requests per second) and number of rejected requests of each mode for an
+         * increasing number of concurrent clients against the slow stand-in upstream server.
+         */
+        @Test
+        void slowUpstream() {
+            System.out.println("mode,clients,throughput,rejected");
+            for (RequestExecutor.Mode mode : RequestExecutor.Mode.values()) {
+                try (RequestExecutor executor = new RequestExecutor(mode, SERVER_THREADS)) {
+                    Javalin app = server(executor, ROUTING_MICROS);
+                    try {
+                        for (int clients : CLIENTS) {
+                            AtomicInteger rejected = new AtomicInteger();
+                            long start = System.nanoTime();
+                            List<CompletableFuture<Void>> sessions = new ArrayList<>();
+                            for (int c = 0; c < clients; c += 1) {
+                                CompletableFuture<Void> session = CompletableFuture.completedFuture(null);
+                                for (int r = 0; r < REQUESTS_PER_CLIENT; r += 1) {
+                                    String path = "/route/" + c + "-" + r;
+                                    session = session.thenCompose(ignored -> get(app, path))
+                                            .thenAccept(response -> {
+                                                if (response.statusCode() == 503) {
+                                                    rejected.incrementAndGet();
+                                                } else {
+                                                    assertEquals(200, response.statusCode());
+                                                }
+                                            });
+                                }
+                                sessions.add(session);
+                            }
+                            CompletableFuture.allOf(sessions.toArray(new CompletableFuture[0])).join();
+                            double seconds = (System.nanoTime() - start) / 1e9;
+                            int succeeded = clients * REQUESTS_PER_CLIENT - rejected.get();
+                            System.out.printf("%s,%d,%.0f,%d%n", mode, clients, succeeded / seconds, rejected.get());
+                        }
+                    } finally {
+                        app.stop();
+                    }
+                }
+            }
+        }
+    }
+}
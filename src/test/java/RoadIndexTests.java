@@ -0,0 +1,127 @@
+import graphs.Edge;
+import graphs.Graph;
+import org.junit.jupiter.api.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RoadIndex} class.
+ *
+ * @see RoadIndex
+ */
+public class RoadIndexTests {
+    private static final ShapeFactory factory = SpatialContext.GEO.getShapeFactory();
+
+    /**
+     * A road segment as reported by {@link RoadIndex#query(double, double, double, double, RoadIndex.SegmentVisitor)}.
+     */
+    record Segment(double fromLon, double fromLat, double toLon, double toLat) {
+    }
+
+    /**
+     * Returns a graph with a road in both directions between each pair of the given points.
+     */
+    static Graph<Point> roadsOf(Point[]... roads) {
+        Map<Point, List<Edge<Point>>> neighbors = new HashMap<>();
+        for (Point[] road : roads) {
+            neighbors.computeIfAbsent(road[0], p -> new ArrayList<>()).add(new Edge<>(road[0], road[1], 1));
+            neighbors.computeIfAbsent(road[1], p -> new ArrayList<>()).add(new Edge<>(road[1], road[0], 1));
+        }
+        return (vertex, action) -> {
+            for (Edge<Point> edge : neighbors.getOrDefault(vertex, List.of())) {
+                action.accept(edge.from, edge.to, edge.weight);
+            }
+        };
+    }
+
+    /**
+     * Returns every vertex of the given roads.
+     */
+    static Set<Point> verticesOf(Point[]... roads) {
+        Set<Point> result = new HashSet<>();
+        for (Point[] road : roads) {
+            result.add(road[0]);
+            result.add(road[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the segments reported by the index for the query box, failing if any segment is reported twice.
+     */
+    private static Set<Segment> query(RoadIndex index, double minLon, double minLat, double maxLon, double maxLat) {
+        List<Segment> result = new ArrayList<>();
+        index.query(minLon, minLat, maxLon, maxLat,
+                (fromLon, fromLat, toLon, toLat) -> result.add(new Segment(fromLon, fromLat, toLon, toLat)));
+        Set<Segment> unique = new HashSet<>(result);
+        assertEquals(unique.size(), result.size(), "Reported a segment more than once");
+        return unique;
+    }
+
+    @Test
+    void queryMatchesBruteForce() {
+        Random random = new Random(373);
+        Point[][] roads = new Point[2000][];
+        for (int i = 0; i < roads.length; i += 1) {
+            Point from = factory.pointLatLon(47.5 + random.nextDouble() * 0.2, -122.4 + random.nextDouble() * 0.2);
+            // Mostly short roads within a cell or two, with some long roads crossing many cells.
+            double length = random.nextInt(10) == 0 ? 0.1 : 0.005;
+            Point to = factory.pointLatLon(from.getLat() + (random.nextDouble() - 0.5) * length,
+                    from.getLon() + (random.nextDouble() - 0.5) * length);
+            roads[i] = new Point[]{from, to};
+        }
+        RoadIndex index = new RoadIndex(roadsOf(roads), verticesOf(roads));
+        assertEquals(roads.length, index.size());
+
+        for (int trial = 0; trial < 200; trial += 1) {
+            // Include query boxes that extend past the bounds of the index.
+            double minLon = -122.45 + random.nextDouble() * 0.3;
+            double minLat = 47.45 + random.nextDouble() * 0.3;
+            double maxLon = minLon + random.nextDouble() * 0.05;
+            double maxLat = minLat + random.nextDouble() * 0.05;
+            Set<Segment> expected = new HashSet<>();
+            for (Point[] road : roads) {
+                if (Math.max(road[0].getLon(), road[1].getLon()) < minLon
+                        || Math.min(road[0].getLon(), road[1].getLon()) > maxLon
+                        || Math.max(road[0].getLat(), road[1].getLat()) < minLat
+                        || Math.min(road[0].getLat(), road[1].getLat()) > maxLat) {
+                    continue;
+                }
+                expected.add(canonical(road[0], road[1]));
+            }
+            assertEquals(expected, query(index, minLon, minLat, maxLon, maxLat));
+        }
+        assertEquals(roads.length, query(index, -180, -90, 180, 90).size());
+    }
+
+    /**
+     * Returns the segment between the two points in the direction the index stores it.
+     */
+    private static Segment canonical(Point a, Point b) {
+        boolean forward = a.getLon() < b.getLon() || (a.getLon() == b.getLon() && a.getLat() < b.getLat());
+        Point from = forward ? a : b;
+        Point to = forward ? b : a;
+        return new Segment(from.getLon(), from.getLat(), to.getLon(), to.getLat());
+    }
+
+    @Test
+    void emptyAndSingleSegment() {
+        RoadIndex empty = new RoadIndex(roadsOf(), Set.of());
+        assertEquals(0, empty.size());
+        assertEquals(Set.of(), query(empty, -180, -90, 180, 90));
+
+        Point a = factory.pointLatLon(47.6, -122.3);
+        Point b = factory.pointLatLon(47.6, -122.2);
+        RoadIndex single = new RoadIndex(roadsOf(new Point[]{a, b}), Set.of(a, b));
+        assertEquals(1, single.size());
+        assertEquals(Set.of(canonical(a, b)), query(single, -122.25, 47.59, -122.24, 47.61));
+        assertEquals(Set.of(), query(single, -122.25, 47.62, -122.24, 47.63));
+        assertEquals(-122.3, single.minLon());
+        assertEquals(-122.2, single.maxLon());
+    }
+}
@@ -0,0 +1,295 @@
+import io.javalin.Javalin;
+import org.junit.jupiter.api.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link VectorTiles} class, decoding tiles with a minimal protocol buffer reader.
+ *
+ * @see VectorTiles
+ */
+public class VectorTilesTests {
+    private static final ShapeFactory factory = SpatialContext.GEO.getShapeFactory();
+    /**
+     * A location in Seattle at the center of the test roads.
+     */
+    private static final Point CENTER = factory.pointLatLon(47.6, -122.3);
+
+    /**
+     * Returns a tile generator for the given roads and named locations.
+     */
+    private static VectorTiles createTiles(Map<String, List<Point>> places, Point[]... roads) {
+        return new VectorTiles(new RoadIndex(RoadIndexTests.roadsOf(roads), RoadIndexTests.verticesOf(roads)), places);
+    }
+
+    /**
+     * Returns the width of the whole world in tile units at the given zoom level.
+     */
+    private static double world(int z) {
+        return (double) VectorTiles.EXTENT * (1 << z);
+    }
+
+    /**
+     * Returns the {x, y} tile indices of the tile containing the point at the given zoom level.
+     */
+    private static int[] tileOf(Point point, int z) {
+        return new int[]{
+                (int) Math.floor(MapRenderer.x(point.getLon(), world(z)) / VectorTiles.EXTENT),
+                (int) Math.floor(MapRenderer.y(point.getLat(), world(z)) / VectorTiles.EXTENT)
+        };
+    }
+
+    /**
+     * Returns the {x, y} tile-local coordinates of the point in the given tile, rounded to the nearest unit.
+     */
+    private static int[] local(Point point, int z, int[] tile) {
+        return new int[]{
+                (int) Math.round(MapRenderer.x(point.getLon(), world(z)) - (double) tile[0] * VectorTiles.EXTENT),
+                (int) Math.round(MapRenderer.y(point.getLat(), world(z)) - (double) tile[1] * VectorTiles.EXTENT)
+        };
+    }
+
+    /**
+     * Returns the point at the given tile-local coordinates in the given tile.
+     */
+    private static Point point(double x, double y, int z, int[] tile) {
+        return factory.pointLatLon(MapRenderer.lat((double) tile[1] * VectorTiles.EXTENT + y, world(z)),
+                MapRenderer.lon((double) tile[0] * VectorTiles.EXTENT + x, world(z)));
+    }
+
+    /**
+     * Returns the fields of the protocol buffer message by field number, as a {@link Long} for each varint and a
+     * {@code byte[]} for each length-delimited value, failing on any other wire type.
+     */
+    private static Map<Integer, List<Object>> decode(byte[] message) {
+        Map<Integer, List<Object>> fields = new TreeMap<>();
+        int[] position = {0};
+        while (position[0] < message.length) {
+            long key = varint(message, position);
+            int field = (int) (key >>> 3);
+            int wireType = (int) (key & 0x7);
+            Object value;
+            if (wireType == 0) {
+                value = varint(message, position);
+            } else if (wireType == 2) {
+                int length = (int) varint(message, position);
+                value = Arrays.copyOfRange(message, position[0], position[0] + length);
+                position[0] += length;
+            } else {
+                throw new AssertionError("Unexpected wire type " + wireType);
+            }
+            fields.computeIfAbsent(field, f -> new ArrayList<>()).add(value);
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the varint at the position in the message, advancing the position past it.
+     */
+    private static long varint(byte[] message, int[] position) {
+        long result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = message[position[0]];
+            position[0] += 1;
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Returns the packed varints, such as the geometry or tags of a feature.
+     */
+    private static List<Integer> packed(byte[] bytes) {
+        List<Integer> result = new ArrayList<>();
+        int[] position = {0};
+        while (position[0] < bytes.length) {
+            result.add((int) varint(bytes, position));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the zigzag-decoded signed integer.
+     */
+    private static int zigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     * Returns the layers of the tile by name.
+     */
+    private static Map<String, Map<Integer, List<Object>>> layers(byte[] tile) {
+        Map<String, Map<Integer, List<Object>>> result = new LinkedHashMap<>();
+        for (Object bytes : decode(tile).getOrDefault(3, List.of())) {
+            Map<Integer, List<Object>> layer = decode((byte[]) bytes);
+            assertEquals(List.of(2L), layer.get(15), "version");
+            assertEquals(List.of((long) VectorTiles.EXTENT), layer.get(5), "extent");
+            result.put(string(layer.get(1).get(0)), layer);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the features of the layer.
+     */
+    private static List<Map<Integer, List<Object>>> features(Map<Integer, List<Object>> layer) {
+        List<Map<Integer, List<Object>>> result = new ArrayList<>();
+        for (Object bytes : layer.getOrDefault(2, List.of())) {
+            result.add(decode((byte[]) bytes));
+        }
+        return result;
+    }
+
+    private static String string(Object bytes) {
+        return new String((byte[]) bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns each {x1, y1, x2, y2} segment in the geometry of the line feature, failing if the geometry is not a
+     * sequence of single MoveTo and LineTo commands.
+     */
+    private static List<List<Integer>> segments(Map<Integer, List<Object>> feature) {
+        assertEquals(List.of(2L), feature.get(3), "LINESTRING");
+        List<Integer> geometry = packed((byte[]) feature.get(4).get(0));
+        List<List<Integer>> result = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < geometry.size(); i += 6) {
+            assertEquals((1 << 3) | 1, geometry.get(i), "MoveTo with count 1");
+            x += zigzag(geometry.get(i + 1));
+            y += zigzag(geometry.get(i + 2));
+            assertEquals((1 << 3) | 2, geometry.get(i + 3), "LineTo with count 1");
+            int x2 = x + zigzag(geometry.get(i + 4));
+            int y2 = y + zigzag(geometry.get(i + 5));
+            result.add(List.of(x, y, x2, y2));
+            x = x2;
+            y = y2;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the segments in the roads layer of the tile, or an empty list if there is no roads layer.
+     */
+    private static List<List<Integer>> roadSegments(byte[] tile) {
+        Map<Integer, List<Object>> roads = layers(tile).get("roads");
+        if (roads == null) {
+            return List.of();
+        }
+        List<Map<Integer, List<Object>>> features = features(roads);
+        assertEquals(1, features.size());
+        return segments(features.get(0));
+    }
+
+    @Test
+    void encodesLayersAndGeometry() {
+        Point west = factory.pointLatLon(47.6, -122.3001);
+        Point east = factory.pointLatLon(47.6, -122.2999);
+        Point place = factory.pointLatLon(47.6001, -122.3);
+        VectorTiles tiles = createTiles(Map.of("Test Place", List.of(place)), new Point[]{east, west});
+        int z = VectorTiles.FULL_DETAIL_ZOOM;
+        int[] tile = tileOf(CENTER, z);
+        Map<String, Map<Integer, List<Object>>> layers = layers(tiles.tile(z, tile[0], tile[1]));
+        assertEquals(List.of("roads", "places"), List.copyOf(layers.keySet()));
+
+        // Each road is stored once, from its western endpoint.
+        int[] from = local(west, z, tile);
+        int[] to = local(east, z, tile);
+        assertEquals(List.of(List.of(from[0], from[1], to[0], to[1])), segments(features(layers.get("roads")).get(0)));
+
+        Map<Integer, List<Object>> places = layers.get("places");
+        assertEquals(List.of("name"), places.get(3).stream().map(VectorTilesTests::string).toList());
+        assertEquals(1, places.get(4).size());
+        assertEquals("Test Place", string(decode((byte[]) places.get(4).get(0)).get(1).get(0)));
+        Map<Integer, List<Object>> feature = features(places).get(0);
+        assertEquals(List.of(1L), feature.get(3), "POINT");
+        assertEquals(List.of(0, 0), packed((byte[]) feature.get(2).get(0)));
+        int[] expected = local(place, z, tile);
+        List<Integer> geometry = packed((byte[]) feature.get(4).get(0));
+        assertEquals(List.of((1 << 3) | 1, expected[0], expected[1]),
+                List.of(geometry.get(0), zigzag(geometry.get(1)), zigzag(geometry.get(2))));
+    }
+
+    @Test
+    void snapsBelowFullDetailAndAddsPlacesFromMinZoom() {
+        Point west = factory.pointLatLon(47.6, -122.305);
+        Point east = factory.pointLatLon(47.602, -122.295);
+        // A nearly identical copy of the road, and a road too short to see below full detail.
+        Point nearWest = factory.pointLatLon(47.6, -122.3050001);
+        Point tinyWest = factory.pointLatLon(47.599, -122.3);
+        Point tinyEast = factory.pointLatLon(47.599, -122.29999);
+        VectorTiles tiles = createTiles(Map.of("Test Place", List.of(CENTER)),
+                new Point[]{west, east}, new Point[]{nearWest, east}, new Point[]{tinyWest, tinyEast});
+
+        int z = VectorTiles.PLACES_MIN_ZOOM;
+        int grid = 1 << (VectorTiles.FULL_DETAIL_ZOOM - z);
+        int[] tile = tileOf(CENTER, z);
+        byte[] bytes = tiles.tile(z, tile[0], tile[1]);
+        List<List<Integer>> segments = roadSegments(bytes);
+        // The copy snaps to a duplicate and the short road collapses to a point.
+        assertEquals(1, segments.size());
+        for (int coordinate : segments.get(0)) {
+            assertEquals(0, Math.floorMod(coordinate, grid), segments.toString());
+        }
+        assertTrue(layers(bytes).containsKey("places"));
+
+        int[] lower = tileOf(CENTER, z - 1);
+        assertEquals(List.of("roads"), List.copyOf(layers(tiles.tile(z - 1, lower[0], lower[1])).keySet()));
+
+        int[] full = tileOf(CENTER, VectorTiles.FULL_DETAIL_ZOOM);
+        assertEquals(2, roadSegments(tiles.tile(VectorTiles.FULL_DETAIL_ZOOM, full[0], full[1])).size());
+    }
+
+    @Test
+    void keepsLongSegmentsThatAgreeModulo65536() {
+        int z = VectorTiles.FULL_DETAIL_ZOOM;
+        int[] tile = tileOf(CENTER, z);
+        // Both roads cross the tile, and their tile-local x-coordinates differ by exactly 65536.
+        Point[] first = {point(-70000, 2048, z, tile), point(70000, 2048, z, tile)};
+        Point[] second = {point(-70000 + 65536, 2048, z, tile), point(70000 + 65536, 2048, z, tile)};
+        VectorTiles tiles = createTiles(Map.of(), first, second);
+        Set<List<Integer>> expected = Set.of(List.of(-70000, 2048, 70000, 2048),
+                List.of(-70000 + 65536, 2048, 70000 + 65536, 2048));
+        assertEquals(expected, Set.copyOf(roadSegments(tiles.tile(z, tile[0], tile[1]))));
+    }
+
+    @Test
+    void rejectsOutOfRangeTiles() throws Exception {
+        VectorTiles tiles = createTiles(Map.of(), new Point[]{CENTER, factory.pointLatLon(47.61, -122.31)});
+        assertThrows(IllegalArgumentException.class, () -> tiles.tile(VectorTiles.MAX_ZOOM + 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> tiles.tile(31, 0, 0));
+
+        Javalin app = Javalin.create().start("127.0.0.1", 0);
+        try {
+            MapServer.addTileRoute(app, tiles);
+            HttpClient client = HttpClient.newHttpClient();
+            int[] tile = tileOf(CENTER, 12);
+            HttpResponse<byte[]> ok = client.send(HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + app.port() + "/tiles/12/" + tile[0] + "/" + tile[1]))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, ok.statusCode());
+            assertEquals("application/vnd.mapbox-vector-tile", ok.headers().firstValue("Content-Type").orElseThrow());
+            assertArrayEquals(tiles.tile(12, tile[0], tile[1]), ok.body());
+            for (String path : List.of("-1/0/0", "23/0/0", "3/8/0", "3/0/8", "3/-1/0", "3/0/-1", "a/0/0")) {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                                URI.create("http://127.0.0.1:" + app.port() + "/tiles/" + path)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(400, response.statusCode(), path);
+            }
+        } finally {
+            app.stop();
+        }
+    }
+}
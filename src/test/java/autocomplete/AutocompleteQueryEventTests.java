@@ -0,0 +1,81 @@
+package autocomplete;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link AutocompleteQueryEvent} Java Flight Recorder event.
+ *
+ * @see AutocompleteQueryEvent
+ */
+public class AutocompleteQueryEventTests {
+    private static final List<CharSequence> TERMS = List.of("alpha", "alphabet", "beta");
+
+    /**
+     * Returns the autocomplete query events recorded while running the given queries.
+     *
+     * @param directory the directory for the recording file.
+     * @param threshold the minimum duration of recorded events.
+     * @param queries   the queries to run.
+     * @return the autocomplete query events recorded while running the queries.
+     * @throws IOException if the recording cannot be written or read.
+     */
+    private static List<RecordedEvent> record(Path directory, Duration threshold, Runnable queries)
+            throws IOException {
+        Path file = directory.resolve("autocomplete.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("huskymaps.AutocompleteQuery").withThreshold(threshold);
+            recording.start();
+            queries.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("huskymaps.AutocompleteQuery")) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void queriesAreRecorded(@TempDir Path directory) throws IOException {
+        Autocomplete treeSet = new TreeSetAutocomplete();
+        treeSet.addAll(TERMS);
+        Autocomplete sequential = new SequentialSearchAutocomplete();
+        sequential.addAll(TERMS);
+        List<RecordedEvent> events = record(directory, Duration.ZERO, () -> {
+            treeSet.allMatches("alp");
+            sequential.allMatches("b");
+        });
+        assertEquals(2, events.size());
+        RecordedEvent first = events.get(0);
+        assertEquals("TreeSetAutocomplete", first.getString("implementation"));
+        assertEquals(3, first.getInt("prefixLength"));
+        assertEquals(2, first.getInt("matchCount"));
+        RecordedEvent second = events.get(1);
+        assertEquals("SequentialSearchAutocomplete", second.getString("implementation"));
+        assertEquals(1, second.getInt("prefixLength"));
+        assertEquals(1, second.getInt("matchCount"));
+    }
+
+    @Test
+    void fastQueriesAreBelowThreshold(@TempDir Path directory) throws IOException {
+        Autocomplete autocomplete = new TreeSetAutocomplete();
+        autocomplete.addAll(TERMS);
+        List<RecordedEvent> events = record(directory, Duration.ofHours(1), () -> autocomplete.allMatches("alp"));
+        assertEquals(List.of(), events);
+    }
+}
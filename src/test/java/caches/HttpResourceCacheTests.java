@@ -0,0 +1,229 @@
+package caches;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link HttpResourceCache} class using a local stand-in for the upstream HTTP server.
+ *
+ * @see HttpResourceCache
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HttpResourceCacheTests {
+    /**
+     * Artificial upstream latency in milliseconds.
+     */
+    private static final int UPSTREAM_DELAY = 20;
+    /**
+     * The local stand-in upstream server, which responds to /{name} with the bytes of the name.
+     */
+    private HttpServer upstream;
+    /**
+     * The number of requests the upstream server has received.
+     */
+    private final AtomicInteger requests = new AtomicInteger();
+    /**
+     * Released to let requests for /stall respond.
+     */
+    private CountDownLatch stall;
+
+    @BeforeAll
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String name = exchange.getRequestURI().getPath().substring(1);
+            try {
+                Thread.sleep(UPSTREAM_DELAY);
+                if (name.equals("stall")) {
+                    stall.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = name.equals("missing") ? 404 : 200;
+            byte[] body = name.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterAll
+    void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @BeforeEach
+    void resetRequests() {
+        requests.set(0);
+        stall = new CountDownLatch(1);
+    }
+
+    /**
+     * Returns the URL of the given name on the stand-in upstream server.
+     *
+     * @param name the path of the resource.
+     * @return the URL of the given name on the stand-in upstream server.
+     * @throws IOException if the URL is malformed.
+     */
+    private URL url(String name) throws IOException {
+        return URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + "/" + name).toURL();
+    }
+
+    @Test
+    void repeatedRequestFetchesOnce() throws IOException {
+        HttpResourceCache cache = new HttpResourceCache(1 << 20, false, null, 1 << 20);
+        for (int i = 0; i < 10; i += 1) {
+            assertArrayEquals("tile".getBytes(StandardCharsets.UTF_8), cache.get(url("tile")));
+        }
+        assertEquals(1, requests.get());
+        assertEquals(1, cache.fetches());
+        assertEquals(9, cache.memory().hits());
+    }
+
+    @Test
+    void storesBase64Encoded() throws IOException {
+        HttpResourceCache cache = new HttpResourceCache(1 << 20, true, null, 1 << 20);
+        byte[] encoded = cache.get(url("image"));
+        assertArrayEquals("image".getBytes(StandardCharsets.UTF_8), Base64.decodeBase64(encoded));
+    }
+
+    @Test
+    void diskTierSurvivesRestart(@TempDir Path directory) throws IOException {
+        HttpResourceCache first = new HttpResourceCache(1 << 20, true, directory, 1 << 20);
+        byte[] expected = first.get(url("persisted"));
+        HttpResourceCache second = new HttpResourceCache(1 << 20, true, directory, 1 << 20);
+        assertArrayEquals(expected, second.get(url("persisted")));
+        assertEquals(1, requests.get());
+        assertEquals(1, second.diskHits());
+        assertEquals(0, second.fetches());
+    }
+
+    @Test
+    void failedFetchIsNotCached() throws IOException {
+        HttpResourceCache cache = new HttpResourceCache(1 << 20, false, null, 1 << 20);
+        assertThrows(IOException.class, () -> cache.get(url("missing")));
+        assertThrows(IOException.class, () -> cache.get(url("missing")));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void diskTierStaysWithinBudget(@TempDir Path directory) throws IOException {
+        // Each resource is the 5 bytes of its name, so the budget holds three of them.
+        HttpResourceCache cache = new HttpResourceCache(1 << 20, false, directory, 15);
+        for (int i = 0; i < 5; i += 1) {
+            URL url = url("file" + i);
+            cache.get(url);
+            // Make the order of use unambiguous regardless of the file system timestamp resolution.
+            Files.setLastModifiedTime(directory.resolve(DigestUtils.sha256Hex(url.toString())),
+                    FileTime.fromMillis(1000L * i));
+        }
+        assertEquals(15, cache.diskBytes());
+        assertEquals(2, cache.diskEvictions());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+
+        // The most recently used resources are kept on disk and the least recently used must be fetched again.
+        HttpResourceCache restarted = new HttpResourceCache(1 << 20, false, directory, 15);
+        assertEquals(15, restarted.diskBytes());
+        requests.set(0);
+        restarted.get(url("file4"));
+        assertEquals(0, requests.get());
+        restarted.get(url("file0"));
+        assertEquals(1, requests.get());
+        assertEquals(15, restarted.diskBytes());
+
+        // A smaller budget trims the existing files on startup.
+        HttpResourceCache smaller = new HttpResourceCache(1 << 20, false, directory, 5);
+        assertEquals(5, smaller.diskBytes());
+        assertEquals(2, smaller.diskEvictions());
+    }
+
+    @Test
+    void stalledFetchFailsEveryWaiter() throws Exception {
+        HttpResourceCache cache = new HttpResourceCache(1 << 20, false, null, 1 << 20, 200);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            long start = System.nanoTime();
+            List<Future<byte[]>> waiters = new ArrayList<>();
+            for (int i = 0; i < 2; i += 1) {
+                waiters.add(executor.submit(() -> cache.get(url("stall"))));
+            }
+            for (Future<byte[]> waiter : waiters) {
+                ExecutionException e = assertThrows(ExecutionException.class, waiter::get);
+                assertInstanceOf(IOException.class, e.getCause());
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        } finally {
+            stall.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Number of distinct URLs requested. Making this smaller increases the hit rate.
+         */
+        private static final int NUM_URLS = 50;
+        /**
+         * Number of requests per experiment run.
+         */
+        private static final int NUM_REQUESTS = 1000;
+
+        /**
+         * Print the hit rate and average request latency (nanoseconds) for a skewed request distribution where the
+         * i-th URL is requested with probability proportional to 1 / i.
+         */
+        @Test
+        void skewedRequests() throws IOException {
+            HttpResourceCache cache = new HttpResourceCache(1 << 20, true, null, 1 << 20);
+            Random random = new Random(373);
+            double[] cumulative = new double[NUM_URLS];
+            double total = 0;
+            for (int i = 0; i < NUM_URLS; i += 1) {
+                total += 1.0 / (i + 1);
+                cumulative[i] = total;
+            }
+            long totalTime = 0;
+            for (int i = 0; i < NUM_REQUESTS; i += 1) {
+                double r = random.nextDouble() * total;
+                int index = 0;
+                while (cumulative[index] < r) {
+                    index += 1;
+                }
+                long start = System.nanoTime();
+                cache.get(url("tile" + index));
+                totalTime += System.nanoTime() - start;
+            }
+            System.out.printf("hit rate: %.3f%n", cache.memory().hits() / (double) NUM_REQUESTS);
+            System.out.printf("average latency: %.0f%n", totalTime / (double) NUM_REQUESTS);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package caches;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link SegmentedLruCache} class.
+ *
+ * @see SegmentedLruCache
+ */
+public class SegmentedLruCacheTests {
+
+    @Test
+    void secondLookupIsHit() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(100, value -> 1);
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("A", cache.get("a", key -> fail("should be cached")));
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void weightBudgetIsRespected() {
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(10, value -> 3);
+        for (int i = 0; i < 100; i += 1) {
+            cache.put(i, i);
+            assertTrue(cache.weight() <= 10);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(97, cache.evictions());
+    }
+
+    @Test
+    void popularEntriesSurviveScan() {
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(10, value -> 1);
+        for (int i = 0; i < 5; i += 1) {
+            cache.put(i, i);
+            cache.getIfPresent(i);
+        }
+        // A scan of one-off keys should only evict other one-off keys.
+        for (int i = 100; i < 1000; i += 1) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 5; i += 1) {
+            assertEquals(i, cache.getIfPresent(i));
+        }
+    }
+
+    @Test
+    void oversizedValueIsRejected() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(4, String::length);
+        cache.put("big", "too large");
+        assertNull(cache.getIfPresent("big"));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void concurrentLoadsAreCoalesced() throws InterruptedException {
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(100, value -> 1);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int numThreads = 8;
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < numThreads; i += 1) {
+            Thread thread = new Thread(() -> {
+                int result = cache.get("route", key -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return 42;
+                });
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        started.await();
+        // Give the other threads a chance to find the load in flight before releasing it.
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(numThreads, results.size());
+        assertTrue(results.stream().allMatch(result -> result == 42));
+        assertEquals(numThreads, cache.misses() + cache.hits() + cache.coalesced());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(100, value -> 1);
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("A", cache.get("a", String::toUpperCase));
+    }
+}
@@ -0,0 +1,222 @@
+package deques;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link IntDeque} class, following the {@link DequeTests} cases where an empty deque or invalid index
+ * throws an exception instead of returning null.
+ *
+ * @see IntDeque
+ */
+public class IntDequeTests {
+    @Test
+    void emptyDequeThrows() {
+        IntDeque deque = new IntDeque();
+        assertTrue(deque.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(1));
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+    }
+
+    @Test
+    void getEachAfterAddToOppositeEndsReturnsCorrectElements() {
+        IntDeque deque = new IntDeque();
+        deque.addFirst(1);
+        deque.addLast(2);
+        assertEquals(1, deque.get(0));
+        assertEquals(2, deque.get(1));
+        assertEquals(2, deque.size());
+        assertEquals(1, deque.removeFirst());
+        assertEquals(2, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void confusingTest() {
+        IntDeque deque = new IntDeque();
+        deque.addFirst(0);
+        assertEquals(0, deque.get(0));
+
+        deque.addLast(1);
+        assertEquals(1, deque.get(1));
+
+        deque.addFirst(-1);
+        deque.addLast(2);
+        assertEquals(2, deque.get(3));
+
+        deque.addLast(3);
+        deque.addLast(4);
+
+        // Test that removing and adding back is okay
+        assertEquals(-1, deque.removeFirst());
+        deque.addFirst(-1);
+        assertEquals(-1, deque.get(0));
+
+        deque.addLast(5);
+        deque.addFirst(-2);
+        deque.addFirst(-3);
+
+        // Test a tricky sequence of removes
+        assertEquals(-3, deque.removeFirst());
+        assertEquals(5, deque.removeLast());
+        assertEquals(4, deque.removeLast());
+        assertEquals(3, deque.removeLast());
+        assertEquals(2, deque.removeLast());
+        assertEquals(1, deque.removeLast());
+        assertEquals("[-2, -1, 0]", deque.toString());
+    }
+
+    @Test
+    void bulkAddAndDrainWrapAround() {
+        IntDeque deque = new IntDeque();
+        // Move the front near the end of the array so bulk operations wrap around.
+        for (int i = 0; i < 6; i += 1) {
+            deque.addLast(-1);
+            deque.removeFirst();
+        }
+        int[] elements = new int[100];
+        for (int i = 0; i < elements.length; i += 1) {
+            elements[i] = i;
+        }
+        deque.addAllLast(elements, 0, 5);
+        deque.addAllLast(elements, 5, 100);
+        assertEquals(100, deque.size());
+        int[] drained = new int[60];
+        assertEquals(50, deque.drainFirst(drained, 10, 60));
+        for (int i = 0; i < 50; i += 1) {
+            assertEquals(i, drained[10 + i]);
+        }
+        assertEquals(50, deque.drainFirst(drained, 0, 60));
+        assertEquals(99, drained[49]);
+        assertEquals(0, deque.drainFirst(drained, 0, 60));
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void randomOperationsMatchArrayDeque() {
+        Random random = new Random(373);
+        Deque<Integer> reference = new ArrayDeque<>();
+        IntDeque testing = new IntDeque();
+        int[] buffer = new int[32];
+        for (int i = 0; i < 100000; i += 1) {
+            int operation = random.nextInt(6);
+            if (operation == 0) {
+                reference.addFirst(i);
+                testing.addFirst(i);
+            } else if (operation == 1) {
+                reference.addLast(i);
+                testing.addLast(i);
+            } else if (operation == 2 && !reference.isEmpty()) {
+                assertEquals(reference.removeFirst(), testing.removeFirst());
+            } else if (operation == 3 && !reference.isEmpty()) {
+                assertEquals(reference.removeLast(), testing.removeLast());
+            } else if (operation == 4) {
+                int count = random.nextInt(buffer.length);
+                for (int j = 0; j < count; j += 1) {
+                    buffer[j] = i + j;
+                    reference.addLast(i + j);
+                }
+                testing.addAllLast(buffer, 0, count);
+            } else if (operation == 5) {
+                int count = testing.drainFirst(buffer, 0, random.nextInt(buffer.length));
+                for (int j = 0; j < count; j += 1) {
+                    assertEquals(reference.removeFirst(), buffer[j]);
+                }
+            }
+            assertEquals(reference.size(), testing.size());
+            if (!reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                assertEquals(reference.get(index), testing.get(index));
+            }
+        }
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Maximum number of elements in the queue. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 1000000;
+        /**
+         * Number of trials per queue size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 10;
+
+        /**
+         * Print the queue size, and the average time (nanoseconds) to add that many integers to the back of a deque
+         * and then remove them all from the front, like a breadth-first search frontier, for an {@link ArrayDeque}, a
+         * {@link LinkedDeque}, an {@link IntDeque}, and an {@link IntDeque} using bulk operations.
+         */
+        @Test
+        void fifo() {
+            System.out.println("size,arrayDequeTime,linkedDequeTime,intDequeTime,intDequeBulkTime");
+            for (int size = 1000; size <= MAX_SIZE; size *= 10) {
+                int[] elements = new int[size];
+                for (int i = 0; i < size; i += 1) {
+                    elements[i] = i;
+                }
+                int n = size;
+                long arrayTime = time(() -> boxedFifo(new ArrayDeque<>(), n));
+                long linkedTime = time(() -> boxedFifo(new LinkedDeque<>(), n));
+                long intTime = time(() -> {
+                    IntDeque deque = new IntDeque();
+                    for (int i = 0; i < n; i += 1) {
+                        deque.addLast(i);
+                    }
+                    long sum = 0;
+                    while (!deque.isEmpty()) {
+                        sum += deque.removeFirst();
+                    }
+                    return sum;
+                });
+                long bulkTime = time(() -> {
+                    IntDeque deque = new IntDeque();
+                    deque.addAllLast(elements, 0, n);
+                    int[] drained = new int[n];
+                    deque.drainFirst(drained, 0, n);
+                    return (long) drained[n - 1];
+                });
+                System.out.printf("%d,%d,%d,%d,%d%n", size, arrayTime, linkedTime, intTime, bulkTime);
+            }
+        }
+
+        /**
+         * Adds the integers from 0 to n to the back of the deque, then removes them all from the front.
+         */
+        private long boxedFifo(Deque<Integer> deque, int n) {
+            for (int i = 0; i < n; i += 1) {
+                deque.addLast(i);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            return sum;
+        }
+
+        /**
+         * Returns the average time (nanoseconds) to run the workload after warming it up.
+         */
+        private long time(Supplier<Long> workload) {
+            long result = workload.get();
+            long start = System.nanoTime();
+            for (int i = 0; i < NUM_TRIALS; i += 1) {
+                result += workload.get();
+            }
+            long time = System.nanoTime() - start;
+            // Use the result so the workload can't be optimized away.
+            return result == Long.MIN_VALUE ? 0 : time / NUM_TRIALS;
+        }
+    }
+}
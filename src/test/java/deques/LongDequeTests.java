@@ -0,0 +1,79 @@
+package deques;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link LongDeque} class, following the {@link DequeTests} cases where an empty deque or invalid index
+ * throws an exception instead of returning null.
+ *
+ * @see LongDeque
+ */
+public class LongDequeTests {
+    @Test
+    void emptyDequeThrows() {
+        LongDeque deque = new LongDeque();
+        assertTrue(deque.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> deque.get(0));
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::removeLast);
+        assertThrows(IllegalArgumentException.class, () -> new LongDeque(-1));
+    }
+
+    @Test
+    void addManyKeepsLongValues() {
+        LongDeque deque = new LongDeque(3);
+        for (long i = 0; i < 20; i += 1) {
+            deque.addFirst(Long.MAX_VALUE - i);
+        }
+        assertEquals(20, deque.size());
+        assertEquals(Long.MAX_VALUE - 19, deque.get(0));
+        assertEquals(Long.MAX_VALUE, deque.removeLast());
+        deque.clear();
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    void randomOperationsMatchArrayDeque() {
+        Random random = new Random(373);
+        Deque<Long> reference = new ArrayDeque<>();
+        LongDeque testing = new LongDeque();
+        long[] buffer = new long[32];
+        for (int i = 0; i < 100000; i += 1) {
+            long element = random.nextLong();
+            int operation = random.nextInt(6);
+            if (operation == 0) {
+                reference.addFirst(element);
+                testing.addFirst(element);
+            } else if (operation == 1) {
+                reference.addLast(element);
+                testing.addLast(element);
+            } else if (operation == 2 && !reference.isEmpty()) {
+                assertEquals(reference.removeFirst(), testing.removeFirst());
+            } else if (operation == 3 && !reference.isEmpty()) {
+                assertEquals(reference.removeLast(), testing.removeLast());
+            } else if (operation == 4) {
+                int count = random.nextInt(buffer.length);
+                for (int j = 0; j < count; j += 1) {
+                    buffer[j] = element + j;
+                    reference.addLast(element + j);
+                }
+                testing.addAllLast(buffer, 0, count);
+            } else if (operation == 5) {
+                int count = testing.drainFirst(buffer, 0, random.nextInt(buffer.length));
+                for (int j = 0; j < count; j += 1) {
+                    assertEquals(reference.removeFirst(), buffer[j]);
+                }
+            }
+            assertEquals(reference.size(), testing.size());
+            if (!reference.isEmpty()) {
+                int index = random.nextInt(reference.size());
+                assertEquals(reference.get(index), testing.get(index));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package deques;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link UnrolledLinkedDeque} class.
+ *
+ * @see UnrolledLinkedDeque
+ */
+public class UnrolledLinkedDequeTests extends DequeTests {
+    @Override
+    public <E> Deque<E> createDeque() {
+        return new UnrolledLinkedDeque<>();
+    }
+
+    @Test
+    void getEachAfterAddManyToBothSidesReturnsCorrectElements() {
+        int numElements = 1000;
+        Deque<Integer> deque = createDeque();
+        for (int i = 0; i < numElements; i += 1) {
+            deque.addFirst(-1 - i);
+            deque.addLast(i);
+        }
+        assertEquals(2 * numElements, deque.size());
+        for (int i = 0; i < 2 * numElements; i += 1) {
+            assertEquals(i - numElements, deque.get(i));
+        }
+        // Remove through several chunks from each end, then grow again to reuse pooled chunks.
+        for (int i = 0; i < numElements - 1; i += 1) {
+            assertEquals(-numElements + i, deque.removeFirst());
+            assertEquals(numElements - 1 - i, deque.removeLast());
+        }
+        assertEquals("[-1, 0]", deque.toString());
+        for (int i = 1; i < numElements; i += 1) {
+            deque.addLast(i);
+        }
+        assertEquals(numElements - 1, deque.get(numElements));
+    }
+
+    @Test
+    void randomOperationsMatchArrayDeque() {
+        Random random = new Random(373);
+        Deque<Integer> reference = new ArrayDeque<>();
+        Deque<Integer> testing = createDeque();
+        for (int i = 0; i < 100000; i += 1) {
+            // Favor adding so that the deques span many chunks.
+            int operation = random.nextInt(5);
+            if (operation == 0) {
+                reference.addFirst(i);
+                testing.addFirst(i);
+            } else if (operation <= 2) {
+                reference.addLast(i);
+                testing.addLast(i);
+            } else if (operation == 3) {
+                assertEquals(reference.removeFirst(), testing.removeFirst());
+            } else {
+                assertEquals(reference.removeLast(), testing.removeLast());
+            }
+            assertEquals(reference.size(), testing.size());
+            int index = random.nextInt(reference.size() + 2) - 1;
+            assertEquals(reference.get(index), testing.get(index));
+        }
+    }
+
+    @Nested
+    @Disabled
+    class LatencyExperiments {
+        /**
+         * Maximum number of elements to add. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 1000000;
+        /**
+         * Number of calls to get per deque size.
+         */
+        private static final int NUM_GETS = 1000;
+
+        /**
+         * Print the deque size, and for an {@link ArrayDeque}, a {@link LinkedDeque}, and an
+         * {@link UnrolledLinkedDeque}, the total and maximum times (nanoseconds) to add that many elements to the back of
+         * the deque, and the average time for get at a random index.
+         */
+        @Test
+        void addAndGet() {
+            System.out.println("size,arrayAddTime,arrayMaxAddTime,arrayGetTime,linkedAddTime,linkedMaxAddTime,"
+                    + "linkedGetTime,unrolledAddTime,unrolledMaxAddTime,unrolledGetTime");
+            for (int size = 1000; size <= MAX_SIZE; size *= 10) {
+                System.out.print(size);
+                for (Supplier<Deque<Integer>> createDeque : List.<Supplier<Deque<Integer>>>of(
+                        ArrayDeque::new, LinkedDeque::new, UnrolledLinkedDeque::new)) {
+                    // Warm up before timing.
+                    addAndGet(createDeque.get(), size, new Random(size));
+                    long[] times = addAndGet(createDeque.get(), size, new Random(size));
+                    System.out.printf(",%d,%d,%d", times[0], times[1], times[2]);
+                }
+                System.out.println();
+            }
+        }
+
+        /**
+         * Returns the total and maximum times to add the given number of elements to the deque, and the average time
+         * to get an element at a random index.
+         */
+        private long[] addAndGet(Deque<Integer> deque, int size, Random random) {
+            long total = 0;
+            long max = 0;
+            for (int i = 0; i < size; i += 1) {
+                long start = System.nanoTime();
+                deque.addLast(i);
+                long time = System.nanoTime() - start;
+                total += time;
+                max = Math.max(max, time);
+            }
+            long sum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < NUM_GETS; i += 1) {
+                sum += deque.get(random.nextInt(size));
+            }
+            long getTime = (System.nanoTime() - start) / NUM_GETS;
+            return new long[]{total, max, sum == Long.MIN_VALUE ? 0 : getTime};
+        }
+    }
+}
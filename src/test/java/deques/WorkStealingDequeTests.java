@@ -0,0 +1,205 @@
+package deques;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link WorkStealingDeque} class.
+ *
+ * @see WorkStealingDeque
+ */
+public class WorkStealingDequeTests {
+    @Test
+    void ownerRemovesLastAndThiefRemovesFirst() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        assertNull(deque.removeLast());
+        assertNull(deque.removeFirst());
+        assertNull(deque.get(0));
+        // Add enough elements to grow the array several times.
+        for (int i = 0; i < 100; i += 1) {
+            deque.addLast(i);
+        }
+        assertEquals(100, deque.size());
+        assertEquals(42, deque.get(42));
+        assertEquals(99, deque.removeLast());
+        assertEquals(0, deque.removeFirst());
+        assertEquals(98, deque.removeLast());
+        assertEquals(1, deque.removeFirst());
+        for (int i = 2; i < 98; i += 1) {
+            assertEquals(i, deque.removeFirst());
+        }
+        assertTrue(deque.isEmpty());
+        assertNull(deque.removeLast());
+        // The deque remains usable after removing its last element from either end.
+        deque.addLast(100);
+        assertEquals("[100]", deque.toString());
+        assertEquals(100, deque.removeLast());
+        assertThrows(UnsupportedOperationException.class, () -> deque.addFirst(0));
+    }
+
+    @Test
+    void concurrentThievesTakeEachElementOnceInOrder() throws Exception {
+        int thieves = 3;
+        int numElements = 200000;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        // Which thread took each element: -1 for the owner, otherwise the thief number, or -2 if not yet taken.
+        AtomicIntegerArray takenBy = new AtomicIntegerArray(numElements);
+        for (int i = 0; i < numElements; i += 1) {
+            takenBy.set(i, -2);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        CyclicBarrier barrier = new CyclicBarrier(thieves + 1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < thieves; t += 1) {
+            int thief = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    int last = -1;
+                    while (!done.get() || !deque.isEmpty()) {
+                        Integer element = deque.removeFirst();
+                        if (element != null) {
+                            // Steals are linearized at the front, so each thief sees increasing elements.
+                            assertTrue(element > last, element + " after " + last);
+                            last = element;
+                            assertTrue(takenBy.compareAndSet(element, -2, thief), "Took " + element + " twice");
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        barrier.await();
+        for (int i = 0; i < numElements; i += 1) {
+            deque.addLast(i);
+            // Pop every third element, racing the thieves for the last one.
+            if (i % 3 == 0) {
+                Integer element = deque.removeLast();
+                if (element != null) {
+                    assertTrue(takenBy.compareAndSet(element, -2, -1), "Took " + element + " twice");
+                }
+            }
+        }
+        Integer element;
+        while ((element = deque.removeLast()) != null) {
+            assertTrue(takenBy.compareAndSet(element, -2, -1), "Took " + element + " twice");
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+        for (int i = 0; i < numElements; i += 1) {
+            assertNotEquals(-2, takenBy.get(i), "Lost element " + i);
+        }
+    }
+
+    @Nested
+    @Disabled
+    class ThroughputExperiments {
+        /**
+         * Number of elements the owner adds. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_ELEMENTS = 1000000;
+        /**
+         * Maximum number of thief threads.
+         */
+        private static final int MAX_THIEVES = 4;
+
+        /**
+         * Print the number of thieves, and the throughput (elements per millisecond) of an owner that adds elements
+         * to the back and removes every other one from the back while thieves remove from the front, for a
+         * {@link ConcurrentLinkedDeque} and a {@link WorkStealingDeque}.
+         */
+        @Test
+        void ownerAndThieves() throws Exception {
+            System.out.println("thieves,concurrentLinkedDequeThroughput,workStealingDequeThroughput");
+            for (int thieves = 0; thieves <= MAX_THIEVES; thieves += 1) {
+                ConcurrentLinkedDeque<Integer> linked = new ConcurrentLinkedDeque<>();
+                Deque<Integer> linkedDeque = new Deque<>() {
+                    @Override
+                    public void addFirst(Integer element) {
+                        linked.addFirst(element);
+                    }
+
+                    @Override
+                    public void addLast(Integer element) {
+                        linked.addLast(element);
+                    }
+
+                    @Override
+                    public Integer get(int index) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public int size() {
+                        return linked.size();
+                    }
+
+                    @Override
+                    public Integer removeFirst() {
+                        return linked.pollFirst();
+                    }
+
+                    @Override
+                    public Integer removeLast() {
+                        return linked.pollLast();
+                    }
+                };
+                // Warm up before timing.
+                throughput(linkedDeque, thieves);
+                throughput(new WorkStealingDeque<>(), thieves);
+                System.out.printf("%d,%.0f,%.0f%n", thieves, throughput(linkedDeque, thieves),
+                        throughput(new WorkStealingDeque<>(), thieves));
+            }
+        }
+
+        /**
+         * Returns the elements per millisecond taken from the deque by the owner and the given number of thieves.
+         */
+        private double throughput(Deque<Integer> deque, int thieves) throws Exception {
+            AtomicBoolean done = new AtomicBoolean();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < thieves; t += 1) {
+                Thread thread = new Thread(() -> {
+                    while (!done.get()) {
+                        deque.removeFirst();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < NUM_ELEMENTS; i += 1) {
+                deque.addLast(i);
+                if (i % 2 == 0) {
+                    deque.removeLast();
+                }
+            }
+            while (deque.removeLast() != null) {
+                // Drain the remaining elements as the owner.
+            }
+            done.set(true);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            return NUM_ELEMENTS / ((System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package deques;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link WorkStealingExecutor} class.
+ *
+ * @see WorkStealingExecutor
+ */
+public class WorkStealingExecutorTests {
+    /**
+     * Executes a task that sums the integers in the given range by splitting it in half until it is small, like a
+     * fork-join parallel search.
+     */
+    private static void sum(WorkStealingExecutor executor, int from, int to, AtomicLong result) {
+        executor.execute(() -> {
+            if (to - from <= 16) {
+                long sum = 0;
+                for (int i = from; i < to; i += 1) {
+                    sum += i;
+                }
+                result.addAndGet(sum);
+            } else {
+                int mid = (from + to) >>> 1;
+                sum(executor, from, mid, result);
+                sum(executor, mid, to, result);
+            }
+        });
+    }
+
+    @Test
+    void forkedTasksAllRunBeforeQuiescence() throws InterruptedException {
+        try (WorkStealingExecutor executor = new WorkStealingExecutor(4)) {
+            for (int trial = 0; trial < 5; trial += 1) {
+                AtomicLong result = new AtomicLong();
+                int n = 100000;
+                sum(executor, 0, n, result);
+                executor.awaitQuiescence();
+                assertEquals((long) n * (n - 1) / 2, result.get());
+            }
+        }
+    }
+
+    @Test
+    void taskExceptionIsRethrown() throws InterruptedException {
+        try (WorkStealingExecutor executor = new WorkStealingExecutor(2)) {
+            AtomicLong ran = new AtomicLong();
+            executor.execute(() -> {
+                throw new IllegalStateException("task failed");
+            });
+            executor.execute(ran::incrementAndGet);
+            CompletionException e = assertThrows(CompletionException.class, executor::awaitQuiescence);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(1, ran.get());
+            // The failure is only reported once.
+            executor.awaitQuiescence();
+        }
+    }
+
+    @Test
+    void closedExecutorRejectsTasks() {
+        WorkStealingExecutor executor = new WorkStealingExecutor(1);
+        executor.close();
+        assertThrows(IllegalStateException.class, () -> executor.execute(() -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingExecutor(0));
+    }
+
+    @Test
+    void closeReleasesThreadsAwaitingAbandonedTasks() throws InterruptedException {
+        WorkStealingExecutor executor = new WorkStealingExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong ran = new AtomicLong();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i += 1) {
+            executor.execute(ran::incrementAndGet);
+        }
+        Thread awaiter = new Thread(() -> {
+            try {
+                executor.awaitQuiescence();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        awaiter.start();
+        Thread closer = new Thread(executor::close);
+        closer.start();
+        // The only worker is still running the first task, so the others are abandoned once the executor is closed.
+        while (true) {
+            try {
+                executor.execute(ran::incrementAndGet);
+            } catch (IllegalStateException e) {
+                break;
+            }
+        }
+        release.countDown();
+        closer.join(5000);
+        awaiter.join(5000);
+        assertFalse(closer.isAlive());
+        assertFalse(awaiter.isAlive());
+        assertEquals(0, ran.get());
+        assertTimeoutPreemptively(Duration.ofSeconds(5), executor::awaitQuiescence);
+    }
+
+    @Test
+    void idleWorkersParkUntilTaskIsExecuted() throws InterruptedException {
+        try (WorkStealingExecutor executor = new WorkStealingExecutor(1)) {
+            AtomicReference<Thread> worker = new AtomicReference<>();
+            executor.execute(() -> worker.set(Thread.currentThread()));
+            executor.awaitQuiescence();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (worker.get().getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            // Parked without a timeout rather than polling for tasks.
+            assertEquals(Thread.State.WAITING, worker.get().getState());
+            AtomicLong result = new AtomicLong();
+            sum(executor, 0, 1000, result);
+            executor.awaitQuiescence();
+            assertEquals(1000L * 999 / 2, result.get());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package graphs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link StronglyConnectedComponents} class.
+ *
+ * @see StronglyConnectedComponents
+ */
+public class StronglyConnectedComponentsTests {
+
+    /**
+     * Returns a graph with the given adjacency lists and unit edge weights.
+     *
+     * @param adjacency each vertex and the vertices it has edges to.
+     * @return a graph with the given adjacency lists and unit edge weights.
+     */
+    private static Graph<Integer> graph(Map<Integer, List<Integer>> adjacency) {
+        return (vertex, action) -> {
+            for (int to : adjacency.getOrDefault(vertex, List.of())) {
+                action.accept(vertex, to, 1);
+            }
+        };
+    }
+
+    @Test
+    void cycleAndIslandAreSeparateComponents() {
+        Map<Integer, List<Integer>> adjacency = Map.of(
+                0, List.of(1),
+                1, List.of(2),
+                2, List.of(0, 3),
+                3, List.of(4),
+                4, List.of(3)
+        );
+        StronglyConnectedComponents<Integer> components =
+                new StronglyConnectedComponents<>(graph(adjacency), adjacency.keySet());
+        assertEquals(2, components.count());
+        assertTrue(components.connected(0, 2));
+        assertTrue(components.connected(3, 4));
+        assertFalse(components.connected(2, 3));
+        assertEquals(3, components.size(components.largest()));
+        assertEquals(components.component(1), components.largest());
+    }
+
+    @Test
+    void unlabeledVertexIsNotConnected() {
+        Map<Integer, List<Integer>> adjacency = Map.of(0, List.of());
+        StronglyConnectedComponents<Integer> components =
+                new StronglyConnectedComponents<>(graph(adjacency), adjacency.keySet());
+        assertEquals(-1, components.component(7));
+        assertFalse(components.connected(7, 7));
+        assertTrue(components.connected(0, 0));
+    }
+
+    @Test
+    void longPathDoesNotOverflowStack() {
+        int n = 200000;
+        Graph<Integer> path = (vertex, action) -> {
+            if (vertex > 0) {
+                action.accept(vertex, vertex - 1, 1);
+            }
+            if (vertex < n - 1) {
+                action.accept(vertex, vertex + 1, 1);
+            }
+        };
+        StronglyConnectedComponents<Integer> components = new StronglyConnectedComponents<>(path, List.of(0));
+        assertEquals(1, components.count());
+        assertEquals(n, components.size(components.largest()));
+        assertTrue(components.connected(0, n - 1));
+    }
+}
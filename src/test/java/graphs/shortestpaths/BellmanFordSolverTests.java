@@ -0,0 +1,13 @@
+package graphs.shortestpaths;
+
+/**
+ * Tests for the {@link BellmanFordSolver} class.
+ *
+ * @see BellmanFordSolver
+ */
+public class BellmanFordSolverTests extends ShortestPathSolverTests {
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return BellmanFordSolver::new;
+    }
+}
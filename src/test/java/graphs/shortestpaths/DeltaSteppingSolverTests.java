@@ -0,0 +1,83 @@
+package graphs.shortestpaths;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link DeltaSteppingSolver} class.
+ *
+ * @see DeltaSteppingSolver
+ */
+public class DeltaSteppingSolverTests extends ShortestPathSolverTests {
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return DeltaSteppingSolver::new;
+    }
+
+    @Test
+    void parallelGridMatchesDijkstra() {
+        GridGraph graph = new GridGraph(200, 200, new Random(373));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Small, default, and large deltas, where the large delta puts most of the grid in the first bucket.
+            for (double delta : new double[]{1, DeltaSteppingSolver.defaultDelta(graph), 10000}) {
+                assertGridMatchesDijkstra(graph, DeltaSteppingSolver.withDelta(delta, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void nonPositiveDeltaThrows() {
+        GridGraph graph = new GridGraph(2, 2, new Random(373));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeltaSteppingSolver<>(graph, 0, Set.of(), 0, pool, SearchListener.none()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeltaSteppingSolver<>(graph, 0, Set.of(), Double.NaN, pool, SearchListener.none()));
+    }
+
+    @Nested
+    @Disabled
+    class ScalingExperiments {
+        /**
+         * Number of rows and columns in the grid graph.
+         */
+        private static final int SIZE = 1000;
+        /**
+         * Number of trials per configuration. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+
+        /**
+         * Print the parallelism, delta, and average time (nanoseconds) to solve a large grid graph, with Dijkstra's
+         * algorithm as parallelism 0 for reference.
+         */
+        @Test
+        void grid() {
+            GridGraph graph = new GridGraph(SIZE, SIZE, new Random(373));
+            System.out.println("parallelism,delta,time");
+            System.out.printf("0,0,%.0f%n", time(DijkstraSolver::new, graph, 0, NUM_TRIALS));
+            double defaultDelta = DeltaSteppingSolver.defaultDelta(graph);
+            for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    for (double delta : new double[]{defaultDelta / 4, defaultDelta, defaultDelta * 4}) {
+                        double time = time(DeltaSteppingSolver.withDelta(delta, pool), graph, 0, NUM_TRIALS);
+                        System.out.printf("%d,%.1f,%.0f%n", parallelism, delta, time);
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
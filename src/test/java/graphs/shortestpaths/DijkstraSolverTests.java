@@ -0,0 +1,66 @@
+package graphs.shortestpaths;
+
+import minpq.IndexMinPQ;
+import minpq.RadixMinPQ;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the {@link DijkstraSolver} class.
+ *
+ * @see DijkstraSolver
+ */
+public class DijkstraSolverTests extends ShortestPathSolverTests {
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return DijkstraSolver::new;
+    }
+
+    /**
+     * Tests with the perimeter kept in a {@link RadixMinPQ}.
+     */
+    @Nested
+    public class WithRadixHeap extends ShortestPathSolverTests {
+        @Override
+        public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+            return DijkstraSolver.withRadixHeap();
+        }
+    }
+
+    @Nested
+    @Disabled
+    class PriorityQueueExperiments {
+        /**
+         * Maximum number of rows and columns in the grid graph. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 1000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 100;
+        /**
+         * Number of trials per grid size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+
+        /**
+         * Print the number of rows and columns, and the average time (nanoseconds) to solve a grid graph with the
+         * perimeter in an {@link IndexMinPQ} and in a {@link RadixMinPQ}.
+         */
+        @Test
+        void grids() {
+            ShortestPathSolver.InstrumentedConstructor<Integer> binary = DijkstraSolver::new;
+            ShortestPathSolver.InstrumentedConstructor<Integer> radix = DijkstraSolver.withRadixHeap();
+            System.out.println("size,binaryHeapTime,radixHeapTime");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                GridGraph graph = new GridGraph(size, size, new Random(size));
+                System.out.printf("%d,%.0f,%.0f%n", size, time(binary, graph, 0, NUM_TRIALS),
+                        time(radix, graph, 0, NUM_TRIALS));
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package graphs.shortestpaths;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for the {@link FrontierBellmanFordSolver} class.
+ *
+ * @see FrontierBellmanFordSolver
+ */
+public class FrontierBellmanFordSolverTests extends NegativeWeightSolverTests {
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return FrontierBellmanFordSolver::new;
+    }
+
+    @Override
+    boolean hasNegativeCycle(ShortestPathSolver<Integer> solver) {
+        return ((FrontierBellmanFordSolver<Integer>) solver).hasNegativeCycle();
+    }
+
+    /**
+     * Tests with the rounds relaxed in parallel.
+     */
+    @Nested
+    public class WithPool extends NegativeWeightSolverTests {
+        private final ForkJoinPool pool = new ForkJoinPool(4);
+
+        @AfterAll
+        void shutdownPool() {
+            pool.shutdown();
+        }
+
+        @Override
+        public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+            return FrontierBellmanFordSolver.withPool(pool);
+        }
+
+        @Override
+        boolean hasNegativeCycle(ShortestPathSolver<Integer> solver) {
+            return ((FrontierBellmanFordSolver<Integer>) solver).hasNegativeCycle();
+        }
+
+        @Test
+        void gridMatchesDijkstra() {
+            assertGridMatchesDijkstra(new GridGraph(200, 200, new Random(373)), createSolver());
+        }
+    }
+
+    @Nested
+    @Disabled
+    class ComparisonExperiments {
+        /**
+         * Maximum number of vertices. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 2000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 200;
+        /**
+         * Number of rows and columns in the grid graph.
+         */
+        private static final int GRID_SIZE = 300;
+        /**
+         * Number of trials per configuration. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+
+        /**
+         * Print the number of vertices, and the average time (nanoseconds) to solve a random DAG with the original
+         * Bellman-Ford algorithm, SPFA, and frontier-based Bellman-Ford with and without parallel rounds.
+         */
+        @Test
+        void randomDAGs() {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            System.out.println("size,bellmanFordTime,spfaTime,frontierTime,parallelTime");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                RandomDAG graph = new IndexedRandomDAG(size, 3, new Random(size));
+                System.out.printf("%d,%.0f,%.0f,%.0f,%.0f%n", size,
+                        time(BellmanFordSolver::new, graph, 0, NUM_TRIALS),
+                        time(SPFASolver::new, graph, 0, NUM_TRIALS),
+                        time(FrontierBellmanFordSolver::new, graph, 0, NUM_TRIALS),
+                        time(FrontierBellmanFordSolver.withPool(pool), graph, 0, NUM_TRIALS));
+            }
+        }
+
+        /**
+         * Print the average time (nanoseconds) to solve a large grid graph with SPFA, and frontier-based Bellman-Ford
+         * with and without parallel rounds. The original Bellman-Ford algorithm is too slow to include.
+         */
+        @Test
+        void grid() {
+            GridGraph graph = new GridGraph(GRID_SIZE, GRID_SIZE, new Random(373));
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            System.out.println("spfaTime,frontierTime,parallelTime");
+            System.out.printf("%.0f,%.0f,%.0f%n",
+                    time(SPFASolver::new, graph, 0, NUM_TRIALS),
+                    time(FrontierBellmanFordSolver::new, graph, 0, NUM_TRIALS),
+                    time(FrontierBellmanFordSolver.withPool(pool), graph, 0, NUM_TRIALS));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package graphs.shortestpaths;
+
+import graphs.Graph;
+import graphs.IndexedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Abstract class providing test cases for {@link ShortestPathSolver} implementations that allow negative edge weights
+ * and detect negative cycles reachable from the start, in addition to the test cases for all implementations.
+ *
+ * @see ShortestPathSolverTests
+ */
+public abstract class NegativeWeightSolverTests extends ShortestPathSolverTests {
+    /**
+     * Error tolerance for path distances.
+     */
+    private static final double EPSILON = 1e-9;
+    /**
+     * Amount subtracted from every edge weight of a {@link RandomDAG}, whose weights are between 0 and 99, so that
+     * about half of the edges have negative weights.
+     */
+    private static final double SHIFT = 50;
+
+    /**
+     * Returns true if the solver returned by {@link #createSolver()} found a negative cycle reachable from its start.
+     *
+     * @param solver the solver returned by {@link #createSolver()}.
+     * @return true if the solver found a negative cycle reachable from its start.
+     */
+    abstract boolean hasNegativeCycle(ShortestPathSolver<Integer> solver);
+
+    /**
+     * Graph of integer vertices from 0 (inclusive) to a given count (exclusive) with an edge from {@code edge[0]} to
+     * {@code edge[1]} with weight {@code edge[2]} for each given edge.
+     */
+    static class EdgeListGraph implements IndexedGraph<Integer> {
+        private final int vertexCount;
+        private final double[][] edges;
+
+        EdgeListGraph(int vertexCount, double[]... edges) {
+            this.vertexCount = vertexCount;
+            this.edges = edges;
+        }
+
+        @Override
+        public int vertexCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public int id(Integer vertex) {
+            return vertex >= 0 && vertex < vertexCount ? vertex : -1;
+        }
+
+        @Override
+        public Integer vertex(int id) {
+            return id;
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            for (double[] edge : edges) {
+                if (edge[0] == id) {
+                    action.accept(id, (int) edge[1], edge[2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the solver for the graph from the start.
+     */
+    private ShortestPathSolver<Integer> solve(Graph<Integer> graph, int start) {
+        return this.<Integer>createSolver().run(graph, start, Set.of(), SearchListener.none());
+    }
+
+    @Test
+    void negativeWeightsMatchBellmanFord() {
+        IndexedRandomDAG dag = new IndexedRandomDAG(500, 3, new Random(373));
+        IndexedGraph<Integer> indexed = new IndexedGraph<>() {
+            @Override
+            public int vertexCount() {
+                return dag.vertexCount();
+            }
+
+            @Override
+            public int id(Integer vertex) {
+                return dag.id(vertex);
+            }
+
+            @Override
+            public Integer vertex(int id) {
+                return id;
+            }
+
+            @Override
+            public void forEachNeighborId(int id, IdEdgeConsumer action) {
+                dag.forEachNeighborId(id, (from, to, weight) -> action.accept(from, to, weight - SHIFT));
+            }
+        };
+        Graph<Integer> graph = indexed::forEachNeighbor;
+        ShortestPathSolver<Integer> reference = new BellmanFordSolver<>(graph, 0);
+        for (Graph<Integer> shifted : List.of(graph, indexed)) {
+            ShortestPathSolver<Integer> solver = solve(shifted, 0);
+            assertFalse(hasNegativeCycle(solver));
+            for (int goal = 0; goal < dag.vertexCount(); goal += 1) {
+                if (dag.distTo[goal] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                List<Integer> expected = reference.solution(goal);
+                List<Integer> path = solver.solution(goal);
+                assertEquals(0, path.get(0));
+                assertEquals(goal, path.get(path.size() - 1));
+                assertEquals(dag.weight(expected) - SHIFT * (expected.size() - 1),
+                        dag.weight(path) - SHIFT * (path.size() - 1), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void negativeCycleDetected() {
+        // 1 -> 2 -> 1 is a cycle of weight -1.
+        IndexedGraph<Integer> indexed = new EdgeListGraph(5, new double[]{0, 1, 1}, new double[]{1, 2, -2},
+                new double[]{2, 1, 1}, new double[]{2, 3, 1}, new double[]{4, 0, 1});
+        Graph<Integer> graph = indexed::forEachNeighbor;
+        for (Graph<Integer> g : List.of(graph, indexed)) {
+            ShortestPathSolver<Integer> solver = solve(g, 0);
+            assertTrue(hasNegativeCycle(solver));
+            assertThrows(IllegalStateException.class, () -> solver.solution(3));
+            // The cycle is not reachable from vertex 3, so its paths are still well-defined.
+            ShortestPathSolver<Integer> unreachable = solve(g, 3);
+            assertFalse(hasNegativeCycle(unreachable));
+            assertEquals(List.of(3), unreachable.solution(3));
+        }
+    }
+
+    @Test
+    void zeroWeightCycleIsNotNegative() {
+        IndexedGraph<Integer> indexed = new EdgeListGraph(3, new double[]{0, 1, 1}, new double[]{1, 2, 0},
+                new double[]{2, 1, 0});
+        Graph<Integer> graph = indexed::forEachNeighbor;
+        for (Graph<Integer> g : List.of(graph, indexed)) {
+            ShortestPathSolver<Integer> solver = solve(g, 0);
+            assertFalse(hasNegativeCycle(solver));
+            assertEquals(List.of(0, 1, 2), solver.solution(2));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package graphs.shortestpaths;
+
+import graphs.AStarGraph;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RouteSearchEvent} Java Flight Recorder event.
+ *
+ * @see RouteSearchEvent
+ */
+public class RouteSearchEventTests {
+    /**
+     * A path graph 0 -> 1 -> ... -> 9 with unit edge weights and a zero heuristic.
+     */
+    private static final AStarGraph<Integer> PATH = new AStarGraph<>() {
+        @Override
+        public void forEachNeighbor(Integer vertex, EdgeConsumer<? super Integer> action) {
+            if (vertex < 9) {
+                action.accept(vertex, vertex + 1, 1);
+            }
+        }
+
+        @Override
+        public double estimatedDistance(Integer start, Integer end) {
+            return 0;
+        }
+    };
+
+    /**
+     * Returns the route search events recorded while running the given searches.
+     *
+     * @param directory the directory for the recording file.
+     * @param searches  the searches to run.
+     * @return the route search events recorded while running the searches.
+     * @throws IOException if the recording cannot be written or read.
+     */
+    private static List<RecordedEvent> record(Path directory, Runnable searches) throws IOException {
+        Path file = directory.resolve("route.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("huskymaps.RouteSearch").withThreshold(Duration.ZERO);
+            recording.start();
+            searches.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("huskymaps.RouteSearch")) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void searchesAreRecorded(@TempDir Path directory) throws IOException {
+        List<RecordedEvent> events = record(directory, () -> {
+            new DijkstraSolver<>(PATH, 0);
+            new AStarSolver<>(PATH, 0, 9);
+        });
+        assertEquals(2, events.size());
+        RecordedEvent dijkstra = events.get(0);
+        assertEquals("DijkstraSolver", dijkstra.getString("solver"));
+        assertEquals(10, dijkstra.getLong("settled"));
+        assertEquals(9, dijkstra.getLong("relaxed"));
+        assertEquals(1, dijkstra.getInt("perimeterPeak"));
+        assertEquals(10, dijkstra.getInt("reached"));
+        assertEquals(0, dijkstra.getInt("pathLength"));
+        RecordedEvent astar = events.get(1);
+        assertEquals("AStarSolver", astar.getString("solver"));
+        assertEquals(10, astar.getInt("pathLength"));
+    }
+}
@@ -0,0 +1,36 @@
+package graphs.shortestpaths;
+
+import org.junit.jupiter.api.Nested;
+
+/**
+ * Tests for the {@link SPFASolver} class.
+ *
+ * @see SPFASolver
+ */
+public class SPFASolverTests extends NegativeWeightSolverTests {
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return SPFASolver::new;
+    }
+
+    @Override
+    boolean hasNegativeCycle(ShortestPathSolver<Integer> solver) {
+        return ((SPFASolver<Integer>) solver).hasNegativeCycle();
+    }
+
+    /**
+     * Tests with the queue reordered by the Small Label First and Large Label Last heuristics.
+     */
+    @Nested
+    public class WithReordering extends NegativeWeightSolverTests {
+        @Override
+        public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+            return SPFASolver.withReordering();
+        }
+
+        @Override
+        boolean hasNegativeCycle(ShortestPathSolver<Integer> solver) {
+            return ((SPFASolver<Integer>) solver).hasNegativeCycle();
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package graphs.shortestpaths;
+
+import graphs.Edge;
+import graphs.Graph;
+import graphs.IndexedGraph;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Abstract class providing test cases for all {@link ShortestPathSolver} implementations. Every test graph is a
+ * directed acyclic graph with non-negative edge weights so that every implementation applies.
+ *
+ * @see ShortestPathSolver
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class ShortestPathSolverTests {
+    /**
+     * Error tolerance for path distances.
+     */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Returns the constructor for the {@link ShortestPathSolver} implementation to test.
+     *
+     * @return the constructor for the {@link ShortestPathSolver} implementation to test.
+     */
+    public abstract <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver();
+
+    /**
+     * Directed acyclic graph of integer vertices where every edge goes from a smaller to a larger vertex.
+     */
+    static class RandomDAG implements Graph<Integer> {
+        final List<List<Edge<Integer>>> adjacency;
+        /**
+         * Shortest distance from vertex 0 to each vertex, computed in topological (increasing) order.
+         */
+        final double[] distTo;
+
+        /**
+         * Constructs a random directed acyclic graph.
+         *
+         * @param size           the number of vertices.
+         * @param edgesPerVertex the number of edges out of each vertex except near the end.
+         * @param random         the source of randomness.
+         */
+        RandomDAG(int size, int edgesPerVertex, Random random) {
+            adjacency = new ArrayList<>(size);
+            distTo = new double[size];
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            distTo[0] = 0;
+            for (int from = 0; from < size; from += 1) {
+                List<Edge<Integer>> edges = new ArrayList<>(edgesPerVertex);
+                for (int i = 0; i < edgesPerVertex && from + 1 < size; i += 1) {
+                    // Mostly short hops, with some longer ones to create competing paths.
+                    int to = Math.min(size - 1, from + 1 + random.nextInt(Math.min(size - from - 1, 16)));
+                    double weight = random.nextInt(100);
+                    edges.add(new Edge<>(from, to, weight));
+                    distTo[to] = Math.min(distTo[to], distTo[from] + weight);
+                }
+                adjacency.add(edges);
+            }
+        }
+
+        @Override
+        public void forEachNeighbor(Integer vertex, EdgeConsumer<? super Integer> action) {
+            for (Edge<Integer> edge : adjacency.get(vertex)) {
+                action.accept(edge.from, edge.to, edge.weight);
+            }
+        }
+
+        @Override
+        public List<Edge<Integer>> neighbors(Integer vertex) {
+            return adjacency.get(vertex);
+        }
+
+        /**
+         * Returns the total weight of the path, failing if consecutive vertices are not joined by an edge.
+         *
+         * @param path the path of vertices.
+         * @return the total weight of the path.
+         */
+        double weight(List<Integer> path) {
+            double total = 0;
+            for (int i = 1; i < path.size(); i += 1) {
+                double best = Double.POSITIVE_INFINITY;
+                for (Edge<Integer> edge : adjacency.get(path.get(i - 1))) {
+                    if (edge.to.equals(path.get(i))) {
+                        best = Math.min(best, edge.weight);
+                    }
+                }
+                assertNotEquals(Double.POSITIVE_INFINITY, best, "no edge " + path.get(i - 1) + " -> " + path.get(i));
+                total += best;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * {@link RandomDAG} that is also an {@link IndexedGraph} with each vertex as its own id, so that solvers keep their
+     * search state in primitive arrays.
+     */
+    static class IndexedRandomDAG extends RandomDAG implements IndexedGraph<Integer> {
+        /**
+         * Constructs a random directed acyclic graph.
+         *
+         * @param size           the number of vertices.
+         * @param edgesPerVertex the number of edges out of each vertex except near the end.
+         * @param random         the source of randomness.
+         */
+        IndexedRandomDAG(int size, int edgesPerVertex, Random random) {
+            super(size, edgesPerVertex, random);
+        }
+
+        @Override
+        public int vertexCount() {
+            return adjacency.size();
+        }
+
+        @Override
+        public int id(Integer vertex) {
+            return vertex >= 0 && vertex < adjacency.size() ? vertex : -1;
+        }
+
+        @Override
+        public Integer vertex(int id) {
+            return id;
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            for (Edge<Integer> edge : adjacency.get(id)) {
+                action.accept(id, edge.to, edge.weight);
+            }
+        }
+    }
+
+    /**
+     * Grid of integer vertices numbered row by row with random edge weights between each vertex and the vertices above,
+     * below, left, and right of it.
+     */
+    static class GridGraph implements IndexedGraph<Integer> {
+        final int width;
+        final int height;
+        /**
+         * Weight of the edge in each of the four directions out of each vertex.
+         */
+        private final double[] weights;
+
+        /**
+         * Constructs a random grid graph.
+         *
+         * @param width  the number of columns.
+         * @param height the number of rows.
+         * @param random the source of randomness.
+         */
+        GridGraph(int width, int height, Random random) {
+            this.width = width;
+            this.height = height;
+            weights = new double[4 * width * height];
+            for (int i = 0; i < weights.length; i += 1) {
+                weights[i] = 1 + random.nextInt(100);
+            }
+        }
+
+        @Override
+        public int vertexCount() {
+            return width * height;
+        }
+
+        @Override
+        public int id(Integer vertex) {
+            return vertex >= 0 && vertex < vertexCount() ? vertex : -1;
+        }
+
+        @Override
+        public Integer vertex(int id) {
+            return id;
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            int x = id % width;
+            int y = id / width;
+            if (y > 0) {
+                action.accept(id, id - width, weights[4 * id]);
+            }
+            if (y + 1 < height) {
+                action.accept(id, id + width, weights[4 * id + 1]);
+            }
+            if (x > 0) {
+                action.accept(id, id - 1, weights[4 * id + 2]);
+            }
+            if (x + 1 < width) {
+                action.accept(id, id + 1, weights[4 * id + 3]);
+            }
+        }
+
+        /**
+         * Returns the total weight of the path, failing if consecutive vertices are not joined by an edge.
+         *
+         * @param path the path of vertices.
+         * @return the total weight of the path.
+         */
+        double weight(List<Integer> path) {
+            double[] total = {0};
+            for (int i = 1; i < path.size(); i += 1) {
+                int to = path.get(i);
+                double[] weight = {Double.POSITIVE_INFINITY};
+                forEachNeighborId(path.get(i - 1), (u, v, w) -> {
+                    if (v == to) {
+                        weight[0] = w;
+                    }
+                });
+                assertNotEquals(Double.POSITIVE_INFINITY, weight[0], "no edge " + path.get(i - 1) + " -> " + to);
+                total[0] += weight[0];
+            }
+            return total[0];
+        }
+    }
+
+    /**
+     * Asserts that the solver finds paths as short as Dijkstra's algorithm from vertex 0 to a spread of vertices in the
+     * grid graph.
+     *
+     * @param graph  the grid graph.
+     * @param solver the constructor for the solver to check.
+     */
+    static void assertGridMatchesDijkstra(GridGraph graph,
+                                          ShortestPathSolver.InstrumentedConstructor<Integer> solver) {
+        ShortestPathSolver<Integer> reference = new DijkstraSolver<>(graph, 0);
+        ShortestPathSolver<Integer> testing = solver.run(graph, 0, Set.of(), SearchListener.none());
+        for (int goal = 0; goal < graph.vertexCount(); goal += 97) {
+            List<Integer> path = testing.solution(goal);
+            assertEquals(0, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            assertEquals(graph.weight(reference.solution(goal)), graph.weight(path), EPSILON);
+        }
+    }
+
+    /**
+     * Returns the average time in nanoseconds to solve the graph from the start, after one search to warm up.
+     *
+     * @param solver the constructor for the solver to time.
+     * @param graph  the input graph.
+     * @param start  the start vertex.
+     * @param trials the number of timed searches.
+     * @param <V>    the type of vertices.
+     * @return the average time in nanoseconds to solve the graph from the start.
+     */
+    public static <V> double time(ShortestPathSolver.InstrumentedConstructor<V> solver, Graph<V> graph, V start,
+                                  int trials) {
+        return time(solver, graph, start, Set.of(), trials);
+    }
+
+    /**
+     * Returns the average time in nanoseconds to solve the graph from the start until every target is settled, after
+     * one search to warm up.
+     *
+     * @param solver  the constructor for the solver to time.
+     * @param graph   the input graph.
+     * @param start   the start vertex.
+     * @param targets the vertices whose shortest paths are needed, or the empty set for all reachable vertices.
+     * @param trials  the number of timed searches.
+     * @param <V>     the type of vertices.
+     * @return the average time in nanoseconds to solve the graph from the start until every target is settled.
+     */
+    public static <V> double time(ShortestPathSolver.InstrumentedConstructor<V> solver, Graph<V> graph, V start,
+                                  Set<V> targets, int trials) {
+        solver.run(graph, start, targets, SearchListener.none());
+        long begin = System.nanoTime();
+        for (int i = 0; i < trials; i += 1) {
+            solver.run(graph, start, targets, SearchListener.none());
+        }
+        return (System.nanoTime() - begin) / (double) trials;
+    }
+
+    @Test
+    void randomDAGShortestPaths() {
+        assertShortestPaths(new RandomDAG(500, 3, new Random(373)));
+    }
+
+    @Test
+    void indexedRandomDAGShortestPaths() {
+        assertShortestPaths(new IndexedRandomDAG(500, 3, new Random(373)));
+    }
+
+    void assertShortestPaths(RandomDAG graph) {
+        ShortestPathSolver<Integer> solver = this.<Integer>createSolver().run(graph, 0, Set.of(), SearchListener.none());
+        for (int goal = 0; goal < graph.distTo.length; goal += 1) {
+            if (graph.distTo[goal] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            List<Integer> path = solver.solution(goal);
+            assertEquals(0, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            assertEquals(graph.distTo[goal], graph.weight(path), EPSILON);
+        }
+    }
+
+    @Test
+    void listenerCountsWork() {
+        assertListenerCounts(new RandomDAG(500, 3, new Random(373)));
+    }
+
+    @Test
+    void indexedListenerCountsWork() {
+        assertListenerCounts(new IndexedRandomDAG(500, 3, new Random(373)));
+    }
+
+    void assertListenerCounts(RandomDAG graph) {
+        int reachable = 0;
+        for (double dist : graph.distTo) {
+            if (dist != Double.POSITIVE_INFINITY) {
+                reachable += 1;
+            }
+        }
+        SearchStats stats = new SearchStats();
+        this.<Integer>createSolver().run(graph, 0, Set.of(), stats);
+        // Every reachable vertex must be settled and reached by an update, and every edge out of it examined.
+        assertTrue(stats.settles() >= reachable);
+        assertTrue(stats.updates() >= reachable - 1);
+        assertTrue(stats.relaxations() >= 3L * (reachable - 1));
+        assertTrue(stats.relaxations() >= stats.updates());
+    }
+
+    @Test
+    void targetedShortestPaths() {
+        assertTargetedShortestPaths(new RandomDAG(500, 3, new Random(373)));
+    }
+
+    @Test
+    void indexedTargetedShortestPaths() {
+        assertTargetedShortestPaths(new IndexedRandomDAG(500, 3, new Random(373)));
+    }
+
+    void assertTargetedShortestPaths(RandomDAG graph) {
+        ShortestPathSolver.InstrumentedConstructor<Integer> constructor = createSolver();
+        SearchStats full = new SearchStats();
+        constructor.run(graph, 0, Set.of(), full);
+        Set<Integer> targets = Set.of(50, 120, 250);
+        SearchStats targeted = new SearchStats();
+        ShortestPathSolver<Integer> solver = constructor.run(graph, 0, targets, targeted);
+        for (int goal : targets) {
+            List<Integer> path = solver.solution(goal);
+            assertEquals(0, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            assertEquals(graph.distTo[goal], graph.weight(path), EPSILON);
+        }
+        assertTrue(targeted.settles() <= full.settles());
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Maximum number of vertices. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 2000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 200;
+        /**
+         * Number of trials per graph size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 10;
+
+        /**
+         * Print the number of vertices, average time (nanoseconds) to solve, and the number of vertices settled, edges
+         * relaxed, distance updates, and largest perimeter size of one search.
+         */
+        @Test
+        void randomDAGs() {
+            Random random = new Random(373);
+            ShortestPathSolver.InstrumentedConstructor<Integer> solver = createSolver();
+            SearchStats stats = new SearchStats();
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                RandomDAG graph = new RandomDAG(size, 3, random);
+                long totalTime = 0;
+                for (int i = 0; i < NUM_TRIALS; i += 1) {
+                    long start = System.nanoTime();
+                    solver.run(graph, 0, Set.of(), SearchListener.none());
+                    totalTime += System.nanoTime() - start;
+                }
+                // Count the work of one search separately so that the listener does not affect the timing.
+                stats.reset();
+                solver.run(graph, 0, Set.of(), stats);
+                System.out.printf("%d,%.0f,%d,%d,%d,%d%n", size, totalTime / (double) NUM_TRIALS,
+                        stats.settles(), stats.relaxations(), stats.updates(), stats.maxFrontier());
+            }
+        }
+
+        /**
+         * Print the number of vertices, and the average time (nanoseconds) to solve the same graph with its search
+         * state in hash maps and with its search state in primitive arrays through {@link IndexedGraph}.
+         */
+        @Test
+        void indexedRandomDAGs() {
+            ShortestPathSolver.InstrumentedConstructor<Integer> solver = createSolver();
+            System.out.println("size,mapTime,indexedTime");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                RandomDAG graph = new RandomDAG(size, 3, new Random(size));
+                RandomDAG indexed = new IndexedRandomDAG(size, 3, new Random(size));
+                long mapTime = 0;
+                long indexedTime = 0;
+                for (int i = 0; i < NUM_TRIALS; i += 1) {
+                    long start = System.nanoTime();
+                    solver.run(graph, 0, Set.of(), SearchListener.none());
+                    mapTime += System.nanoTime() - start;
+                    start = System.nanoTime();
+                    solver.run(indexed, 0, Set.of(), SearchListener.none());
+                    indexedTime += System.nanoTime() - start;
+                }
+                System.out.printf("%d,%.0f,%.0f%n", size, mapTime / (double) NUM_TRIALS,
+                        indexedTime / (double) NUM_TRIALS);
+            }
+        }
+
+        /**
+         * Print the number of vertices, and the number of vertices settled and edges relaxed by one search to all
+         * vertices and by one search stopping at the middle vertex.
+         */
+        @Test
+        void singlePair() {
+            Random random = new Random(373);
+            ShortestPathSolver.InstrumentedConstructor<Integer> solver = createSolver();
+            SearchStats full = new SearchStats();
+            SearchStats targeted = new SearchStats();
+            System.out.println("size,settles,relaxations,targetedSettles,targetedRelaxations");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                RandomDAG graph = new RandomDAG(size, 3, random);
+                full.reset();
+                solver.run(graph, 0, Set.of(), full);
+                targeted.reset();
+                solver.run(graph, 0, Set.of(size / 2), targeted);
+                System.out.printf("%d,%d,%d,%d,%d%n", size, full.settles(), full.relaxations(),
+                        targeted.settles(), targeted.relaxations());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package graphs.shortestpaths;
+
+import graphs.Graph;
+import graphs.IndexedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link ToposortDAGSolver} class.
+ *
+ * @see ToposortDAGSolver
+ */
+public class ToposortDAGSolverTests extends ShortestPathSolverTests {
+    /**
+     * Number of vertices in the long path DAG, which is deep enough to overflow a recursive depth-first search.
+     */
+    private static final int LONG_PATH = 200000;
+
+    @Override
+    public <V> ShortestPathSolver.InstrumentedConstructor<V> createSolver() {
+        return ToposortDAGSolver::new;
+    }
+
+    /**
+     * DAG where each vertex has an edge of weight 1 to the next vertex and an edge of weight 3 to the vertex after it.
+     */
+    static class LongPathDAG implements IndexedGraph<Integer> {
+        @Override
+        public int vertexCount() {
+            return LONG_PATH;
+        }
+
+        @Override
+        public int id(Integer vertex) {
+            return vertex >= 0 && vertex < LONG_PATH ? vertex : -1;
+        }
+
+        @Override
+        public Integer vertex(int id) {
+            return id;
+        }
+
+        @Override
+        public void forEachNeighborId(int id, IdEdgeConsumer action) {
+            if (id + 1 < LONG_PATH) {
+                action.accept(id, id + 1, 1);
+            }
+            if (id + 2 < LONG_PATH) {
+                action.accept(id, id + 2, 3);
+            }
+        }
+    }
+
+    @Test
+    void longPathDoesNotOverflowStack() {
+        LongPathDAG indexed = new LongPathDAG();
+        Graph<Integer> graph = (vertex, action) -> indexed.forEachNeighborId(vertex, action::accept);
+        for (Graph<Integer> dag : List.of(graph, indexed)) {
+            List<Integer> path = new ToposortDAGSolver<>(dag, 0).solution(LONG_PATH - 1);
+            assertEquals(LONG_PATH, path.size());
+            assertEquals(0, path.get(0));
+            assertEquals(LONG_PATH - 1, path.get(path.size() - 1));
+        }
+    }
+
+    @Test
+    void startOnCycleIsSettledOnce() {
+        // 0 -> 1 -> 0 is a cycle through the start with a negative edge back into it, and 3 -> 4 -> 3 is a cycle that
+        // is not, so only 0, 1 and 2 can be settled. Every vertex is reachable from the start.
+        int[][] edges = {{0, 1, 1}, {1, 0, -5}, {1, 2, 1}, {2, 3, 1}, {3, 4, 1}, {4, 3, 1}};
+        IndexedGraph<Integer> indexed = new IndexedGraph<>() {
+            @Override
+            public int vertexCount() {
+                return 5;
+            }
+
+            @Override
+            public int id(Integer vertex) {
+                return vertex >= 0 && vertex < 5 ? vertex : -1;
+            }
+
+            @Override
+            public Integer vertex(int id) {
+                return id;
+            }
+
+            @Override
+            public void forEachNeighborId(int id, IdEdgeConsumer action) {
+                for (int[] edge : edges) {
+                    if (edge[0] == id) {
+                        action.accept(edge[0], edge[1], edge[2]);
+                    }
+                }
+            }
+        };
+        Graph<Integer> graph = (vertex, action) -> indexed.forEachNeighborId(vertex, action::accept);
+        for (Graph<Integer> g : List.of(graph, indexed)) {
+            SearchStats stats = new SearchStats();
+            ShortestPathSolver<Integer> solver = new ToposortDAGSolver<>(g, 0, Set.of(), stats);
+            assertEquals(3, stats.settles());
+            assertEquals(List.of(0), solver.solution(0));
+            assertEquals(List.of(0, 1, 2), solver.solution(2));
+            // 3 is reached from 2 but never settled, so 4 is never reached.
+            assertEquals(List.of(4), solver.solution(4));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package metrics;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link LatencyHistogram} class.
+ *
+ * @see LatencyHistogram
+ */
+public class LatencyHistogramTests {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.quantile(0.99));
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    void bucketsCoverEveryValueContiguously() {
+        for (int index = 1; index < LatencyHistogram.index(Long.MAX_VALUE); index += 1) {
+            long lowest = LatencyHistogram.highestEquivalent(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.index(lowest));
+            assertEquals(index, LatencyHistogram.index(LatencyHistogram.highestEquivalent(index)));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalent(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void quantilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(373);
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i += 1) {
+            // Log-uniform values between 1 microsecond and 1 second.
+            long value = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(null);
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long expected = values.get((int) Math.ceil(quantile * values.size()) - 1);
+            long actual = histogram.quantile(quantile);
+            assertTrue(actual >= expected, "quantile " + quantile + " should be an upper bound");
+            assertTrue(actual <= expected * 1.07, "quantile " + quantile + " should be within 7%");
+        }
+        assertEquals(values.get(values.size() - 1), histogram.quantile(1));
+        assertEquals(values.get(values.size() - 1), histogram.max());
+        assertEquals(values.stream().mapToLong(Long::longValue).sum(), histogram.sum());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t += 1) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100000; i += 1) {
+                    histogram.record(i % 1000 + offset);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800000, histogram.count());
+        assertEquals(999 + 7, histogram.max());
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Number of values recorded per experiment run.
+         */
+        private static final int NUM_RECORDS = 10000000;
+
+        /**
+         * Print the average time (nanoseconds) to record one value, to compare against the cost of the stages being
+         * measured.
+         */
+        @Test
+        void recordCost() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int warmup = 0; warmup < 3; warmup += 1) {
+                long start = System.nanoTime();
+                for (int i = 0; i < NUM_RECORDS; i += 1) {
+                    histogram.recordSince(start);
+                }
+                System.out.printf("%.1f%n", (System.nanoTime() - start) / (double) NUM_RECORDS);
+            }
+        }
+    }
+}
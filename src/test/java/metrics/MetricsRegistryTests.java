@@ -0,0 +1,42 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MetricsRegistry} class.
+ *
+ * @see MetricsRegistry
+ */
+public class MetricsRegistryTests {
+
+    @Test
+    void scrapeWritesSummariesAndCounters() {
+        MetricsRegistry metrics = new MetricsRegistry("test");
+        metrics.histogram("astar").record(2_000_000);
+        metrics.histogram("astar").record(4_000_000);
+        AtomicLong hits = new AtomicLong(5);
+        metrics.register("cache_hits", hits::get);
+        hits.incrementAndGet();
+
+        String scrape = metrics.scrape();
+        assertTrue(scrape.contains("# TYPE test_latency_seconds summary\n"));
+        assertTrue(scrape.contains("test_latency_seconds_count{stage=\"astar\"} 2\n"));
+        assertTrue(scrape.contains("test_latency_seconds_sum{stage=\"astar\"} 0.006\n"));
+        assertTrue(scrape.contains("test_latency_seconds{stage=\"astar\",quantile=\"0.5\"} 0.002"));
+        assertTrue(scrape.contains("test_latency_max_seconds{stage=\"astar\"} 0.004\n"));
+        assertTrue(scrape.contains("# TYPE test_cache_hits_total counter\ntest_cache_hits_total 6\n"));
+    }
+
+    @Test
+    void histogramIsSharedByStage() {
+        MetricsRegistry metrics = new MetricsRegistry("test");
+        assertSame(metrics.histogram("closest"), metrics.histogram("closest"));
+        LatencyHistogram existing = new LatencyHistogram();
+        metrics.register("fetch", existing);
+        assertSame(existing, metrics.histogram("fetch"));
+    }
+}
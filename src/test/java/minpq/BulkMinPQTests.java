@@ -0,0 +1,121 @@
+package minpq;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for constructing {@link MinPQ} implementations from a {@link Map} and for
+ * {@link MinPQ#smallestK(Map, int)}.
+ *
+ * @see MinPQ
+ */
+public class BulkMinPQTests {
+    /**
+     * Returns a map of the given number of integer elements to random priority values with many duplicates.
+     */
+    private static Map<Integer, Double> randomPriorities(int size, Random random) {
+        Map<Integer, Double> result = new HashMap<>(size);
+        for (int i = 0; i < size; i += 1) {
+            result.put(i, (double) random.nextInt(size / 10 + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the priority value of each of the given elements.
+     */
+    private static List<Double> prioritiesOf(List<Integer> elements, Map<Integer, Double> priorities) {
+        List<Double> result = new ArrayList<>(elements.size());
+        for (int element : elements) {
+            result.add(priorities.get(element));
+        }
+        return result;
+    }
+
+    @Test
+    public void mapConstructorsRemoveInOrder() {
+        Map<Integer, Double> priorities = randomPriorities(10000, new Random(373));
+        List<Double> expected = new ArrayList<>(priorities.values());
+        Collections.sort(expected);
+        for (MinPQ<Integer> testing : List.of(new OptimizedHeapMinPQ<>(priorities), new HeapMinPQ<>(priorities))) {
+            assertEquals(priorities.size(), testing.size());
+            for (int i = 0; i < 100; i += 1) {
+                assertTrue(testing.contains(i));
+                assertEquals(priorities.get(i), testing.getPriority(i));
+            }
+            List<Integer> removed = testing.removeMin(priorities.size());
+            assertEquals(expected, prioritiesOf(removed, priorities));
+            assertEquals(priorities.keySet(), new HashSet<>(removed));
+            assertTrue(testing.isEmpty());
+        }
+    }
+
+    @Test
+    public void smallestKMatchesRemoveMin() {
+        Map<Integer, Double> priorities = randomPriorities(10000, new Random(373));
+        for (int k : new int[]{0, 1, 3, 10, 1000, 10000, 20000}) {
+            List<Integer> expected = new DoubleMapMinPQ<>(priorities).removeMin(k);
+            List<Integer> actual = MinPQ.smallestK(priorities, k);
+            // Elements with tied priority values may be chosen in any order.
+            assertEquals(prioritiesOf(expected, priorities), prioritiesOf(actual, priorities));
+            assertEquals(actual.size(), new HashSet<>(actual).size());
+        }
+        assertEquals(List.of(), MinPQ.smallestK(Map.of(), 3));
+        assertThrows(IllegalArgumentException.class, () -> MinPQ.smallestK(priorities, -1));
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Maximum number of elements. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 100000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 10000;
+        /**
+         * Number of lowest-priority elements to select, like the number of autocomplete suggestions.
+         */
+        private static final int K = 10;
+        /**
+         * Number of trials per size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 10;
+
+        /**
+         * Print the number of elements, and the average time (nanoseconds) to select the {@value #K} lowest-priority
+         * elements by building a {@link DoubleMapMinPQ}, by building an {@link OptimizedHeapMinPQ}, and by
+         * {@link MinPQ#smallestK(Map, int)}.
+         */
+        @Test
+        void topK() {
+            System.out.println("size,doubleMapTime,optimizedHeapTime,smallestKTime");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                Map<Integer, Double> priorities = randomPriorities(size, new Random(size));
+                long doubleMapTime = 0;
+                long heapTime = 0;
+                long smallestKTime = 0;
+                for (int i = 0; i < NUM_TRIALS; i += 1) {
+                    long start = System.nanoTime();
+                    new DoubleMapMinPQ<>(priorities).removeMin(K);
+                    doubleMapTime += System.nanoTime() - start;
+                    start = System.nanoTime();
+                    new OptimizedHeapMinPQ<>(priorities).removeMin(K);
+                    heapTime += System.nanoTime() - start;
+                    start = System.nanoTime();
+                    MinPQ.smallestK(priorities, K);
+                    smallestKTime += System.nanoTime() - start;
+                }
+                System.out.printf("%d,%.0f,%.0f,%.0f%n", size, doubleMapTime / (double) NUM_TRIALS,
+                        heapTime / (double) NUM_TRIALS, smallestKTime / (double) NUM_TRIALS);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package minpq;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link IndexMinPQ} class, using a {@link DoubleMapMinPQ} as the reference.
+ *
+ * @see IndexMinPQ
+ */
+public class IndexMinPQTests {
+    @Test
+    public void randomPriorities() {
+        int size = 1000;
+        Random random = new Random(373);
+        int[] priorities = new int[size];
+        IndexMinPQ testing = new IndexMinPQ(size);
+        for (int i = 0; i < size; i += 1) {
+            priorities[i] = random.nextInt(size);
+            testing.add(i, priorities[i]);
+        }
+        int[] expected = priorities.clone();
+        Arrays.sort(expected);
+        // Ties may be removed in any order, so compare the priorities of the removed elements.
+        for (int i = 0; i < size; i += 1) {
+            assertEquals(expected[i], priorities[testing.removeMin()]);
+        }
+        assertTrue(testing.isEmpty());
+    }
+
+    @Test
+    public void randomIntegersRandomPriorities() {
+        int maxElement = 1000;
+        MinPQ<Integer> reference = new DoubleMapMinPQ<>();
+        IndexMinPQ testing = new IndexMinPQ(maxElement);
+        Random random = new Random(373);
+        for (int i = 0; i < 10000; i += 1) {
+            if (random.nextBoolean() && !reference.isEmpty()) {
+                assertEquals((int) reference.removeMin(), testing.removeMin());
+            } else {
+                int element = random.nextInt(maxElement);
+                double priority = random.nextDouble();
+                reference.addOrChangePriority(element, priority);
+                testing.addOrChangePriority(element, priority);
+            }
+            assertEquals(reference.size(), testing.size());
+            if (!reference.isEmpty()) {
+                assertEquals((int) reference.peekMin(), testing.peekMin());
+            }
+            for (int e = 0; e < maxElement; e += 1) {
+                assertEquals(reference.contains(e), testing.contains(e));
+                if (reference.contains(e)) {
+                    assertEquals(reference.getPriority(e), testing.getPriority(e));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void clearRemovesEveryElement() {
+        IndexMinPQ testing = new IndexMinPQ(10);
+        for (int i = 0; i < 10; i += 2) {
+            testing.add(i, i);
+        }
+        testing.removeMin();
+        testing.clear();
+        assertTrue(testing.isEmpty());
+        assertEquals(10, testing.capacity());
+        for (int i = 0; i < 10; i += 1) {
+            assertFalse(testing.contains(i));
+        }
+        // Elements can be added again after clearing.
+        testing.add(4, 1.0);
+        testing.add(3, 0.5);
+        assertEquals(3, testing.removeMin());
+        assertEquals(4, testing.removeMin());
+    }
+
+    @Test
+    public void invalidOperationsThrow() {
+        IndexMinPQ testing = new IndexMinPQ(4);
+        assertThrows(NoSuchElementException.class, testing::peekMin);
+        assertThrows(NoSuchElementException.class, testing::removeMin);
+        assertThrows(NoSuchElementException.class, () -> testing.changePriority(1, 1.0));
+        testing.add(1, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> testing.add(1, 2.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> testing.add(4, 2.0));
+    }
+}
@@ -0,0 +1,228 @@
+package minpq;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link MultiQueueMinPQ} class. The order of a {@link MultiQueueMinPQ} is relaxed, so these tests check
+ * that every element is removed exactly once and that removed elements are close to the minimum rather than extending
+ * {@link MinPQTests}.
+ *
+ * @see MultiQueueMinPQ
+ */
+public class MultiQueueMinPQTests {
+    /**
+     * Number of internal heaps in each tested priority queue.
+     */
+    private static final int QUEUES = 8;
+
+    @Test
+    public void randomPrioritiesRemovedNearMinimum() {
+        Random random = new Random(373);
+        MultiQueueMinPQ<Integer> testing = new MultiQueueMinPQ<>(QUEUES);
+        // Remaining priority values, counting duplicates, to find the rank of each removed element.
+        TreeMap<Integer, Integer> remaining = new TreeMap<>();
+        int[] priorities = new int[10000];
+        for (int i = 0; i < priorities.length; i += 1) {
+            priorities[i] = random.nextInt(priorities.length);
+            testing.add(i, priorities[i]);
+            remaining.merge(priorities[i], 1, Integer::sum);
+        }
+        assertEquals(priorities.length, testing.size());
+        long totalRank = 0;
+        Set<Integer> removed = new HashSet<>();
+        while (!testing.isEmpty()) {
+            int min = testing.removeMin();
+            assertTrue(removed.add(min));
+            assertFalse(testing.contains(min));
+            for (int count : remaining.headMap(priorities[min]).values()) {
+                totalRank += count;
+            }
+            remaining.merge(priorities[min], -1, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        assertEquals(priorities.length, removed.size());
+        // The expected rank error is proportional to the number of heaps, so this bound is generous.
+        assertTrue(totalRank / (double) priorities.length <= 4 * QUEUES,
+                "Average rank " + totalRank / (double) priorities.length);
+    }
+
+    @Test
+    public void changePriorityAndInvalidOperations() {
+        MultiQueueMinPQ<String> testing = new MultiQueueMinPQ<>(2);
+        testing.add("a", 5);
+        testing.add("b", Double.POSITIVE_INFINITY);
+        testing.changePriority("a", 1);
+        testing.changePriority("a", 3);
+        assertEquals(3, testing.getPriority("a"));
+        assertEquals(2, testing.size());
+        assertThrows(IllegalArgumentException.class, () -> testing.add("a", 2));
+        assertThrows(IllegalArgumentException.class, () -> testing.add(null, 2));
+        assertThrows(NoSuchElementException.class, () -> testing.getPriority("c"));
+        assertThrows(NoSuchElementException.class, () -> testing.changePriority("c", 2));
+        // Stale entries for "a" must not be returned again.
+        Set<String> removed = Set.of(testing.removeMin(), testing.removeMin());
+        assertEquals(Set.of("a", "b"), removed);
+        assertTrue(testing.isEmpty());
+        assertThrows(NoSuchElementException.class, testing::peekMin);
+        assertThrows(NoSuchElementException.class, testing::removeMin);
+        assertThrows(IllegalArgumentException.class, () -> new MultiQueueMinPQ<>(1));
+    }
+
+    @Test
+    public void concurrentThreadsRemoveEachElementOnce() throws Exception {
+        int threads = 4;
+        int perThread = 20000;
+        MultiQueueMinPQ<Integer> testing = new MultiQueueMinPQ<>(QUEUES);
+        ConcurrentHashMap<Integer, Boolean> removed = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t += 1) {
+            int first = t * perThread;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(first);
+                barrier.await();
+                for (int i = first; i < first + perThread; i += 1) {
+                    testing.add(i, random.nextInt(1000));
+                    // Change priorities of elements that other threads may be removing concurrently.
+                    if (random.nextBoolean()) {
+                        try {
+                            testing.changePriority(i - random.nextInt(10), random.nextInt(1000));
+                        } catch (NoSuchElementException e) {
+                            // Already removed by another thread.
+                        }
+                    }
+                    if (i % 3 != 0) {
+                        assertNull(removed.put(testing.removeMin(), true));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        while (!testing.isEmpty()) {
+            assertNull(removed.put(testing.removeMin(), true));
+        }
+        assertEquals(threads * perThread, removed.size());
+    }
+
+    /**
+     * {@link HeapMinPQ} behind a single lock, the baseline for concurrent access.
+     */
+    private static class SynchronizedMinPQ<E> implements MinPQ<E> {
+        private final MinPQ<E> pq = new HeapMinPQ<>();
+
+        @Override
+        public synchronized void add(E element, double priority) {
+            pq.add(element, priority);
+        }
+
+        @Override
+        public synchronized boolean contains(E element) {
+            return pq.contains(element);
+        }
+
+        @Override
+        public synchronized double getPriority(E element) {
+            return pq.getPriority(element);
+        }
+
+        @Override
+        public synchronized E peekMin() {
+            return pq.peekMin();
+        }
+
+        @Override
+        public synchronized E removeMin() {
+            return pq.removeMin();
+        }
+
+        @Override
+        public synchronized void changePriority(E element, double priority) {
+            pq.changePriority(element, priority);
+        }
+
+        @Override
+        public synchronized int size() {
+            return pq.size();
+        }
+    }
+
+    @Nested
+    @Disabled
+    class ThroughputExperiments {
+        /**
+         * Maximum number of threads. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_THREADS = 8;
+        /**
+         * Number of elements in the priority queue throughout each experiment.
+         */
+        private static final int SIZE = 1000;
+        /**
+         * Number of add and removeMin pairs per thread. Making this smaller means experiments run faster.
+         */
+        private static final int OPERATIONS = 100000;
+
+        /**
+         * Print the number of threads, and the throughput (operations per millisecond) of threads that each repeatedly
+         * add an element and remove the minimum from a shared synchronized {@link HeapMinPQ} and from a shared
+         * {@link MultiQueueMinPQ}.
+         */
+        @Test
+        void addRemoveMin() throws Exception {
+            System.out.println("threads,synchronizedHeapThroughput,multiQueueThroughput");
+            for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+                int queues = 2 * threads;
+                // Warm up before timing.
+                throughput(SynchronizedMinPQ::new, threads);
+                throughput(() -> new MultiQueueMinPQ<>(queues), threads);
+                System.out.printf("%d,%.0f,%.0f%n", threads, throughput(SynchronizedMinPQ::new, threads),
+                        throughput(() -> new MultiQueueMinPQ<>(queues), threads));
+            }
+        }
+
+        /**
+         * Returns the operations per millisecond of the given number of threads sharing a priority queue.
+         */
+        private double throughput(Supplier<MinPQ<Integer>> createMinPQ, int threads) throws Exception {
+            MinPQ<Integer> pq = createMinPQ.get();
+            for (int i = 0; i < SIZE; i += 1) {
+                pq.add(-1 - i, i);
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t += 1) {
+                int first = t * OPERATIONS;
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    barrier.await();
+                    for (int i = first; i < first + OPERATIONS; i += 1) {
+                        pq.add(i, random.nextInt(SIZE));
+                        pq.removeMin();
+                    }
+                    return null;
+                }));
+            }
+            barrier.await();
+            long start = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long time = System.nanoTime() - start;
+            executor.shutdown();
+            return 2.0 * threads * OPERATIONS / (time / 1e6);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package minpq;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link PairingHeapMinPQ} class.
+ *
+ * @see PairingHeapMinPQ
+ */
+public class PairingHeapMinPQTests extends MinPQTests {
+    @Override
+    public <E> MinPQ<E> createMinPQ() {
+        return new PairingHeapMinPQ<>();
+    }
+
+    /**
+     * Pixel graph where each pixel has an edge to each of the three adjacent pixels in the next row, like the graph of
+     * a seam carving image, with random edge weights.
+     */
+    static class PixelDAG {
+        final int width;
+        final int height;
+        /**
+         * Weight of the edge to each of the three pixels in the next row out of each pixel.
+         */
+        final double[] weights;
+
+        PixelDAG(int width, int height, Random random) {
+            this.width = width;
+            this.height = height;
+            weights = new double[3 * width * height];
+            for (int i = 0; i < weights.length; i += 1) {
+                weights[i] = random.nextDouble();
+            }
+        }
+
+        /**
+         * Returns the shortest distances from every pixel in the first row by Dijkstra's algorithm with an
+         * {@link IndexMinPQ}.
+         */
+        double[] indexMinPQDistances() {
+            int n = width * height;
+            double[] distTo = new double[n];
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            IndexMinPQ perimeter = new IndexMinPQ(n);
+            for (int x = 0; x < width; x += 1) {
+                distTo[x] = 0;
+                perimeter.add(x, 0);
+            }
+            while (!perimeter.isEmpty()) {
+                int from = perimeter.removeMin();
+                int y = from / width;
+                int x = from % width;
+                for (int dx = -1; dx <= 1 && y + 1 < height; dx += 1) {
+                    if (x + dx >= 0 && x + dx < width) {
+                        int to = from + width + dx;
+                        double newDist = distTo[from] + weights[3 * from + dx + 1];
+                        if (newDist < distTo[to]) {
+                            distTo[to] = newDist;
+                            perimeter.addOrChangePriority(to, newDist);
+                        }
+                    }
+                }
+            }
+            return distTo;
+        }
+
+        /**
+         * Returns the shortest distances from every pixel in the first row by Dijkstra's algorithm with a
+         * {@link PairingHeapMinPQ}, decreasing distances through the handle of each pixel.
+         */
+        double[] pairingHeapDistances() {
+            int n = width * height;
+            double[] distTo = new double[n];
+            Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+            @SuppressWarnings("unchecked")
+            HandleMinPQ.Handle<Integer>[] handles = new HandleMinPQ.Handle[n];
+            boolean[] settled = new boolean[n];
+            HandleMinPQ<Integer> perimeter = new PairingHeapMinPQ<>();
+            for (int x = 0; x < width; x += 1) {
+                distTo[x] = 0;
+                handles[x] = perimeter.insert(x, 0);
+            }
+            while (!perimeter.isEmpty()) {
+                int from = perimeter.removeMin();
+                settled[from] = true;
+                int y = from / width;
+                int x = from % width;
+                for (int dx = -1; dx <= 1 && y + 1 < height; dx += 1) {
+                    if (x + dx >= 0 && x + dx < width) {
+                        int to = from + width + dx;
+                        double newDist = distTo[from] + weights[3 * from + dx + 1];
+                        if (newDist < distTo[to]) {
+                            distTo[to] = newDist;
+                            if (handles[to] == null) {
+                                handles[to] = perimeter.insert(to, newDist);
+                            } else if (!settled[to]) {
+                                perimeter.decreaseKey(handles[to], newDist);
+                            }
+                        }
+                    }
+                }
+            }
+            return distTo;
+        }
+    }
+
+    @Test
+    public void dijkstraMatchesIndexMinPQ() {
+        PixelDAG graph = new PixelDAG(50, 40, new Random(373));
+        assertArrayEquals(graph.indexMinPQDistances(), graph.pairingHeapDistances());
+    }
+
+    @Test
+    public void handlesDecreaseAndChangePriorities() {
+        PairingHeapMinPQ<String> testing = new PairingHeapMinPQ<>();
+        HandleMinPQ.Handle<String> a = testing.insert("a", 5);
+        HandleMinPQ.Handle<String> b = testing.insert("b", 3);
+        testing.insert("c", 4);
+        testing.decreaseKey(a, 1);
+        assertEquals(1, a.priority());
+        assertEquals("a", testing.peekMin());
+        // Increase the root's priority so that its children must be merged.
+        testing.changePriority("a", 10);
+        assertEquals("b", testing.removeMin());
+        assertEquals("b", b.element());
+        assertEquals("c", testing.removeMin());
+        assertEquals("a", testing.removeMin());
+        assertTrue(testing.isEmpty());
+    }
+
+    @Test
+    public void invalidHandlesThrow() {
+        PairingHeapMinPQ<String> testing = new PairingHeapMinPQ<>();
+        HandleMinPQ.Handle<String> a = testing.insert("a", 1);
+        assertThrows(IllegalArgumentException.class, () -> testing.decreaseKey(a, 2));
+        assertThrows(IllegalArgumentException.class, () -> testing.insert("a", 2));
+        assertThrows(IllegalArgumentException.class, () -> testing.insert(null, 2));
+        HandleMinPQ.Handle<String> other = new PairingHeapMinPQ<String>().insert("a", 1);
+        assertThrows(IllegalArgumentException.class, () -> testing.decreaseKey(other, 0));
+        testing.removeMin();
+        assertThrows(IllegalArgumentException.class, () -> testing.decreaseKey(a, 0));
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Maximum image dimensions in pixels. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 1000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 100;
+        /**
+         * Number of trials per image size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+
+        /**
+         * Print the image size, and the average time (nanoseconds) for Dijkstra's algorithm from the first row of a
+         * random square pixel graph with an {@link IndexMinPQ} and with a {@link PairingHeapMinPQ}.
+         */
+        @Test
+        void pixelDAGs() {
+            System.out.println("size,indexMinPQTime,pairingHeapTime");
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                PixelDAG graph = new PixelDAG(size, size, new Random(size));
+                // Warm up before timing.
+                graph.indexMinPQDistances();
+                graph.pairingHeapDistances();
+                long indexTime = 0;
+                long pairingTime = 0;
+                for (int i = 0; i < NUM_TRIALS; i += 1) {
+                    long start = System.nanoTime();
+                    graph.indexMinPQDistances();
+                    indexTime += System.nanoTime() - start;
+                    start = System.nanoTime();
+                    graph.pairingHeapDistances();
+                    pairingTime += System.nanoTime() - start;
+                }
+                System.out.printf("%d,%.0f,%.0f%n", size, indexTime / (double) NUM_TRIALS,
+                        pairingTime / (double) NUM_TRIALS);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package minpq;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RadixMinPQ} class, using a {@link DoubleMapMinPQ} as the reference.
+ *
+ * @see RadixMinPQ
+ */
+public class RadixMinPQTests {
+    @Test
+    public void randomPriorities() {
+        int size = 1000;
+        Random random = new Random(373);
+        double[] priorities = new double[size];
+        RadixMinPQ testing = new RadixMinPQ(size);
+        for (int i = 0; i < size; i += 1) {
+            priorities[i] = random.nextInt(size) * 0.5;
+            testing.add(i, priorities[i]);
+        }
+        double[] expected = priorities.clone();
+        Arrays.sort(expected);
+        // Ties may be removed in any order, so compare the priorities of the removed elements.
+        for (int i = 0; i < size; i += 1) {
+            assertEquals(expected[i], priorities[testing.removeMin()]);
+        }
+        assertTrue(testing.isEmpty());
+    }
+
+    @Test
+    public void monotoneRandomIntegersRandomPriorities() {
+        int maxElement = 1000;
+        MinPQ<Integer> reference = new DoubleMapMinPQ<>();
+        RadixMinPQ testing = new RadixMinPQ(maxElement);
+        Random random = new Random(373);
+        // Only add priorities of at least the last minimum returned, which is removed or peeked every iteration.
+        double last = 0;
+        for (int i = 0; i < 10000; i += 1) {
+            if (random.nextBoolean() && !reference.isEmpty()) {
+                assertEquals((int) reference.removeMin(), testing.removeMin());
+            } else {
+                int element = random.nextInt(maxElement);
+                double priority = last + random.nextDouble() * 100;
+                reference.addOrChangePriority(element, priority);
+                testing.addOrChangePriority(element, priority);
+            }
+            assertEquals(reference.size(), testing.size());
+            if (!reference.isEmpty()) {
+                assertEquals((int) reference.peekMin(), testing.peekMin());
+                last = reference.getPriority(reference.peekMin());
+            }
+            for (int e = 0; e < maxElement; e += 1) {
+                assertEquals(reference.contains(e), testing.contains(e));
+                if (reference.contains(e)) {
+                    assertEquals(reference.getPriority(e), testing.getPriority(e));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void invalidOperationsThrow() {
+        RadixMinPQ testing = new RadixMinPQ(4);
+        assertThrows(NoSuchElementException.class, testing::peekMin);
+        assertThrows(NoSuchElementException.class, testing::removeMin);
+        assertThrows(NoSuchElementException.class, () -> testing.changePriority(1, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> testing.add(1, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> testing.add(1, Double.NaN));
+        testing.add(1, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> testing.add(1, 2.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> testing.add(4, 2.0));
+        testing.add(2, 3.0);
+        assertEquals(1, testing.removeMin());
+        // Priorities may not decrease below the last minimum.
+        assertThrows(IllegalArgumentException.class, () -> testing.changePriority(2, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> testing.add(3, 0.5));
+    }
+}
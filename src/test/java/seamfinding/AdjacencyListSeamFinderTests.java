@@ -1,6 +1,8 @@
 package seamfinding;
 
 import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.SearchListener;
+import graphs.shortestpaths.ShortestPathSolver;
 import graphs.shortestpaths.ToposortDAGSolver;
 import org.junit.jupiter.api.Nested;
 
@@ -20,6 +22,11 @@ public class AdjacencyListSeamFinderTests {
         public SeamFinder createSeamFinder() {
             return new AdjacencyListSeamFinder(DijkstraSolver::new);
         }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new AdjacencyListSeamFinder(ShortestPathSolver.instrumented(DijkstraSolver::new, listener));
+        }
     }
 
     /**
@@ -31,5 +38,10 @@ public class AdjacencyListSeamFinderTests {
         public SeamFinder createSeamFinder() {
             return new AdjacencyListSeamFinder(ToposortDAGSolver::new);
         }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new AdjacencyListSeamFinder(ShortestPathSolver.instrumented(ToposortDAGSolver::new, listener));
+        }
     }
 }
@@ -1,6 +1,9 @@
 package seamfinding;
 
 import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.SPFASolver;
+import graphs.shortestpaths.SearchListener;
+import graphs.shortestpaths.ShortestPathSolver;
 import graphs.shortestpaths.ToposortDAGSolver;
 import org.junit.jupiter.api.Nested;
 
@@ -20,6 +23,11 @@ public class GenerativeSeamFinderTests {
         public SeamFinder createSeamFinder() {
             return new GenerativeSeamFinder(DijkstraSolver::new);
         }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new GenerativeSeamFinder(ShortestPathSolver.instrumented(DijkstraSolver::new, listener));
+        }
     }
 
     /**
@@ -31,5 +39,43 @@ public class GenerativeSeamFinderTests {
         public SeamFinder createSeamFinder() {
             return new GenerativeSeamFinder(ToposortDAGSolver::new);
         }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new GenerativeSeamFinder(ShortestPathSolver.instrumented(ToposortDAGSolver::new, listener));
+        }
+    }
+
+    /**
+     * Tests using the {@link SPFASolver} implementation.
+     */
+    @Nested
+    public class UsingSPFASolver extends SeamFinderTests {
+        @Override
+        public SeamFinder createSeamFinder() {
+            return new GenerativeSeamFinder(SPFASolver::new);
+        }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new GenerativeSeamFinder(ShortestPathSolver.instrumented(SPFASolver::new, listener));
+        }
+    }
+
+    /**
+     * Tests using the {@link SPFASolver} implementation with the queue reordered by the Small Label First and Large
+     * Label Last heuristics.
+     */
+    @Nested
+    public class UsingReorderedSPFASolver extends SeamFinderTests {
+        @Override
+        public SeamFinder createSeamFinder() {
+            return createSeamFinder(SearchListener.none());
+        }
+
+        @Override
+        public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+            return new GenerativeSeamFinder(ShortestPathSolver.instrumented(SPFASolver.withReordering(), listener));
+        }
     }
 }
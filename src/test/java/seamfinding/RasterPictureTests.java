@@ -0,0 +1,167 @@
+package seamfinding;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import seamfinding.energy.DualGradientEnergyFunction;
+import seamfinding.energy.EnergyFunction;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link RasterPicture} class.
+ *
+ * @see RasterPicture
+ */
+public class RasterPictureTests {
+    /**
+     * Returns a new image with the given width and height dimensions filled with random colors.
+     */
+    private static BufferedImage randomImage(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y += 1) {
+            for (int x = 0; x < width; x += 1) {
+                image.setRGB(x, y, random.nextInt(1 << 24));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns a random seam of the given length with indices less than the given bound.
+     */
+    private static List<Integer> randomSeam(int length, int bound, Random random) {
+        List<Integer> seam = new ArrayList<>(length);
+        for (int i = 0; i < length; i += 1) {
+            seam.add(random.nextInt(bound));
+        }
+        return seam;
+    }
+
+    /**
+     * Asserts that the two pictures have the same dimensions and colors.
+     */
+    private static void assertPicturesEqual(Picture expected, Picture actual) {
+        assertEquals(expected.width(), actual.width());
+        assertEquals(expected.height(), actual.height());
+        for (int y = 0; y < expected.height(); y += 1) {
+            for (int x = 0; x < expected.width(); x += 1) {
+                assertEquals(expected.get(x, y), actual.get(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    @Test
+    void matchesBufferedImagePicture() throws IOException {
+        Picture expected = new Picture(new File("data/seamcarving/HJoceanSmall.png"));
+        RasterPicture actual = new RasterPicture(new File("data/seamcarving/HJoceanSmall.png"));
+        assertPicturesEqual(expected, actual);
+        assertPicturesEqual(expected.transposed(), actual.transposed());
+        assertPicturesEqual(expected, new Picture(actual.toBufferedImage()));
+    }
+
+    @Test
+    void setAndBoundsChecks() {
+        RasterPicture picture = new RasterPicture(3, 2);
+        picture.set(2, 1, 0x123456);
+        assertEquals(0x123456, picture.get(2, 1));
+        assertEquals(0x123456, picture.transposed().get(1, 2));
+        assertEquals(0, picture.get(0, 0));
+        // Coordinates past the end of a row must not read the next row.
+        assertThrows(IndexOutOfBoundsException.class, () -> picture.get(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> picture.get(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> picture.set(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RasterPicture(0, 1));
+    }
+
+    @Test
+    void removeSeamsMatchesCopyingPixels() {
+        Random random = new Random(373);
+        int width = 17;
+        int height = 11;
+        RasterPicture picture = new RasterPicture(randomImage(width, height, random));
+        for (int trial = 0; trial < 20; trial += 1) {
+            List<Integer> horizontal = randomSeam(width, height, random);
+            Picture expected = new Picture(width, height - 1);
+            for (int x = 0; x < width; x += 1) {
+                for (int y = 0; y < height - 1; y += 1) {
+                    expected.set(x, y, picture.get(x, y < horizontal.get(x) ? y : y + 1));
+                }
+            }
+            assertPicturesEqual(expected, picture.removeHorizontal(horizontal));
+
+            List<Integer> vertical = randomSeam(height, width, random);
+            expected = new Picture(width - 1, height);
+            for (int y = 0; y < height; y += 1) {
+                for (int x = 0; x < width - 1; x += 1) {
+                    expected.set(x, y, picture.get(x < vertical.get(y) ? x : x + 1, y));
+                }
+            }
+            assertPicturesEqual(expected, picture.removeVertical(vertical));
+        }
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Maximum image dimensions in pixels. Making this smaller means experiments run faster.
+         */
+        private static final int MAX_SIZE = 1000;
+        /**
+         * Step size increment. Making this smaller means experiments run slower.
+         */
+        private static final int STEP = 200;
+        /**
+         * Number of trials per image size. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 5;
+
+        /**
+         * Print the image size, and the average time (nanoseconds) to find a vertical seam with a
+         * {@link DynamicProgrammingSeamFinder} and then remove it, for a {@link Picture} backed by a
+         * {@link BufferedImage} and for a {@link RasterPicture}.
+         */
+        @Test
+        void findAndRemoveVertical() {
+            System.out.println("size,pictureTime,rasterPictureTime");
+            EnergyFunction f = new DualGradientEnergyFunction();
+            SeamFinder seamFinder = new DynamicProgrammingSeamFinder();
+            for (int size = STEP; size <= MAX_SIZE; size += STEP) {
+                BufferedImage image = randomImage(size, size, new Random(size));
+                Picture picture = new Picture(image);
+                RasterPicture raster = new RasterPicture(image);
+                long pictureTime = 0;
+                long rasterTime = 0;
+                // Include one untimed warm-up trial.
+                for (int i = 0; i <= NUM_TRIALS; i += 1) {
+                    long start = System.nanoTime();
+                    List<Integer> seam = seamFinder.findVertical(picture, f);
+                    Picture result = new Picture(size - 1, size);
+                    for (int y = 0; y < size; y += 1) {
+                        for (int x = 0; x < size - 1; x += 1) {
+                            result.set(x, y, picture.get(x < seam.get(y) ? x : x + 1, y));
+                        }
+                    }
+                    long time = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    raster.removeVertical(seamFinder.findVertical(raster, f));
+                    long rasterTrialTime = System.nanoTime() - start;
+                    if (i > 0) {
+                        pictureTime += time;
+                        rasterTime += rasterTrialTime;
+                    }
+                }
+                System.out.printf("%d,%.0f,%.0f%n", size, pictureTime / (double) NUM_TRIALS,
+                        rasterTime / (double) NUM_TRIALS);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package seamfinding;
+
+import graphs.shortestpaths.DijkstraSolver;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import seamfinding.energy.DualGradientEnergyFunction;
+import seamfinding.energy.EnergyFunction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link SeamFindEvent} Java Flight Recorder event.
+ *
+ * @see SeamFindEvent
+ */
+public class SeamFindEventTests {
+    private static final EnergyFunction f = new DualGradientEnergyFunction();
+
+    /**
+     * Returns the seam find events recorded while running the given searches.
+     *
+     * @param directory the directory for the recording file.
+     * @param threshold the minimum duration of recorded events.
+     * @param searches  the searches to run.
+     * @return the seam find events recorded while running the searches.
+     * @throws IOException if the recording cannot be written or read.
+     */
+    private static List<RecordedEvent> record(Path directory, Duration threshold, Runnable searches)
+            throws IOException {
+        Path file = directory.resolve("seams.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("huskymaps.SeamFind").withThreshold(threshold);
+            recording.start();
+            searches.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("huskymaps.SeamFind")) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void searchesAreRecorded(@TempDir Path directory) throws IOException {
+        Picture picture = new Picture(new File("data/seamcarving/3x4.png"));
+        SeamFinder graph = new AdjacencyListSeamFinder(DijkstraSolver::new);
+        SeamFinder dp = new DynamicProgrammingSeamFinder();
+        List<RecordedEvent> events = record(directory, Duration.ZERO, () -> {
+            graph.findHorizontal(picture, f);
+            // Vertical seams are horizontal seams of the transposed picture.
+            dp.findVertical(picture, f);
+        });
+        assertEquals(2, events.size());
+        RecordedEvent first = events.get(0);
+        assertEquals("AdjacencyListSeamFinder", first.getString("finder"));
+        assertEquals("DijkstraSolver", first.getString("solver"));
+        assertEquals(3, first.getInt("width"));
+        assertEquals(4, first.getInt("height"));
+        RecordedEvent second = events.get(1);
+        assertEquals("DynamicProgrammingSeamFinder", second.getString("finder"));
+        assertEquals("DynamicProgrammingSeamFinder", second.getString("solver"));
+        assertEquals(4, second.getInt("width"));
+        assertEquals(3, second.getInt("height"));
+    }
+
+    @Test
+    void fastSearchesAreBelowThreshold(@TempDir Path directory) throws IOException {
+        Picture picture = new Picture(new File("data/seamcarving/3x4.png"));
+        SeamFinder dp = new DynamicProgrammingSeamFinder();
+        List<RecordedEvent> events = record(directory, Duration.ofHours(1), () -> dp.findHorizontal(picture, f));
+        assertEquals(List.of(), events);
+    }
+}
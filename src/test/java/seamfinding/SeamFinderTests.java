@@ -1,8 +1,11 @@
 package seamfinding;
 
+import graphs.shortestpaths.SearchListener;
+import graphs.shortestpaths.SearchStats;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import seamfinding.energy.CachingEnergyFunction;
 import seamfinding.energy.DualGradientEnergyFunction;
 import seamfinding.energy.EnergyFunction;
 
@@ -47,6 +50,17 @@ public abstract class SeamFinderTests {
      */
     public abstract SeamFinder createSeamFinder();
 
+    /**
+     * Returns a new instance of the {@link SeamFinder} interface that reports the work of its shortest paths searches
+     * to the listener. Implementations that do not search a graph ignore the listener.
+     *
+     * @param listener the listener to report the work of each search to.
+     * @return a new instance of the {@link SeamFinder} interface
+     */
+    public SeamFinder createSeamFinder(SearchListener<Object> listener) {
+        return createSeamFinder();
+    }
+
     @BeforeAll
     void setup() {
         seamFinder = createSeamFinder();
@@ -58,10 +72,38 @@ public abstract class SeamFinderTests {
                             "12x10", "10x12", "10x10", "8x3", "7x10", "7x3", "6x5", "5x6", "4x6",
                             "3x8", "3x7", "3x4", "3x3"})
     void precomputedImages(String basename) throws IOException {
-        Picture picture = new Picture(new File(BASE_PATH + basename + ".png"));
+        checkPrecomputed(basename, new Picture(new File(BASE_PATH + basename + ".png")), f);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HJoceanSmall", "stripes", "diagonals", "diag_test", "chameleon",
+                            "12x10", "10x12", "10x10", "8x3", "7x10", "7x3", "6x5", "5x6", "4x6",
+                            "3x8", "3x7", "3x4", "3x3"})
+    void precomputedRasterImages(String basename) throws IOException {
+        checkPrecomputed(basename, new RasterPicture(new File(BASE_PATH + basename + ".png")), f);
+    }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"HJoceanSmall", "stripes", "diagonals", "diag_test", "chameleon",
+                            "12x10", "10x12", "10x10", "8x3", "7x10", "7x3", "6x5", "5x6", "4x6",
+                            "3x8", "3x7", "3x4", "3x3"})
+    void precomputedCachedEnergyImages(String basename) throws IOException {
+        checkPrecomputed(basename, new RasterPicture(new File(BASE_PATH + basename + ".png")),
+                new CachingEnergyFunction(f));
+    }
+
+    /**
+     * Checks that the minimum-cost seams found in the picture have the expected energies.
+     *
+     * @param basename the base file name of the picture.
+     * @param picture  the {@link Picture} read from the file.
+     * @param finderF  the {@link EnergyFunction} given to the seam finder.
+     * @throws FileNotFoundException if an expected seam cost file is missing.
+     */
+    private void checkPrecomputed(String basename, Picture picture, EnergyFunction finderF)
+            throws FileNotFoundException {
         double horizontalExpected = precomputedEnergy(basename, "horizontal");
-        List<Integer> horizontalSeam = seamFinder.findHorizontal(picture, f);
+        List<Integer> horizontalSeam = seamFinder.findHorizontal(picture, finderF);
         checkHorizontal(picture, horizontalSeam);
         double horizontalActual = energyHorizontal(picture, horizontalSeam);
         assertEquals(horizontalExpected, horizontalActual, EPSILON, () -> String.format(
@@ -72,7 +114,7 @@ public abstract class SeamFinderTests {
                 horizontalExpected, horizontalActual, horizontalSeam));
 
         double verticalExpected = precomputedEnergy(basename, "vertical");
-        List<Integer> verticalSeam = seamFinder.findVertical(picture, f);
+        List<Integer> verticalSeam = seamFinder.findVertical(picture, finderF);
         checkHorizontal(picture.transposed(), verticalSeam);
         double verticalActual = energyHorizontal(picture.transposed(), verticalSeam);
         assertEquals(verticalExpected, verticalActual, EPSILON, () -> String.format(
@@ -148,8 +190,14 @@ public abstract class SeamFinderTests {
          */
         private static final int NUM_TRIALS = 25;
 
+        /**
+         * Print the image size, average time (nanoseconds) to find a horizontal seam, and the number of vertices
+         * settled, edges relaxed, distance updates, and largest perimeter size of one shortest paths search.
+         */
         @Test
         void randomPictures() {
+            SearchStats stats = new SearchStats();
+            SeamFinder instrumented = createSeamFinder(stats);
             SplittableRandom spRandom = new SplittableRandom(373);
             for (int size = STEP; size <= MAX_SIZE; size += STEP) {
                 System.out.print(size);
@@ -171,6 +219,12 @@ public abstract class SeamFinderTests {
 
                 // Output the average rounded to the closest integer.
                 System.out.printf("%.0f", totalTime / (double) NUM_TRIALS);
+
+                // Count the work of one search separately so that the listener does not affect the timing.
+                stats.reset();
+                instrumented.findHorizontal(picture, f);
+                System.out.printf(",%d,%d,%d,%d", stats.settles(), stats.relaxations(), stats.updates(),
+                        stats.maxFrontier());
                 System.out.println();
             }
         }
@@ -0,0 +1,137 @@
+package seamfinding.energy;
+
+import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.ToposortDAGSolver;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import seamfinding.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link EnergyMap} and {@link CachingEnergyFunction} classes.
+ *
+ * @see EnergyMap
+ * @see CachingEnergyFunction
+ */
+public class EnergyMapTests {
+    /**
+     * The base directory path for the images.
+     */
+    private static final String BASE_PATH = "data/seamcarving/";
+    /**
+     * The {@link EnergyFunction} implementation.
+     */
+    private static final EnergyFunction f = new DualGradientEnergyFunction();
+
+    /**
+     * Asserts that the energy map has the energy of every pixel in the picture.
+     */
+    private static void assertMatches(Picture picture, EnergyMap energies) {
+        assertEquals(picture.width(), energies.width());
+        assertEquals(picture.height(), energies.height());
+        for (int y = 0; y < picture.height(); y += 1) {
+            for (int x = 0; x < picture.width(); x += 1) {
+                assertEquals(f.apply(picture, x, y), energies.get(x, y), "Pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    @Test
+    void matchesEnergyFunction() throws IOException {
+        // HJoceanSmall is large enough to be split into several bands; 3x3 is computed in one band.
+        for (String basename : List.of("HJoceanSmall", "chameleon", "3x3")) {
+            Picture picture = new RasterPicture(new File(BASE_PATH + basename + ".png"));
+            assertMatches(picture, new EnergyMap(picture, f));
+            assertMatches(picture.transposed(), new EnergyMap(picture.transposed(), f));
+        }
+        EnergyMap energies = new EnergyMap(new RasterPicture(3, 3), f);
+        assertThrows(IndexOutOfBoundsException.class, () -> energies.get(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> energies.get(0, 3));
+    }
+
+    @Test
+    void cachingComputesEachPictureOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        EnergyFunction counting = (picture, x, y) -> {
+            calls.incrementAndGet();
+            return f.apply(picture, x, y);
+        };
+        CachingEnergyFunction caching = new CachingEnergyFunction(counting);
+        RasterPicture picture = new RasterPicture(4, 3);
+        picture.set(1, 1, 0xffffff);
+        for (int i = 0; i < 3; i += 1) {
+            for (int y = 0; y < picture.height(); y += 1) {
+                for (int x = 0; x < picture.width(); x += 1) {
+                    assertEquals(f.apply(picture, x, y), caching.apply(picture, x, y));
+                }
+            }
+        }
+        assertEquals(12, calls.get());
+        // A different picture, even a view of the same pixels, has its own energy map.
+        Picture transposed = picture.transposed();
+        assertEquals(f.apply(transposed, 1, 2), caching.apply(transposed, 1, 2));
+        assertEquals(24, calls.get());
+        assertThrows(IndexOutOfBoundsException.class, () -> caching.apply(transposed, 3, 0));
+    }
+
+    @Nested
+    @Disabled
+    class RuntimeExperiments {
+        /**
+         * Number of trials per image and seam finder. Making this smaller means experiments run faster.
+         */
+        private static final int NUM_TRIALS = 25;
+
+        /**
+         * Print the image, seam finder, and the average time (nanoseconds) to find a horizontal and a vertical seam
+         * with the {@link DualGradientEnergyFunction} and with a {@link CachingEnergyFunction} around it.
+         */
+        @Test
+        void dataImages() throws IOException {
+            System.out.println("image,seamFinder,energyFunctionTime,cachingEnergyFunctionTime");
+            List<String> names = List.of("AdjacencyListDijkstra", "AdjacencyListToposort", "GenerativeDijkstra",
+                    "DynamicProgramming");
+            List<SeamFinder> seamFinders = List.of(
+                    new AdjacencyListSeamFinder(DijkstraSolver::new),
+                    new AdjacencyListSeamFinder(ToposortDAGSolver::new),
+                    new GenerativeSeamFinder(DijkstraSolver::new),
+                    new DynamicProgrammingSeamFinder()
+            );
+            for (String basename : List.of("HJoceanSmall", "chameleon", "stripes", "diagonals", "diag_test")) {
+                RasterPicture picture = new RasterPicture(new File(BASE_PATH + basename + ".png"));
+                for (int i = 0; i < seamFinders.size(); i += 1) {
+                    SeamFinder seamFinder = seamFinders.get(i);
+                    CachingEnergyFunction caching = new CachingEnergyFunction(f);
+                    long plainTime = 0;
+                    long cachingTime = 0;
+                    // Include one untimed warm-up trial.
+                    for (int trial = 0; trial <= NUM_TRIALS; trial += 1) {
+                        long start = System.nanoTime();
+                        seamFinder.findHorizontal(picture, f);
+                        seamFinder.findVertical(picture, f);
+                        long time = System.nanoTime() - start;
+                        // Use a copy so that the energy map is computed in every trial.
+                        Picture copy = new RasterPicture(picture.toBufferedImage());
+                        start = System.nanoTime();
+                        seamFinder.findHorizontal(copy, caching);
+                        seamFinder.findVertical(copy, caching);
+                        long cachingTrialTime = System.nanoTime() - start;
+                        if (trial > 0) {
+                            plainTime += time;
+                            cachingTime += cachingTrialTime;
+                        }
+                    }
+                    System.out.printf("%s,%s,%.0f,%.0f%n", basename, names.get(i), plainTime / (double) NUM_TRIALS,
+                            cachingTime / (double) NUM_TRIALS);
+                }
+            }
+        }
+    }
+}